@@ -5,17 +5,22 @@ import java.awt.Image;
  * Extends Entity and adds movement, direction, and state.
  */
 public class Actor extends Entity {
-    public final int startX;
-    public final int startY;
+    public int startX;
+    public int startY;
     public Direction direction = Direction.NONE;
 
     public int velocityX = 0;
     public int velocityY = 0;
     public int speed;
 
+    // Position at the start of the current tick, for swept collision tests
+    public int prevX;
+    public int prevY;
+
     public boolean isMoving = false;
     public int targetX, targetY;
     public MovementType movementType = MovementType.SMART;
+    public GhostRole role = GhostRole.CHASE;
 
     public Actor(Image image, int x, int y, int width, int height, int speed) {
         super(image, x, y, width, height);
@@ -24,6 +29,8 @@ public class Actor extends Entity {
         this.speed = speed;
         this.targetX = x;
         this.targetY = y;
+        this.prevX = x;
+        this.prevY = y;
     }
 
     /**
@@ -35,6 +42,33 @@ public class Actor extends Entity {
         this.velocityY = direction.getDy(speed);
     }
 
+    /**
+     * Records the current position as the start of this tick's move.
+     */
+    public void beginTick() {
+        this.prevX = this.x;
+        this.prevY = this.y;
+    }
+
+    /**
+     * Shifts the actor, its move target and its start point (endless mode's floating origin).
+     */
+    public void translate(int dx, int dy) {
+        this.x += dx;
+        this.y += dy;
+        this.prevX += dx;
+        this.prevY += dy;
+        this.targetX += dx;
+        this.targetY += dy;
+        this.startX += dx;
+        this.startY += dy;
+    }
+
+    public void setStart(int x, int y) {
+        this.startX = x;
+        this.startY = y;
+    }
+
     /**
      * Resets the actor to its starting position.
      */
@@ -43,6 +77,8 @@ public class Actor extends Entity {
         this.y = this.startY;
         this.targetX = this.startX;
         this.targetY = this.startY;
+        this.prevX = this.startX;
+        this.prevY = this.startY;
         this.velocityX = 0;
         this.velocityY = 0;
         this.direction = Direction.NONE;
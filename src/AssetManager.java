@@ -3,7 +3,8 @@ import java.util.Objects;
 import javax.swing.ImageIcon;
 
 /**
- * Loads and provides access to all game image assets.
+ * Loads and provides access to all game image assets. Sprites are also
+ * pre-scaled into a SpriteAtlas at the sizes the game draws them at.
  */
 public class AssetManager {
     // All images are private
@@ -18,11 +19,14 @@ public class AssetManager {
     private int foodWidth;
     private int foodHeight;
 
+    private final SpriteAtlas atlas = new SpriteAtlas();
+
     private static final String FOOD_IMAGE_RESOURCE = "/goldFood.png";
 
     public AssetManager(int tileSize) {
         loadImages();
-        scaleFoodImage(tileSize);
+        sizeFoodImage(tileSize);
+        buildAtlas(tileSize);
     }
 
     private void loadImages() {
@@ -69,7 +73,24 @@ public class AssetManager {
         throw new IllegalArgumentException("Could not load image from paths: " + String.join(", ", paths));
     }
 
-    private void scaleFoodImage(int tileSize) {
+    /**
+     * Scales every sprite to its in-game size once, up front. The HUD icon sizes
+     * depend on the layout and are added by the Renderer.
+     */
+    private void buildAtlas(int tileSize) {
+        Image[] tileSprites = {
+                pacmanUpImage, pacmanDownImage, pacmanLeftImage, pacmanRightImage,
+                pacmanUpKnifeImage, pacmanDownKnifeImage, pacmanLeftKnifeImage, pacmanRightKnifeImage,
+                blueGhostImage, orangeGhostImage, pinkGhostImage, redGhostImage,
+                BossImage, BossReflectImage
+        };
+        for (Image image : tileSprites) atlas.add(image, tileSize, tileSize);
+        atlas.add(knifeImage, GameConstants.KNIFE_SIZE, GameConstants.KNIFE_SIZE);
+        atlas.add(ProjectileImage, Boss.PROJECTILE_SIZE, Boss.PROJECTILE_SIZE);
+        atlas.add(foodImage, foodWidth, foodHeight);
+    }
+
+    private void sizeFoodImage(int tileSize) {
         double maxFoodCoverage = 0.6;
         int maxFoodWidth = (int) Math.round(tileSize * maxFoodCoverage);
         int maxFoodHeight = (int) Math.round(tileSize * maxFoodCoverage);
@@ -82,8 +103,8 @@ public class AssetManager {
         if (scale < 1.0) {
             foodWidth = Math.max(1, (int) Math.round(foodWidth * scale));
             foodHeight = Math.max(1, (int) Math.round(foodHeight * scale));
-            foodImage = foodImage.getScaledInstance(foodWidth, foodHeight, Image.SCALE_SMOOTH);
         }
+        // The image itself stays full size; the atlas holds the scaled copy
     }
 
     // --- Public Getters ---
@@ -108,6 +129,8 @@ public class AssetManager {
     public Image getBossReflectImage() { return BossReflectImage; }
     public Image getProjectileImage() { return ProjectileImage; }
 
+    public SpriteAtlas getAtlas() { return atlas; }
+
     public int getFoodWidth() { return foodWidth; }
     public int getFoodHeight() { return foodHeight; }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+import java.util.Random;
+
+/**
+ * Automated Pac-Man controller. Scores the four neighbouring tiles straight
+ * from the InfluenceMap (pellet and knife value minus danger) and takes the best.
+ * A player carrying a knife treats ghosts as prey rather than a threat.
+ */
+public class AutoPilot {
+    private static final float DANGER_WEIGHT = 3f;
+    private static final float HUNT_WEIGHT = 0.5f;
+    private static final float REVERSE_PENALTY = 0.25f;
+
+    private static final Direction[] DIRECTIONS = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+    private final Random random = new Random();
+
+    public Direction chooseDirection(Player player, GameState state, int tileSize) {
+        if (state.tiles == null) return Direction.NONE;
+
+        InfluenceMap influence = state.influence;
+        Actor pacman = player.actor;
+        int row = pacman.y / tileSize;
+        int col = pacman.x / tileSize;
+        TileGrid tiles = state.tiles;
+        boolean armed = player.hasKnife();
+
+        Direction best = Direction.NONE;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (Direction dir : DIRECTIONS) {
+            int r = row + dir.getDy(1);
+            int c = col + dir.getDx(1);
+            if (!tiles.isWalkable(r, c)) continue;
+
+            float score = influence.pelletValue(r, c) + influence.knifeValue(r, c)
+                    - DANGER_WEIGHT * influence.projectileThreat(r, c);
+            float ghosts = influence.ghostThreat(r, c);
+            score += armed ? HUNT_WEIGHT * ghosts : -DANGER_WEIGHT * ghosts;
+
+            if (isReverse(dir, pacman.direction)) score -= REVERSE_PENALTY;
+            // Small jitter breaks ties and stops it pacing back and forth in empty areas
+            score += random.nextFloat() * 0.1f;
+
+            if (score > bestScore) {
+                bestScore = score;
+                best = dir;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isReverse(Direction a, Direction b) {
+        return (a == Direction.UP && b == Direction.DOWN) || (a == Direction.DOWN && b == Direction.UP)
+                || (a == Direction.LEFT && b == Direction.RIGHT) || (a == Direction.RIGHT && b == Direction.LEFT);
+    }
+}
@@ -5,7 +5,7 @@ import java.util.List;
 public class Boss extends Actor {
     // --- Configuration ---
     private static final int STARTING_LIVES = GameConstants.BOSS_LIVES;
-    private static final int PROJECTILE_SIZE = 16;
+    public static final int PROJECTILE_SIZE = 16;
 
     // State Definitions (Duration, CanTakeDamage, CanAttack)
     private enum BossState {
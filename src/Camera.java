@@ -0,0 +1,76 @@
+import java.util.List;
+
+/**
+ * The window onto the board: a fixed-size view whose top-left follows the active
+ * players (their midpoint), clamped to the board. Drawing code asks it for the
+ * range of tiles under the view, so the cost of a frame follows the view size
+ * and not the size of the level.
+ */
+public class Camera {
+    private final int tileSize;
+    private final int viewWidth;
+    private final int viewHeight;
+    private int boardWidth;
+    private int boardHeight;
+
+    // Top-left of the view in board pixels
+    private int x;
+    private int y;
+
+    public Camera(int viewWidth, int viewHeight, int tileSize) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.tileSize = tileSize;
+        this.boardWidth = viewWidth;
+        this.boardHeight = viewHeight;
+    }
+
+    public void setBoard(int columns, int rows) {
+        boardWidth = columns * tileSize;
+        boardHeight = rows * tileSize;
+        clamp();
+    }
+
+    public void follow(List<Player> players) {
+        int sumX = 0;
+        int sumY = 0;
+        int count = 0;
+        for (int i = 0; i < players.size(); i++) { // indexed: no iterator per frame
+            Player player = players.get(i);
+            if (!player.isActive()) continue;
+            sumX += player.actor.x + player.actor.width / 2;
+            sumY += player.actor.y + player.actor.height / 2;
+            count++;
+        }
+        if (count > 0) {
+            x = sumX / count - viewWidth / 2;
+            y = sumY / count - viewHeight / 2;
+        }
+        clamp();
+    }
+
+    private void clamp() {
+        x = Math.max(0, Math.min(boardWidth - viewWidth, x));
+        y = Math.max(0, Math.min(boardHeight - viewHeight, y));
+    }
+
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getViewWidth() { return viewWidth; }
+    public int getViewHeight() { return viewHeight; }
+    public int getBoardWidth() { return boardWidth; }
+    public int getBoardHeight() { return boardHeight; }
+
+    // Tile range under the view, limited to a grid of the given size (inclusive)
+    public int firstColumn() { return x / tileSize; }
+    public int firstRow() { return y / tileSize; }
+    public int lastColumn(int columns) { return Math.min(columns - 1, (x + viewWidth - 1) / tileSize); }
+    public int lastRow(int rows) { return Math.min(rows - 1, (y + viewHeight - 1) / tileSize); }
+
+    /**
+     * Whether a board rectangle overlaps the view at all.
+     */
+    public boolean isVisible(int bx, int by, int width, int height) {
+        return bx < x + viewWidth && bx + width > x && by < y + viewHeight && by + height > y;
+    }
+}
@@ -12,11 +12,18 @@ public class CollisionManager {
     public int ghostKilled = 0;
     // --- 1. Simple Collisions (Food & Knife) ---
 
-    public void checkFoodCollisions(GameState state, SoundManager soundManager) {
+    public void checkFoodCollisions(GameState state, Player player, SoundManager soundManager) {
         Iterator<Entity> it = state.foods.iterator();
         while (it.hasNext()) {
-            if (state.pacman.collidesWith(it.next())) {
+            Entity food = it.next();
+            if (player.actor.collidesWith(food)) {
                 it.remove();
+                state.removedPickups.add(food);
+                state.influence.removePellet(food);
+                int row = (food.y + food.height / 2) / GameConstants.TILE_SIZE;
+                int col = (food.x + food.width / 2) / GameConstants.TILE_SIZE;
+                if (state.maze != null) state.maze.setPellet(row, col, false);
+                if (state.endlessWorld != null) state.endlessWorld.markEaten(row, col);
                 state.score += 10;
                 soundManager.playEffect("audio/food.wav");
                 return; // Eat only one per frame
@@ -24,13 +31,16 @@ public class CollisionManager {
         }
     }
 
-    public boolean checkKnifeCollisions(GameState state) {
+    public boolean checkKnifeCollisions(GameState state, Player player) {
         Iterator<Entity> it = state.knives.iterator();
         while (it.hasNext()) {
-            if (state.pacman.collidesWith(it.next())) {
+            Entity knife = it.next();
+            if (player.actor.collidesWith(knife)) {
                 it.remove();
-                state.hasWeapon = true;
-                state.knifeCount++;
+                state.removedPickups.add(knife);
+                state.influence.removeKnife(knife);
+                player.hasWeapon = true;
+                player.knifeCount++;
                 return true;
             }
         }
@@ -39,20 +49,20 @@ public class CollisionManager {
 
     // 2. Entity Collisions (Ghost, Boss, Projectile)
 
-    public int checkGhostCollisions(GameState state, SoundManager soundManager) {
+    public int checkGhostCollisions(GameState state, Player player, SoundManager soundManager) {
         Iterator<Actor> it = state.ghosts.iterator();
         while (it.hasNext()) {
             Actor ghost = it.next();
-            if (state.pacman.collidesWith(ghost)) {
-                LOGGER.info( "hasWeapon = " + state.hasWeapon + ", " + "police collides with mafia = " + state.pacman.collidesWith(ghost));
+            if (SweptCollision.hits(player.actor, ghost)) {
+                LOGGER.info( "player = " + (player.index + 1) + ", hasWeapon = " + player.hasWeapon + ", " + "police collides with mafia = true");
                 // CASE A: Pac-Man has weapon -> Kill Ghost
-                if (state.hasWeapon && state.knifeCount > 0) {
+                if (player.hasKnife()) {
                     ghostKilled++;
-                    LOGGER.info( "hasWeapon = " + state.hasWeapon + ", " + "police collides with mafia = "
-                            + state.pacman.collidesWith(ghost) + ", police killed = " + ghostKilled);
+                    LOGGER.info( "hasWeapon = " + player.hasWeapon + ", " + "police collides with mafia = true"
+                            + ", police killed = " + ghostKilled);
                     state.ghostKill = true;
                     System.out.println(state.ghostKill);
-                    consumeWeapon(state);
+                    consumeWeapon(player);
                     LOGGER.info("Score before = " + state.score);
                     state.score += 100;
                     triggerDeathAnimation(state, ghost, "100");
@@ -63,32 +73,32 @@ public class CollisionManager {
                 }
 
                 // CASE B: No weapon -> Pac-Man dies
-                LOGGER.info( "hasWeapon = " + state.hasWeapon + ", " + "police collides with mafia = " + state.pacman.collidesWith(ghost));
-                return handleLifeLost(state, soundManager);
+                LOGGER.info( "hasWeapon = " + player.hasWeapon + ", " + "police collides with mafia = true");
+                return handleLifeLost(player, soundManager);
             }
         }
         return GHOST_COLLISION_NONE;
     }
 
-    public int checkBossCollisions(GameState state, SoundManager soundManager) {
-        if (state.boss == null || !state.pacman.collidesWith(state.boss)) {
+    public int checkBossCollisions(GameState state, Player player, SoundManager soundManager) {
+        if (state.boss == null || !SweptCollision.hits(player.actor, state.boss)) {
             return GHOST_COLLISION_NONE;
         }
 
         // CASE A: No Weapon -> Instant Death
-        if (!state.hasWeapon || state.knifeCount <= 0) {
-            return handleLifeLost(state, soundManager);
+        if (!player.hasKnife()) {
+            return handleLifeLost(player, soundManager);
         }
 
         // CASE B: Has Weapon (Knife)
 
         // 1. If Boss is Reflecting -> Pac-Man takes damage (but knife is NOT consumed)
         if (state.boss.isReflecting()) {
-            return handleLifeLost(state, soundManager);
+            return handleLifeLost(player, soundManager);
         }
 
         // 2. Boss is Vulnerable -> Boss takes damage (Knife IS consumed)
-        consumeWeapon(state);
+        consumeWeapon(player);
         soundManager.playEffect("audio/kill.wav");
 
         triggerBossDamageAnimation(state, state.boss);
@@ -102,20 +112,20 @@ public class CollisionManager {
             state.boss = null; // Boss defeated
             state.bossState = false; // Boss dead
         }
-        state.pacman.reset();
+        player.actor.reset();
 
         // Successful hit on a vulnerable boss. Player does NOT lose life.
         return GHOST_COLLISION_GHOST_KILLED;
     }
 
-    public int checkProjectileCollisions(GameState state, SoundManager soundManager) {
+    public int checkProjectileCollisions(GameState state, Player player, SoundManager soundManager) {
         if (state.projectiles == null) return GHOST_COLLISION_NONE;
 
         Iterator<Actor> it = state.projectiles.iterator();
         while (it.hasNext()) {
-            if (state.pacman.collidesWith(it.next())) {
+            if (SweptCollision.hits(player.actor, it.next())) {
                 it.remove();
-                return handleLifeLost(state, soundManager);
+                return handleLifeLost(player, soundManager);
             }
         }
         return GHOST_COLLISION_NONE;
@@ -123,19 +133,17 @@ public class CollisionManager {
 
     // 3. Private Helper Methods (Reduces Duplication)
 
-    private int handleLifeLost(GameState state, SoundManager sound) {
-        state.lives--;
+    // Game over is decided by GameLogic once every player is out of lives.
+    private int handleLifeLost(Player player, SoundManager sound) {
+        player.lives--;
         sound.playEffect("audio/life_lost.wav");
-        if (state.lives <= 0) {
-            state.gameOver = true;
-        }
         return GHOST_COLLISION_LIFE_LOST;
     }
 
-    private void consumeWeapon(GameState state) {
-        state.knifeCount--;
-        if (state.knifeCount <= 0) {
-            state.hasWeapon = false;
+    private void consumeWeapon(Player player) {
+        player.knifeCount--;
+        if (player.knifeCount <= 0) {
+            player.hasWeapon = false;
         }
     }
 
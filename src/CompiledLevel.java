@@ -0,0 +1,140 @@
+import java.awt.Image;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A level's tile grid compiled once into everything a (re)start needs: the walkable grid,
+ * wall and food entities, spawn points and a pellet bitboard template.
+ *
+ * Nothing in here is changed after compile, so one instance is shared by every
+ * start of the level. The tile grid and wall entities are handed to GameState as
+ * is; everything a run may change (the walkable grid, the food entities and the
+ * pellet bitboard) is copied per start through newWalkableGrid, newFoods and
+ * newMaze, so a restart never sees what the previous run did to them.
+ */
+public class CompiledLevel {
+    public final int rows;
+    public final int cols;
+
+    public final TileGrid tiles;
+    public final boolean[][] walkableGrid;
+    public final List<Entity> walls;
+    public final List<Entity> foods;
+
+    // Player 1 on the 'P' tile, co-op partners on the nearest walkable tiles (BFS order)
+    public final int[] playerTiles;
+    public final byte[] ghostTypes; // TileGrid ghost codes
+    public final int[] ghostTiles;
+    public final int bossTile; // -1 when the level has no boss
+
+    private final MazeBitboard maze;
+
+    private CompiledLevel(TileGrid tiles, boolean[][] walkableGrid, List<Entity> walls, List<Entity> foods,
+                          int[] playerTiles, byte[] ghostTypes, int[] ghostTiles, int bossTile, MazeBitboard maze) {
+        this.rows = tiles.getRows();
+        this.cols = tiles.getColumns();
+        this.tiles = tiles;
+        this.walkableGrid = walkableGrid;
+        this.walls = walls;
+        this.foods = foods;
+        this.playerTiles = playerTiles;
+        this.ghostTypes = ghostTypes;
+        this.ghostTiles = ghostTiles;
+        this.bossTile = bossTile;
+        this.maze = maze;
+    }
+
+    /**
+     * Compiles a tile grid in a single pass. Safe to call from several threads at once.
+     */
+    public static CompiledLevel compile(TileGrid tiles, AssetManager assets, WallTextures wallTextures, int tileSize) {
+        int cols = tiles.getColumns();
+        int startTile = -1;
+        int bossTile = -1;
+
+        boolean[][] walkableGrid = tiles.toWalkableGrid();
+        List<Entity> walls = new ArrayList<>();
+        List<Entity> foods = new ArrayList<>();
+        ByteArrayOutputStream ghostTypes = new ByteArrayOutputStream();
+        List<Integer> ghostTiles = new ArrayList<>();
+
+        int foodW = assets.getFoodWidth();
+        int foodH = assets.getFoodHeight();
+        Image foodImage = assets.getFoodImage();
+
+        for (int i = 0; i < tiles.size(); i++) {
+            byte tile = tiles.tileAt(i);
+            int r = i / cols;
+            int c = i % cols;
+            int x = c * tileSize;
+            int y = r * tileSize;
+
+            if (tile == TileGrid.WALL) {
+                walls.add(new Entity(wallTextures.get(tiles.wallMask(r, c)), x, y, tileSize, tileSize));
+            } else if (tile == TileGrid.PLAYER) {
+                startTile = i;
+            } else if (tile == TileGrid.BOSS) {
+                bossTile = i;
+            } else if (TileGrid.hasFlag(tile, TileGrid.F_GHOST)) {
+                ghostTypes.write(tile);
+                ghostTiles.add(i);
+            } else if (TileGrid.hasFlag(tile, TileGrid.F_PELLET)) {
+                foods.add(new Entity(foodImage, x + (tileSize - foodW) / 2, y + (tileSize - foodH) / 2, foodW, foodH));
+            }
+        }
+
+        MazeBitboard maze = new MazeBitboard(walkableGrid);
+        if (startTile >= 0 && maze.isOpen(startTile / cols, startTile % cols)) {
+            // Pellets walled off from the start could never be eaten, and the level never cleared
+            long[] region = maze.reachable(startTile / cols, startTile % cols);
+            foods.removeIf(food -> !maze.contains(region, (food.y + food.height / 2) / tileSize, (food.x + food.width / 2) / tileSize));
+        } else {
+            startTile = Math.max(0, startTile); // an endless window has no start of its own
+        }
+        for (Entity food : foods) {
+            maze.setPellet((food.y + food.height / 2) / tileSize, (food.x + food.width / 2) / tileSize, true);
+        }
+
+        DistanceField field = new DistanceField();
+        field.compute(walkableGrid, new int[] { startTile }, 1);
+        int[] playerTiles = new int[GameConstants.MAX_PLAYERS];
+        int reached = Math.max(1, field.getReachedCount());
+        for (int i = 0; i < playerTiles.length; i++) {
+            playerTiles[i] = (field.getReachedCount() > 0) ? field.getReachedTile(Math.min(i, reached - 1)) : startTile;
+        }
+
+        int[] ghostTileArray = new int[ghostTiles.size()];
+        for (int i = 0; i < ghostTileArray.length; i++) ghostTileArray[i] = ghostTiles.get(i);
+
+        return new CompiledLevel(tiles, walkableGrid, Collections.unmodifiableList(walls),
+                Collections.unmodifiableList(foods), playerTiles, ghostTypes.toByteArray(),
+                ghostTileArray, bossTile, maze);
+    }
+
+    /**
+     * A copy of the walkable grid for one play-through of the level.
+     */
+    public boolean[][] newWalkableGrid() {
+        boolean[][] grid = new boolean[walkableGrid.length][];
+        for (int r = 0; r < grid.length; r++) grid[r] = walkableGrid[r].clone();
+        return grid;
+    }
+
+    /**
+     * Fresh food entities for one play-through of the level.
+     */
+    public List<Entity> newFoods() {
+        List<Entity> copies = new ArrayList<>(foods.size());
+        for (Entity food : foods) copies.add(new Entity(food.image, food.x, food.y, food.width, food.height));
+        return copies;
+    }
+
+    /**
+     * A fresh pellet bitboard for one play-through of the level.
+     */
+    public MazeBitboard newMaze() {
+        return maze.copy();
+    }
+}
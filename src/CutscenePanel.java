@@ -8,8 +8,10 @@ public class CutscenePanel extends JPanel {
     private int currentSet = 0;        // ← NEW: current set index
 
     private String fullText = "";      // text for current set
-    private String displayedText = "";
-    private int index = 0;
+    private int index = 0;             // characters of fullText typed so far
+
+    private final GlyphAtlas textAtlas =
+            FontManager.getInstance().getAtlas(FontManager.STORY_FONT, Font.PLAIN, 32, Color.YELLOW);
 
     private Timer typeTimer;
     private Runnable onCutsceneEnd;
@@ -34,7 +36,7 @@ public class CutscenePanel extends JPanel {
                     if (typing) {
                         // Skip typing → instantly show full text of this set
                         typeTimer.stop();
-                        displayedText = fullText;
+                        index = fullText.length();
                         typing = false;
                         repaint();
                     } else {
@@ -56,7 +58,6 @@ public class CutscenePanel extends JPanel {
         // join all sentences into one block
         fullText = String.join(" ", textSets[setIndex]);
 
-        displayedText = "";
         index = 0;
 
         startTyping();
@@ -67,7 +68,6 @@ public class CutscenePanel extends JPanel {
 
         typeTimer = new Timer(50, e -> {
             if (index < fullText.length()) {
-                displayedText += fullText.charAt(index);
                 index++;
                 repaint();
             } else {
@@ -83,32 +83,38 @@ public class CutscenePanel extends JPanel {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        g.setColor(Color.YELLOW);
-        g.setFont(new CustomFont(Font.TRUETYPE_FONT, 32).getCustomFont());
-
         int x = 50;
         int y = 100;
         int lineHeight = 35;
         int maxWidth = getWidth() - 100;
+        int spaceWidth = textAtlas.charWidth(' ');
 
-        String[] words = displayedText.split(" ");
-        StringBuilder line = new StringBuilder();
+        // Greedy word wrap over the typed prefix, measured and drawn from the glyph atlas
+        int lineStart = 0;
+        int lineEnd = 0;
+        int lineWidth = 0;
         int lineCount = 0;
-
-        for (String word : words) {
-            String testLine = line + (line.length() == 0 ? "" : " ") + word;
-            int lineWidth = g.getFontMetrics().stringWidth(testLine);
-
-            if (lineWidth > maxWidth) {
-                g.drawString(line.toString(), x, y + lineCount * lineHeight);
-                line = new StringBuilder(word);
+        int start = 0;
+        while (start < index) {
+            int end = fullText.indexOf(' ', start);
+            if (end < 0 || end > index) end = index;
+            int wordWidth = textAtlas.stringWidth(fullText, start, end);
+
+            if (lineEnd > lineStart && lineWidth + spaceWidth + wordWidth > maxWidth) {
+                textAtlas.drawString(g, fullText, lineStart, lineEnd, x, y + lineCount * lineHeight);
                 lineCount++;
+                lineStart = start;
+                lineWidth = wordWidth;
+            } else if (lineEnd > lineStart) {
+                lineWidth += spaceWidth + wordWidth;
             } else {
-                if (line.length() > 0) line.append(" ");
-                line.append(word);
+                lineStart = start;
+                lineWidth = wordWidth;
             }
+            lineEnd = end;
+            start = end + 1;
         }
 
-        g.drawString(line.toString(), x, y + lineCount * lineHeight);
+        textAtlas.drawString(g, fullText, lineStart, lineEnd, x, y + lineCount * lineHeight);
     }
 }
@@ -1,9 +1,11 @@
 /* DeathAnimation.java
  * - fades + shrinks a snapshot of the killed actor image
  * - spawns particles that manage their own physics
- * - shows a floating score popup*/
+ * - shows a floating score popup
+ * Everything it draws is made into images up front (shrink steps, particle dots,
+ * the popup), so a frame only blits them and allocates nothing.*/
 import java.awt.*;
-import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Random;
@@ -24,23 +26,54 @@ public class DeathAnimation {
     private static final float PARTICLE_SPEED_BASE    = 0.8f;
     private static final float PARTICLE_SPEED_RANDOM  = 2.5f;
     private static final float PARTICLE_SPREAD        = 0.4f;
+    private static final int   PARTICLE_SIZE_MIN      = 2;
+    private static final int   PARTICLE_SIZE_MAX      = 6;
+    private static final int   PARTICLE_SHADES        = 4; // per channel: green 230..150, blue 60..180
 
     // Popup Text
     private static final int   POPUP_FLOAT_HEIGHT     = 28;
     private static final Color POPUP_COLOR_MAIN       = Color.YELLOW;
     private static final Color POPUP_COLOR_SHADOW     = Color.BLACK;
 
+    // Drawing
+    private static final Color FALLBACK_FILL          = new Color(255, 255, 255, 100);
+    private static final int   FADE_STEPS             = 64;
+    private static final AlphaComposite[] FADES       = new AlphaComposite[FADE_STEPS + 1];
+    static {
+        for (int i = 0; i <= FADE_STEPS; i++) {
+            FADES[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) i / FADE_STEPS);
+        }
+    }
+
+    // Particle dots by shade and size, drawn once
+    private static final BufferedImage[][] DOTS = new BufferedImage[PARTICLE_SHADES * PARTICLE_SHADES][PARTICLE_SIZE_MAX + 1];
+    static {
+        for (int shade = 0; shade < DOTS.length; shade++) {
+            int green = 230 - (shade / PARTICLE_SHADES) * 80 / (PARTICLE_SHADES - 1);
+            int blue = 60 + (shade % PARTICLE_SHADES) * 120 / (PARTICLE_SHADES - 1);
+            Color color = new Color(255, green, blue);
+            for (int size = PARTICLE_SIZE_MIN; size <= PARTICLE_SIZE_MAX; size++) {
+                BufferedImage dot = SpriteAtlas.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+                Graphics2D g = dot.createGraphics();
+                g.setColor(color);
+                g.fillOval(0, 0, size, size);
+                g.dispose();
+                DOTS[shade][size] = dot;
+            }
+        }
+    }
+
     private static final Random RAND = new Random();
 
     // =============================================================
     // 2. FIELDS
     // =============================================================
 
-    private final Image actorImage;
     private final int x, y, width, height;
     private final int totalTicks;
-    private final String popupText;
-    private final Color popupColor;
+    private final BufferedImage[] actorFrames; // the shrunk actor for each ticksRemaining
+    private final BufferedImage popupImage;    // null without popup text
+    private final int popupAscent;
 
     private int ticksRemaining;
     private int popupTicksRemaining;
@@ -54,13 +87,13 @@ public class DeathAnimation {
         float px, py;
         float vx, vy;
         float life;
-        Color color;
+        final BufferedImage[] dots;
 
-        Particle(float x, float y, float vx, float vy, Color color) {
+        Particle(float x, float y, float vx, float vy, BufferedImage[] dots) {
             this.px = x; this.py = y;
             this.vx = vx; this.vy = vy;
             this.life = 1.0f;
-            this.color = color;
+            this.dots = dots;
         }
 
         boolean update() {
@@ -74,10 +107,9 @@ public class DeathAnimation {
         void render(Graphics2D g2, float globalAlpha) {
             if (life <= 0) return;
             float combinedAlpha = Math.max(0f, life * globalAlpha);
-            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, combinedAlpha));
-            g2.setColor(color);
-            int size = Math.max(2, Math.round(6 * life));
-            g2.fillOval((int)(px - size/2f), (int)(py - size/2f), size, size);
+            g2.setComposite(fade(combinedAlpha));
+            int size = Math.max(PARTICLE_SIZE_MIN, Math.min(PARTICLE_SIZE_MAX, Math.round(PARTICLE_SIZE_MAX * life)));
+            g2.drawImage(dots[size], (int)(px - size/2f), (int)(py - size/2f), null);
         }
     }
 
@@ -86,21 +118,76 @@ public class DeathAnimation {
     // =============================================================
 
     public DeathAnimation(Image image, int x, int y, int w, int h, int totalTicks, String scoreText, Color textColor) {
-        this.actorImage = image;
         this.x = x;
         this.y = y;
         this.width = Math.max(1, w);
         this.height = Math.max(1, h);
         this.totalTicks = Math.max(1, totalTicks);
-        this.popupText = scoreText;
-        this.popupColor = textColor;
 
         this.ticksRemaining = this.totalTicks;
         this.popupTicksRemaining = this.totalTicks;
 
+        this.actorFrames = renderActorFrames(image);
+        if (scoreText != null) {
+            Font popupFont = new Font("Arial", Font.BOLD, Math.max(24, (int)(this.height*0.8)));
+            BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = probe.createGraphics();
+            FontMetrics fm = g.getFontMetrics(popupFont);
+            g.dispose();
+            this.popupAscent = fm.getAscent();
+            this.popupImage = renderPopup(scoreText, textColor, popupFont, fm);
+        } else {
+            this.popupAscent = 0;
+            this.popupImage = null;
+        }
+
         spawnParticles();
     }
 
+    // The actor at its size, shrunk for each tick; ticks that round to the same size share an image
+    private BufferedImage[] renderActorFrames(Image image) {
+        BufferedImage[] frames = new BufferedImage[totalTicks + 1];
+        for (int remaining = totalTicks; remaining >= 0; remaining--) {
+            float scale = 1f - ANIMATION_SHRINK_SCALE * (1f - (float) remaining / totalTicks);
+            int w = Math.max(1, Math.round(width * scale));
+            int h = Math.max(1, Math.round(height * scale));
+            BufferedImage previous = (remaining < totalTicks) ? frames[remaining + 1] : null;
+            if (previous != null && previous.getWidth() == w && previous.getHeight() == h) {
+                frames[remaining] = previous;
+                continue;
+            }
+
+            BufferedImage frame = SpriteAtlas.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+            Graphics2D g = frame.createGraphics();
+            if (image != null) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(image, 0, 0, w, h, null);
+            } else {
+                int size = Math.max(4, Math.min(w, h) - 1);
+                g.setColor(FALLBACK_FILL);
+                g.fillOval(0, 0, size, size);
+                g.setColor(Color.WHITE);
+                g.drawOval(0, 0, size, size);
+            }
+            g.dispose();
+            frames[remaining] = frame;
+        }
+        return frames;
+    }
+
+    // The popup text over its drop shadow; its baseline sits at popupAscent
+    private static BufferedImage renderPopup(String text, Color color, Font font, FontMetrics fm) {
+        BufferedImage image = SpriteAtlas.createCompatibleImage(Math.max(1, fm.stringWidth(text)) + 1, fm.getHeight() + 1, Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        g.setFont(font);
+        g.setColor(POPUP_COLOR_SHADOW);
+        g.drawString(text, 1, fm.getAscent() + 1);
+        g.setColor(color);
+        g.drawString(text, 0, fm.getAscent());
+        g.dispose();
+        return image;
+    }
+
     private void spawnParticles() {
         int count = Math.max(PARTICLE_COUNT_MIN, totalTicks / 2);
         float centerX = x + width / 2f;
@@ -116,8 +203,7 @@ public class DeathAnimation {
             float px = centerX + (RAND.nextFloat() - 0.5f) * width * PARTICLE_SPREAD;
             float py = centerY + (RAND.nextFloat() - 0.5f) * height * PARTICLE_SPREAD;
 
-            Color c = new Color(255, 230 - RAND.nextInt(80), 60 + RAND.nextInt(120));
-            particles.add(new Particle(px, py, vx, vy, c));
+            particles.add(new Particle(px, py, vx, vy, DOTS[RAND.nextInt(DOTS.length)]));
         }
     }
 
@@ -157,69 +243,48 @@ public class DeathAnimation {
     // =============================================================
 
     public void render(Graphics2D g2) {
-        AffineTransform oldTx = g2.getTransform();
         Composite oldComp = g2.getComposite();
 
         float progress = 1f - (float)ticksRemaining / totalTicks;
         float alpha = Math.max(0f, 1f - progress);
-        float scale = 1f - (ANIMATION_SHRINK_SCALE * progress);
 
         try {
-            drawActor(g2, alpha, scale);
+            drawActor(g2, alpha);
             drawParticles(g2, alpha);
             drawPopup(g2);
         } finally {
-            g2.setTransform(oldTx);
             g2.setComposite(oldComp);
         }
     }
 
-    private void drawActor(Graphics2D g2, float alpha, float scale) {
-        int cx = x + width / 2;
-        int cy = y + height / 2;
-
-        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-
-        if (actorImage != null) {
-            AffineTransform at = new AffineTransform();
-            at.translate(cx, cy);
-            at.scale(scale, scale);
-            at.translate(-width / 2.0, -height / 2.0);
-            g2.drawImage(actorImage, at, null);
-        } else {
-
-            g2.setColor(new Color(255, 255, 255, 100));
-            int size = Math.max(4, Math.round(width * scale));
-            g2.fillOval(cx - size/2, cy - size/2, size, size);
+    private void drawActor(Graphics2D g2, float alpha) {
+        BufferedImage frame = actorFrames[Math.max(0, Math.min(totalTicks, ticksRemaining))];
+        g2.setComposite(fade(alpha));
+        g2.drawImage(frame, x + (width - frame.getWidth()) / 2, y + (height - frame.getHeight()) / 2, null);
+    }
 
-            g2.setColor(Color.WHITE);
-            g2.drawOval(cx - size/2, cy - size/2, size, size);
-        }
+    // Shared composites in 1/64 alpha steps instead of a new one per draw
+    private static AlphaComposite fade(float alpha) {
+        return FADES[Math.max(0, Math.min(FADE_STEPS, Math.round(alpha * FADE_STEPS)))];
     }
 
     private void drawParticles(Graphics2D g2, float alpha) {
-        for (Particle p : particles) {
-            p.render(g2, alpha);
+        // Indexed: no iterator per frame
+        for (int i = 0; i < particles.size(); i++) {
+            particles.get(i).render(g2, alpha);
         }
     }
 
     private void drawPopup(Graphics2D g2) {
-        if (popupText == null || popupTicksRemaining <= 0) return;
+        if (popupImage == null || popupTicksRemaining <= 0) return;
 
         float progress = 1f - (float)popupTicksRemaining / totalTicks;
         float alpha = Math.max(0f, 1f - progress);
         int yOffset = (int)(-POPUP_FLOAT_HEIGHT * progress);
 
-        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-        g2.setFont(new Font("Arial", Font.BOLD, Math.max(24, (int)(height*0.8))));
-
-        FontMetrics fm = g2.getFontMetrics();
-        int tx = x + (width - fm.stringWidth(popupText)) / 2;
+        g2.setComposite(fade(alpha));
+        int tx = x + (width - popupImage.getWidth() + 1) / 2;
         int ty = y + height / 2 + yOffset;
-
-        g2.setColor(POPUP_COLOR_SHADOW);
-        g2.drawString(popupText, tx + 1, ty + 1);
-        g2.setColor(popupColor);
-        g2.drawString(popupText, tx, ty);
+        g2.drawImage(popupImage, tx, ty - popupAscent, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+/**
+ * The screen split into tile-sized cells, with the cells that changed since the
+ * last frame marked, so only those need to be composited and shown again.
+ * Coordinates are screen pixels; anything off screen is ignored.
+ *
+ * A frame may also record a scroll: the picture moved as a whole (the camera
+ * moved), so whoever draws it first shifts what the buffer already shows and the
+ * marked cells are then only what the shift did not bring along.
+ */
+public class DirtyTiles {
+    private final int cellSize;
+    private final int cols;
+    private final int rows;
+    private final int width;
+    private final int height;
+    private final boolean[] cells;
+    private final int[] rects; // x, y, w, h per run of marked cells
+    private int rectCount;
+    private int count;
+    private boolean full;
+    private boolean scrolled;
+    private int scrollX;
+    private int scrollY;
+
+    public DirtyTiles(int width, int height, int cellSize) {
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.cols = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cells = new boolean[cols * rows];
+        // Runs in a row are at least a cell apart, so this holds the most a frame can have
+        this.rects = new int[4 * rows * ((cols + 1) / 2)];
+    }
+
+    public void mark(int x, int y, int w, int h) {
+        if (full || w <= 0 || h <= 0 || x + w <= 0 || y + h <= 0) return;
+        int c0 = Math.max(0, x / cellSize);
+        int r0 = Math.max(0, y / cellSize);
+        int c1 = Math.min(cols - 1, (x + w - 1) / cellSize);
+        int r1 = Math.min(rows - 1, (y + h - 1) / cellSize);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int i = r * cols + c;
+                if (!cells[i]) {
+                    cells[i] = true;
+                    count++;
+                }
+            }
+        }
+    }
+
+    public void markAll() {
+        full = true;
+    }
+
+    /**
+     * Records that the picture moved by (-dx, -dy) pixels since the last frame.
+     */
+    public void scroll(int dx, int dy) {
+        scrolled = dx != 0 || dy != 0;
+        scrollX = dx;
+        scrollY = dy;
+    }
+
+    public void clear() {
+        if (count > 0) Arrays.fill(cells, false);
+        count = 0;
+        full = false;
+        scrolled = false;
+        scrollX = 0;
+        scrollY = 0;
+    }
+
+    // Whether the frame is drawn by shifting the previous one; a full frame never is
+    public boolean isScrolled() {
+        return scrolled && !isFull();
+    }
+
+    public int getScrollX() {
+        return scrollX;
+    }
+
+    public int getScrollY() {
+        return scrollY;
+    }
+
+    public boolean isFull() {
+        return full || count == cells.length;
+    }
+
+    public boolean isEmpty() {
+        return !full && count == 0;
+    }
+
+    public int getDirtyCount() {
+        return full ? cells.length : count;
+    }
+
+    /**
+     * Collects the marked cells into rectangles, one per horizontal run of cells
+     * (the whole screen when full), and returns how many there are. They are read
+     * from getRects until the next call.
+     */
+    public int collectRects() {
+        rectCount = 0;
+        if (full) {
+            addRect(0, 0, width, height);
+            return rectCount;
+        }
+        for (int r = 0; r < rows; r++) {
+            int c = 0;
+            while (c < cols) {
+                if (!cells[r * cols + c]) {
+                    c++;
+                    continue;
+                }
+                int start = c;
+                while (c < cols && cells[r * cols + c]) c++;
+                int x = start * cellSize;
+                int y = r * cellSize;
+                addRect(x, y, Math.min(width, c * cellSize) - x, Math.min(height, y + cellSize) - y);
+            }
+        }
+        return rectCount;
+    }
+
+    // x, y, w, h of each rectangle from the last collectRects, screen pixels
+    public int[] getRects() {
+        return rects;
+    }
+
+    public int getRectCount() {
+        return rectCount;
+    }
+
+    private void addRect(int x, int y, int w, int h) {
+        int i = rectCount++ * 4;
+        rects[i] = x;
+        rects[i + 1] = y;
+        rects[i + 2] = w;
+        rects[i + 3] = h;
+    }
+}
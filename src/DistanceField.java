@@ -0,0 +1,101 @@
+import java.util.Arrays;
+
+/**
+ * Breadth-first distance field over the walkable tiles of a level.
+ * All sources are seeded into the queue together (multi-source BFS), so one
+ * compute() costs O(tiles) no matter how many players or targets there are.
+ * Buffers are reused between ticks; nothing is allocated after the first call
+ * for a given map size.
+ */
+public class DistanceField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private boolean[][] walkableGrid;
+    private int rows;
+    private int cols;
+
+    private int[] dist = new int[0];
+    private int[] nearest = new int[0];
+    private int[] queue = new int[0];
+    private int reachedCount = 0;
+
+    /**
+     * Runs the BFS from every source tile (row * cols + col) and records, per tile,
+     * the step distance to the closest source and which source that was.
+     */
+    public void compute(boolean[][] walkableGrid, int[] sourceTiles, int sourceCount) {
+        bind(walkableGrid);
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(nearest, -1);
+
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < sourceCount; i++) {
+            int tile = sourceTiles[i];
+            if (tile < 0 || tile >= dist.length || dist[tile] == 0) continue;
+            dist[tile] = 0;
+            nearest[tile] = i;
+            queue[tail++] = tile;
+        }
+
+        while (head < tail) {
+            int tile = queue[head++];
+            int row = tile / cols;
+            int col = tile - row * cols;
+            int nextDist = dist[tile] + 1;
+            int source = nearest[tile];
+
+            if (row > 0)        tail = visit(tile - cols, row - 1, col, nextDist, source, tail);
+            if (row < rows - 1) tail = visit(tile + cols, row + 1, col, nextDist, source, tail);
+            if (col > 0)        tail = visit(tile - 1, row, col - 1, nextDist, source, tail);
+            if (col < cols - 1) tail = visit(tile + 1, row, col + 1, nextDist, source, tail);
+        }
+        reachedCount = tail;
+    }
+
+    private int visit(int tile, int row, int col, int d, int source, int tail) {
+        if (dist[tile] != UNREACHABLE || !walkableGrid[row][col]) return tail;
+        dist[tile] = d;
+        nearest[tile] = source;
+        queue[tail] = tile;
+        return tail + 1;
+    }
+
+    private void bind(boolean[][] grid) {
+        this.walkableGrid = grid;
+        this.rows = grid.length;
+        this.cols = (rows > 0) ? grid[0].length : 0;
+        int size = rows * cols;
+        if (dist.length != size) {
+            dist = new int[size];
+            nearest = new int[size];
+            queue = new int[size];
+        }
+    }
+
+    public int distance(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return UNREACHABLE;
+        return dist[row * cols + col];
+    }
+
+    /**
+     * Index (into the sourceTiles passed to compute) of the closest source, or -1 if unreachable.
+     */
+    public int nearestSource(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return -1;
+        return nearest[row * cols + col];
+    }
+
+    /**
+     * Number of tiles reached by the last compute(); tiles are kept in BFS order.
+     */
+    public int getReachedCount() { return reachedCount; }
+
+    /**
+     * The i-th tile reached (row * cols + col), nearest first.
+     */
+    public int getReachedTile(int i) { return queue[i]; }
+
+    public int getRows() { return rows; }
+    public int getColumns() { return cols; }
+}
@@ -0,0 +1,243 @@
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unbounded world for endless mode, made of fixed-size chunks generated on demand.
+ *
+ * Every chunk owns its top row and left column; those borders are walls with a
+ * few doors whose positions come from a hash of the world seed and the chunk
+ * coordinates, so neighbouring chunks always agree on where the openings are
+ * without ever looking at each other. Chunk interiors are small seeded mazes.
+ *
+ * The game only ever sees a window of WINDOW_CHUNKS x WINDOW_CHUNKS chunks
+ * around the player, materialized as an ordinary level; when the player crosses
+ * into another chunk the window origin moves with them (a floating origin).
+ * Chunks around the window are generated ahead of time on a background thread,
+ * and generated chunks live in an LRU cache, so memory stays bounded however far
+ * the player travels. Eaten pellets are remembered for as long as their chunk is cached.
+ */
+public class EndlessWorld {
+    public static final int CHUNK_SIZE = 32;
+    public static final int WINDOW_CHUNKS = 3;
+    public static final int WINDOW_TILES = CHUNK_SIZE * WINDOW_CHUNKS;
+
+    private static final int CACHE_CHUNKS = 48;
+    private static final int PREFETCH_RADIUS = 2;
+    private static final int DOORS_PER_BORDER = 2;
+    private static final double LOOP_DENSITY = 0.15;
+    private static final byte WALL = 'X';
+    private static final byte OPEN = ' ';
+    private static final byte EATEN = 'O'; // walkable, no pellet
+
+    private static final ExecutorService GENERATOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "chunk-generator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long seed;
+
+    // Access-ordered LRU of generated chunks
+    private final LinkedHashMap<Long, byte[]> cache = new LinkedHashMap<Long, byte[]>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > CACHE_CHUNKS;
+        }
+    };
+    private final Map<Long, Future<byte[]>> pending = new HashMap<>();
+
+    // Chunk coordinates of the window's top-left chunk
+    private int originX;
+    private int originY;
+    private int eatenCount; // pellets marked eaten so far
+
+    public EndlessWorld(long seed) {
+        this.seed = seed;
+        this.originX = -(WINDOW_CHUNKS / 2);
+        this.originY = -(WINDOW_CHUNKS / 2);
+        prefetchAroundWindow();
+    }
+
+    // -----------------------------------------------------------------
+    //  WINDOW
+    // -----------------------------------------------------------------
+
+    /**
+     * The current window as row-major map characters (WINDOW_TILES x WINDOW_TILES),
+     * ready for TileGrid.fromSymbols.
+     */
+    public byte[] materializeWindow() {
+        return materializeWindow(originX, originY);
+    }
+
+    /**
+     * The window whose top-left chunk is (windowX, windowY), without moving the
+     * current window. Waits for chunks still being generated, so callers off the
+     * EDT use this to build the next window ahead of shiftWindow.
+     */
+    public byte[] materializeWindow(int windowX, int windowY) {
+        byte[] tiles = new byte[WINDOW_TILES * WINDOW_TILES];
+        for (int wy = 0; wy < WINDOW_CHUNKS; wy++) {
+            for (int wx = 0; wx < WINDOW_CHUNKS; wx++) {
+                byte[] chunk = chunk(windowX + wx, windowY + wy);
+                for (int r = 0; r < CHUNK_SIZE; r++) {
+                    System.arraycopy(chunk, r * CHUNK_SIZE, tiles, (wy * CHUNK_SIZE + r) * WINDOW_TILES + wx * CHUNK_SIZE, CHUNK_SIZE);
+                }
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Moves the window by whole chunks and starts generating what lies ahead.
+     */
+    public void shiftWindow(int chunksX, int chunksY) {
+        originX += chunksX;
+        originY += chunksY;
+        prefetchAroundWindow();
+    }
+
+    /**
+     * Remembers that the pellet on this window tile has been eaten.
+     */
+    public void markEaten(int row, int col) {
+        if (row < 0 || row >= WINDOW_TILES || col < 0 || col >= WINDOW_TILES) return;
+        byte[] chunk;
+        synchronized (cache) {
+            chunk = cache.get(key(originX + col / CHUNK_SIZE, originY + row / CHUNK_SIZE));
+        }
+        if (chunk == null) return;
+        int i = (row % CHUNK_SIZE) * CHUNK_SIZE + col % CHUNK_SIZE;
+        if (chunk[i] == OPEN) {
+            chunk[i] = EATEN;
+            eatenCount++;
+        }
+    }
+
+    /**
+     * How many pellets have been marked eaten; lets a window built earlier tell
+     * whether any were eaten since.
+     */
+    public int getEatenCount() {
+        return eatenCount;
+    }
+
+    /**
+     * Whether the pellet on this window tile has been eaten, as far as the chunk
+     * cache remembers.
+     */
+    public boolean isEaten(int row, int col) {
+        if (row < 0 || row >= WINDOW_TILES || col < 0 || col >= WINDOW_TILES) return false;
+        byte[] chunk;
+        synchronized (cache) {
+            chunk = cache.get(key(originX + col / CHUNK_SIZE, originY + row / CHUNK_SIZE));
+        }
+        return chunk != null && chunk[(row % CHUNK_SIZE) * CHUNK_SIZE + col % CHUNK_SIZE] == EATEN;
+    }
+
+    public int getOriginX() { return originX; }
+    public int getOriginY() { return originY; }
+
+    // -----------------------------------------------------------------
+    //  CHUNKS
+    // -----------------------------------------------------------------
+
+    private byte[] chunk(int cx, int cy) {
+        long key = key(cx, cy);
+        Future<byte[]> future;
+        synchronized (cache) {
+            byte[] chunk = cache.get(key);
+            if (chunk != null) return chunk;
+            future = pending.get(key);
+        }
+
+        byte[] chunk;
+        if (future != null) {
+            try {
+                chunk = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                chunk = generateChunk(cx, cy);
+            } catch (ExecutionException e) {
+                chunk = generateChunk(cx, cy);
+            }
+        } else {
+            // Not prefetched in time: generate on the caller's thread
+            chunk = generateChunk(cx, cy);
+        }
+        synchronized (cache) {
+            pending.remove(key);
+            byte[] cached = cache.get(key);
+            if (cached != null) return cached;
+            cache.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    private void prefetchAroundWindow() {
+        int centerX = originX + WINDOW_CHUNKS / 2;
+        int centerY = originY + WINDOW_CHUNKS / 2;
+        int reach = WINDOW_CHUNKS / 2 + PREFETCH_RADIUS - 1;
+        for (int cy = centerY - reach; cy <= centerY + reach; cy++) {
+            for (int cx = centerX - reach; cx <= centerX + reach; cx++) {
+                long key = key(cx, cy);
+                synchronized (cache) {
+                    if (cache.containsKey(key) || pending.containsKey(key)) continue;
+                    final int x = cx;
+                    final int y = cy;
+                    pending.put(key, GENERATOR.submit(() -> {
+                        byte[] chunk = generateChunk(x, y);
+                        synchronized (cache) {
+                            pending.remove(key);
+                            if (!cache.containsKey(key)) cache.put(key, chunk);
+                        }
+                        return chunk;
+                    }));
+                }
+            }
+        }
+    }
+
+    // Interior: seeded maze. Top row and left column: walls with hashed doors on odd tiles,
+    // which always line up with maze cells on both sides of the border.
+    private byte[] generateChunk(int cx, int cy) {
+        long chunkSeed = MazeGenerator.mix(MazeGenerator.mix(seed, cx), cy);
+        byte[] maze = new MazeGenerator(chunkSeed, LOOP_DENSITY)
+                .setGhostCount(0)
+                .setPlayerStart(false)
+                .generateTiles(CHUNK_SIZE + 1, CHUNK_SIZE + 1);
+
+        byte[] chunk = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            System.arraycopy(maze, r * (CHUNK_SIZE + 1), chunk, r * CHUNK_SIZE, CHUNK_SIZE);
+        }
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            chunk[i] = WALL;
+            chunk[i * CHUNK_SIZE] = WALL;
+        }
+
+        SplittableRandom top = new SplittableRandom(MazeGenerator.mix(chunkSeed, 1));
+        SplittableRandom left = new SplittableRandom(MazeGenerator.mix(chunkSeed, 2));
+        for (int d = 0; d < DOORS_PER_BORDER; d++) {
+            chunk[1 + 2 * top.nextInt(CHUNK_SIZE / 2)] = OPEN;
+            chunk[(1 + 2 * left.nextInt(CHUNK_SIZE / 2)) * CHUNK_SIZE] = OPEN;
+        }
+        return chunk;
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    public int cachedChunkCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
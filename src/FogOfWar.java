@@ -0,0 +1,289 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Darkness mode: only tiles visible from a player are lit.
+ *
+ * Visibility is computed once per level for every walkable origin tile with
+ * recursive shadowcasting and packed as bits in a (2R+1)^2 window around the
+ * origin, and each origin's light (one alpha per tile of that window) is built
+ * alongside it. The darkness over the view is kept in one image at full pixel
+ * size, smoothed between tile centres as it is written; it is only rewritten
+ * where the lit tiles change, so a frame costs a single unscaled blit.
+ */
+public class FogOfWar {
+    public static final int RADIUS = 7;
+    private static final int WINDOW = RADIUS * 2 + 1;
+    private static final int WINDOW_WORDS = (WINDOW * WINDOW + 63) >>> 6;
+
+    private static final int DARK_ALPHA = 235;
+    private static final int EDGE_ALPHA = 170;
+    // Alpha of a lit tile by its offset in the window, fading towards the light's edge
+    private static final byte[] FALLOFF = new byte[WINDOW * WINDOW];
+
+    static {
+        for (int dr = -RADIUS; dr <= RADIUS; dr++) {
+            for (int dc = -RADIUS; dc <= RADIUS; dc++) {
+                double falloff = Math.hypot(dr, dc) / (RADIUS + 1);
+                FALLOFF[(dr + RADIUS) * WINDOW + (dc + RADIUS)] = (byte) (int) (EDGE_ALPHA * falloff * falloff);
+            }
+        }
+    }
+
+    // Octant transforms for shadowcasting: (xx, xy, yx, yy)
+    private static final int[][] OCTANTS = {
+            {1, 0, 0, 1}, {0, 1, 1, 0}, {0, -1, 1, 0}, {-1, 0, 0, 1},
+            {-1, 0, 0, -1}, {0, -1, -1, 0}, {0, 1, -1, 0}, {1, 0, 0, -1}
+    };
+
+    private boolean[][] walkableGrid;
+    private int rows;
+    private int cols;
+    private long[] visibility = new long[0];
+    // Per origin tile, the alpha of every tile in its window (DARK_ALPHA where unlit)
+    private byte[] light = new byte[0];
+
+    // The darkness over the tiles [maskRow, maskRow + maskRows) x [maskCol, maskCol + maskCols),
+    // for the origins in maskOrigins; rewritten in place when either changes
+    private BufferedImage mask;
+    private int[] maskPixels;
+    private int maskTileSize;
+    private int maskRow;
+    private int maskCol;
+    private int maskRows;
+    private int maskCols;
+    private final int[] maskOrigins = new int[GameConstants.MAX_PLAYERS];
+    private int maskOriginCount = -1;
+    // Composite alpha per tile of the mask plus a one-tile margin (what the smoothing
+    // reads), for the origins now and for the ones the pixels were last written for
+    private int[] tileAlpha = new int[0];
+    private int[] drawnAlpha = new int[0];
+    // Bilinear weights (of 256) for each pixel offset from a tile centre
+    private int[] weights = new int[0];
+
+    // -----------------------------------------------------------------
+    //  LEVEL LOAD
+    // -----------------------------------------------------------------
+
+    public void prepare(boolean[][] walkableGrid) {
+        if (walkableGrid == this.walkableGrid) return;
+        this.walkableGrid = walkableGrid;
+        this.rows = walkableGrid.length;
+        this.cols = walkableGrid[0].length;
+
+        int tiles = rows * cols;
+        visibility = new long[tiles * WINDOW_WORDS];
+        light = new byte[tiles * WINDOW * WINDOW];
+        Arrays.fill(light, (byte) DARK_ALPHA);
+        maskOriginCount = -1;
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!walkableGrid[r][c]) continue;
+                int tile = r * cols + c;
+                int base = tile * WINDOW_WORDS;
+                markVisible(base, 0, 0);
+                for (int[] o : OCTANTS) {
+                    castLight(base, r, c, 1, 1.0, 0.0, o[0], o[1], o[2], o[3]);
+                }
+                for (int bit = 0; bit < WINDOW * WINDOW; bit++) {
+                    if ((visibility[base + (bit >>> 6)] & (1L << bit)) != 0) light[tile * WINDOW * WINDOW + bit] = FALLOFF[bit];
+                }
+            }
+        }
+    }
+
+    public boolean isPrepared(boolean[][] walkableGrid) {
+        return walkableGrid == this.walkableGrid;
+    }
+
+    // Classic recursive shadowcasting over one octant
+    private void castLight(int base, int originRow, int originCol, int row, double start, double end,
+                           int xx, int xy, int yx, int yy) {
+        if (start < end) return;
+        double newStart = 0.0;
+        for (int distance = row; distance <= RADIUS; distance++) {
+            boolean blocked = false;
+            for (int deltaX = -distance, deltaY = -distance; deltaX <= 0; deltaX++) {
+                int dc = deltaX * xx + deltaY * xy;
+                int dr = deltaX * yx + deltaY * yy;
+                double leftSlope = (deltaX - 0.5) / (deltaY + 0.5);
+                double rightSlope = (deltaX + 0.5) / (deltaY - 0.5);
+
+                if (start < rightSlope) continue;
+                if (end > leftSlope) break;
+
+                int r = originRow + dr;
+                int c = originCol + dc;
+                boolean inside = r >= 0 && r < rows && c >= 0 && c < cols;
+                if (inside && deltaX * deltaX + deltaY * deltaY <= RADIUS * RADIUS) {
+                    markVisible(base, dr, dc);
+                }
+
+                boolean opaque = !inside || !walkableGrid[r][c];
+                if (blocked) {
+                    if (opaque) {
+                        newStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = newStart;
+                    }
+                } else if (opaque && distance < RADIUS) {
+                    blocked = true;
+                    castLight(base, originRow, originCol, distance + 1, start, leftSlope, xx, xy, yx, yy);
+                    newStart = rightSlope;
+                }
+            }
+            if (blocked) break;
+        }
+    }
+
+    private void markVisible(int base, int dr, int dc) {
+        int bit = (dr + RADIUS) * WINDOW + (dc + RADIUS);
+        visibility[base + (bit >>> 6)] |= 1L << bit;
+    }
+
+    /**
+     * True if (row, col) is lit when standing on (originRow, originCol).
+     */
+    public boolean isVisible(int originRow, int originCol, int row, int col) {
+        int dr = row - originRow;
+        int dc = col - originCol;
+        if (dr < -RADIUS || dr > RADIUS || dc < -RADIUS || dc > RADIUS) return false;
+        if (originRow < 0 || originRow >= rows || originCol < 0 || originCol >= cols) return false;
+        int base = (originRow * cols + originCol) * WINDOW_WORDS;
+        int bit = (dr + RADIUS) * WINDOW + (dc + RADIUS);
+        return (visibility[base + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    // -----------------------------------------------------------------
+    //  DRAWING
+    // -----------------------------------------------------------------
+
+    /**
+     * Blits the darkness for the given origin tiles (row * cols + col) over the tiles
+     * [row0, row1) x [col0, col1) of the board. Returns true if the mask image had to
+     * be (re)allocated for this view, which only happens when the fog is first drawn.
+     */
+    public boolean draw(Graphics2D g, int[] originTiles, int originCount, int tileSize,
+                        int row0, int col0, int row1, int col1) {
+        if (walkableGrid == null || originCount == 0 || row0 >= row1 || col0 >= col1) return false;
+
+        // Room for one more tile each way, as the camera's tile span moves with its alignment
+        boolean allocated = false;
+        if (mask == null || tileSize != maskTileSize
+                || (row1 - row0) * tileSize > mask.getHeight() || (col1 - col0) * tileSize > mask.getWidth()) {
+            allocateMask(Math.min(rows, row1 - row0 + 1), Math.min(cols, col1 - col0 + 1), tileSize);
+            allocated = true;
+        }
+
+        boolean moved = row0 != maskRow || col0 != maskCol || row1 - row0 != maskRows || col1 - col0 != maskCols;
+        boolean lit = originCount == maskOriginCount;
+        for (int i = 0; lit && i < originCount; i++) lit = (maskOrigins[i] == originTiles[i]);
+        if (moved || !lit) {
+            maskRow = row0;
+            maskCol = col0;
+            maskRows = row1 - row0;
+            maskCols = col1 - col0;
+            System.arraycopy(originTiles, 0, maskOrigins, 0, originCount);
+            maskOriginCount = originCount;
+            updateMask(moved || allocated);
+        }
+
+        int w = maskCols * tileSize;
+        int h = maskRows * tileSize;
+        int x = maskCol * tileSize;
+        int y = maskRow * tileSize;
+        g.drawImage(mask, x, y, x + w, y + h, 0, 0, w, h, null);
+        return allocated;
+    }
+
+    /**
+     * Takes over the mask image of the fog this one replaces (the previous level or
+     * endless window), so a new level does not allocate another.
+     */
+    public void takeMask(FogOfWar previous) {
+        if (previous == this || previous.mask == null) return;
+        mask = previous.mask;
+        maskPixels = previous.maskPixels;
+        maskTileSize = previous.maskTileSize;
+        tileAlpha = previous.tileAlpha;
+        drawnAlpha = previous.drawnAlpha;
+        weights = previous.weights;
+        maskRows = -1; // redrawn in full for the new level
+        previous.mask = null;
+        previous.maskPixels = null;
+    }
+
+    private void allocateMask(int tileRows, int tileCols, int tileSize) {
+        mask = new BufferedImage(tileCols * tileSize, tileRows * tileSize, BufferedImage.TYPE_INT_ARGB);
+        maskPixels = ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+        maskTileSize = tileSize;
+        tileAlpha = new int[(tileRows + 2) * (tileCols + 2)];
+        drawnAlpha = new int[tileAlpha.length];
+        weights = new int[tileSize];
+        for (int k = 0; k < tileSize; k++) weights[k] = ((2 * k + 1) * 256) / (2 * tileSize);
+    }
+
+    // Recomposes the tile alphas and rewrites the pixels of the tiles whose alpha changed
+    private void updateMask(boolean all) {
+        int stride = maskCols + 2;
+        int changedRow0 = Integer.MAX_VALUE, changedCol0 = Integer.MAX_VALUE, changedRow1 = -1, changedCol1 = -1;
+        for (int i = 0; i < maskRows + 2; i++) {
+            // Off the board the nearest board tile is repeated, as a clamped bilinear scale would
+            int row = Math.max(0, Math.min(rows - 1, maskRow - 1 + i));
+            for (int j = 0; j < stride; j++) {
+                int col = Math.max(0, Math.min(cols - 1, maskCol - 1 + j));
+                int alpha = DARK_ALPHA;
+                for (int o = 0; o < maskOriginCount; o++) {
+                    int dr = row - maskOrigins[o] / cols;
+                    int dc = col - maskOrigins[o] % cols;
+                    if (dr < -RADIUS || dr > RADIUS || dc < -RADIUS || dc > RADIUS) continue;
+                    alpha = Math.min(alpha, light[maskOrigins[o] * WINDOW * WINDOW + (dr + RADIUS) * WINDOW + (dc + RADIUS)] & 0xFF);
+                }
+                int index = i * stride + j;
+                tileAlpha[index] = alpha;
+                if (all || drawnAlpha[index] != alpha) {
+                    changedRow0 = Math.min(changedRow0, i);
+                    changedRow1 = Math.max(changedRow1, i);
+                    changedCol0 = Math.min(changedCol0, j);
+                    changedCol1 = Math.max(changedCol1, j);
+                }
+            }
+        }
+        int[] swap = drawnAlpha;
+        drawnAlpha = tileAlpha;
+        tileAlpha = swap;
+        if (changedRow1 < 0) return;
+
+        // A pixel blends the four tiles whose centres surround it, so a changed tile
+        // reaches from the centre of the tile before it to the centre of the one after
+        int t = maskTileSize;
+        int half = t / 2;
+        int x0 = Math.max(0, (changedCol0 - 2) * t + half);
+        int x1 = Math.min(maskCols * t, changedCol1 * t + half);
+        int y0 = Math.max(0, (changedRow0 - 2) * t + half);
+        int y1 = Math.min(maskRows * t, changedRow1 * t + half);
+        int width = mask.getWidth();
+        int[] alphas = drawnAlpha;
+        for (int y = y0; y < y1; y++) {
+            int ty = Math.floorDiv(y - half, t) + 1;
+            int wy = weights[Math.floorMod(y - half, t)];
+            int top = ty * stride;
+            int bottom = top + stride;
+            int line = y * width;
+            for (int x = x0; x < x1; x++) {
+                int tx = Math.floorDiv(x - half, t) + 1;
+                int wx = weights[Math.floorMod(x - half, t)];
+                int upper = alphas[top + tx] * (256 - wx) + alphas[top + tx + 1] * wx;
+                int lower = alphas[bottom + tx] * (256 - wx) + alphas[bottom + tx + 1] * wx;
+                int alpha = (upper * (256 - wy) + lower * wy + (1 << 15)) >> 16;
+                maskPixels[line + x] = alpha << 24;
+            }
+        }
+    }
+
+    public int getColumns() { return cols; }
+}
@@ -0,0 +1,91 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The one place the game's TrueType fonts are loaded. Each resource is read
+ * with Font.createFont once, derived sizes are cached, and GlyphAtlases are
+ * built once per font, size and colour. A resource that is missing or broken
+ * falls back to SansSerif so callers always get a usable font.
+ *
+ * Meant for the EDT; nothing here is synchronized.
+ */
+public class FontManager {
+    private static final Logger LOGGER = Logger.getLogger(FontManager.class.getName());
+
+    public static final String STORY_FONT = "/font_A.ttf";   // cutscenes
+    public static final String MENU_FONT = "/font_B.ttf";    // menu title, buttons and hints
+    public static final String PIXEL_FONT = "/04B_03__.TTF"; // pause overlay; the file name is upper case
+
+    private static final FontManager INSTANCE = new FontManager();
+
+    private final Map<String, Font> baseFonts = new HashMap<>();
+    private final Map<String, Font> derivedFonts = new HashMap<>();
+    private final Map<String, GlyphAtlas> atlases = new HashMap<>();
+
+    private FontManager() { }
+
+    public static FontManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The font in the given resource at the given style and size.
+     */
+    public Font getFont(String resource, int style, float size) {
+        String key = resource + '|' + style + '|' + size;
+        Font font = derivedFonts.get(key);
+        if (font == null) {
+            font = getBaseFont(resource).deriveFont(style, size);
+            derivedFonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Glyphs of the font in the given resource, rasterized in the given colour.
+     */
+    public GlyphAtlas getAtlas(String resource, int style, float size, Color color) {
+        return getAtlas(getFont(resource, style, size), color);
+    }
+
+    /**
+     * Glyphs of any font, e.g. a system font, rasterized in the given colour.
+     */
+    public GlyphAtlas getAtlas(Font font, Color color) {
+        String key = font.getFontName() + '|' + font.getStyle() + '|' + font.getSize2D() + '|' + color.getRGB();
+        GlyphAtlas atlas = atlases.get(key);
+        if (atlas == null) {
+            atlas = new GlyphAtlas(font, color);
+            atlases.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    private Font getBaseFont(String resource) {
+        Font font = baseFonts.get(resource);
+        if (font == null) {
+            font = load(resource);
+            baseFonts.put(resource, font);
+        }
+        return font;
+    }
+
+    private Font load(String resource) {
+        try (InputStream is = FontManager.class.getResourceAsStream(resource)) {
+            if (is != null) {
+                return Font.createFont(Font.TRUETYPE_FONT, is);
+            }
+            LOGGER.warning("Font resource not found: " + resource);
+        } catch (FontFormatException | IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load font " + resource, e);
+        }
+        return new Font("SansSerif", Font.PLAIN, 12);
+    }
+}
@@ -1,8 +1,11 @@
 public class GameConstants {
     // --- Dimensions ---
     public static final int TILE_SIZE = 32;
-    public static final int SCREEN_WIDTH = 19 * TILE_SIZE;  // Based on map columns
-    public static final int SCREEN_HEIGHT = 21 * TILE_SIZE; // Based on map rows
+    public static final int VIEW_COLUMNS = 19;             // Tiles in view; bigger levels scroll
+    public static final int VIEW_ROWS = 21;
+    public static final int SCREEN_WIDTH = VIEW_COLUMNS * TILE_SIZE;
+    public static final int SCREEN_HEIGHT = VIEW_ROWS * TILE_SIZE;
+    public static final int KNIFE_SIZE = Math.max(1, (int) Math.round(TILE_SIZE * 0.7));
 
     // --- Game Speed Balance ---
     public static final int SPEED_PACMAN = TILE_SIZE / 4;
@@ -16,8 +19,10 @@ public class GameConstants {
     public static final int MAX_LIVES = 3;
     public static final int BOSS_LIVES = 3;
     public static final int STARTING_KNIVES = 5;
+    public static final int MAX_PLAYERS = 4;         // Local co-op players sharing one keyboard
 
     // --- Timers (in Game Ticks) ---
+    public static final int TICK_MS = 50;            // Game loop period: 20 updates per second
     public static final int TIMER_INTERLEVEL = 15;   // Time between levels
     public static final int TIMER_RESTART = 10;      // Delay before restart allowed
     public static final int TIMER_BOSS_NORMAL = 200; // 10 seconds (at 20fps)
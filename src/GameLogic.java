@@ -48,52 +48,44 @@ public class GameLogic {
             if (state.boss.isReflecting()) state.boss.image = assetManager.getBossReflectImage();
             else state.boss.image = assetManager.getBossImage();
 
-            // Boss Attack
-            List<Actor> projs = state.boss.performLongRangeAttack(state.pacman, assetManager.getProjectileImage());
+            // Boss Attack (aims at whichever player is closest)
+            Player target = state.nearestActivePlayer(state.boss);
+            List<Actor> projs = (target != null) ? state.boss.performLongRangeAttack(target.actor, assetManager.getProjectileImage()) : null;
             if (projs != null) {
                 state.projectiles.addAll(projs);
             }
         }
 
         // 5. Sprint Logic
-        updateSprintState();
+        for (Player player : state.players) {
+            if (player.isActive()) updateSprintState(player);
+        }
 
         // 6. Movement
-        boolean moveStarted = movementManager.updateActorPositions(state, inputHandler, gameMap, soundManager, GameConstants.TILE_SIZE);
-
-        // 7. Collisions
-        collisionManager.checkFoodCollisions(state, soundManager);
-        boolean knifePicked = collisionManager.checkKnifeCollisions(state);
-        if (knifePicked) soundManager.playEffect("audio/knife_pick.wav");
-
-        int bossRes = (state.boss != null) ? collisionManager.checkBossCollisions(state, soundManager) : CollisionManager.GHOST_COLLISION_NONE;
-        int projRes = (state.boss != null && !state.projectiles.isEmpty()) ? collisionManager.checkProjectileCollisions(state, soundManager) : CollisionManager.GHOST_COLLISION_NONE;
-        int ghostRes = collisionManager.checkGhostCollisions(state, soundManager);
+        boolean[] moveStarted = movementManager.updateActorPositions(state, inputHandler, soundManager, GameConstants.TILE_SIZE);
+        state.influence.update(state.ghosts, state.projectiles);
 
-        // 8. Update Pacman Image
-        boolean ghostKilled = (ghostRes == CollisionManager.GHOST_COLLISION_GHOST_KILLED || bossRes == CollisionManager.GHOST_COLLISION_GHOST_KILLED);
-        if (moveStarted || knifePicked || ghostKilled) {
-            updatePacmanImage();
+        // 7-9. Collisions, sprite and lives, player by player
+        for (Player player : state.players) {
+            if (!player.isActive()) continue;
+            updatePlayerCollisions(player, moveStarted[player.index]);
+        }
+        // Projectiles that stopped at a wall still had their chance to hit a player on the way
+        if (!state.spentProjectiles.isEmpty()) {
+            state.projectiles.removeAll(state.spentProjectiles);
+            state.spentProjectiles.clear();
         }
 
-        // 9. Check Life Lost
-        boolean lifeLost = (ghostRes == CollisionManager.GHOST_COLLISION_LIFE_LOST ||
-                bossRes == CollisionManager.GHOST_COLLISION_LIFE_LOST ||
-                projRes == CollisionManager.GHOST_COLLISION_LIFE_LOST);
-
-        if (lifeLost) {
-            resetSprintState();
-            if (state.lives <= 0) {
-                state.gameOver = true;
-                inputHandler.clear();
-                state.restartDebounceTicks = GameConstants.TIMER_RESTART;
-            } else {
-                state.pacman.reset();
-            }
+        if (state.allPlayersOut()) {
+            state.gameOver = true;
+            inputHandler.clear();
+            state.restartDebounceTicks = GameConstants.TIMER_RESTART;
+            return;
         }
 
-        // 10. Check Win
-        if (state.foods.isEmpty() && !state.gameWon && !state.interLevel) {
+        // 10. Check Win (an endless world never runs out of food)
+        boolean cleared = (state.maze != null) ? state.maze.pelletCount() == 0 : state.foods.isEmpty();
+        if (state.endlessWorld == null && cleared && !state.gameWon && !state.interLevel) {
             state.nextLevelToStart = state.currentLevel + 1;
             if (state.nextLevelToStart > gameMap.getLevelCount()) {
                 state.gameWon = true;
@@ -109,56 +101,78 @@ public class GameLogic {
             }
         }
     }
-    private void updateSprintState() {
-        if (state.pacman == null) return;
+    private void updatePlayerCollisions(Player player, boolean moveStarted) {
+        // 7. Collisions
+        collisionManager.checkFoodCollisions(state, player, soundManager);
+        boolean knifePicked = collisionManager.checkKnifeCollisions(state, player);
+        if (knifePicked) soundManager.playEffect("audio/knife_pick.wav");
+
+        int bossRes = (state.boss != null) ? collisionManager.checkBossCollisions(state, player, soundManager) : CollisionManager.GHOST_COLLISION_NONE;
+        int projRes = (state.boss != null && !state.projectiles.isEmpty()) ? collisionManager.checkProjectileCollisions(state, player, soundManager) : CollisionManager.GHOST_COLLISION_NONE;
+        int ghostRes = collisionManager.checkGhostCollisions(state, player, soundManager);
+
+        // 8. Update Pacman Image
+        boolean ghostKilled = (ghostRes == CollisionManager.GHOST_COLLISION_GHOST_KILLED || bossRes == CollisionManager.GHOST_COLLISION_GHOST_KILLED);
+        if (moveStarted || knifePicked || ghostKilled) {
+            updatePacmanImage(player);
+        }
+
+        // 9. Check Life Lost
+        boolean lifeLost = (ghostRes == CollisionManager.GHOST_COLLISION_LIFE_LOST ||
+                bossRes == CollisionManager.GHOST_COLLISION_LIFE_LOST ||
+                projRes == CollisionManager.GHOST_COLLISION_LIFE_LOST);
+
+        if (lifeLost) {
+            player.resetSprint();
+            // A player with no lives left simply drops out; the others keep going.
+            if (player.lives > 0) {
+                player.actor.reset();
+            }
+        }
+    }
 
-        if (state.sprintCooldownTicks > 0) state.sprintCooldownTicks--;
+    private void updateSprintState(Player player) {
+        if (player.sprintCooldownTicks > 0) player.sprintCooldownTicks--;
 
-        if (state.sprintActive) {
-            if (state.sprintTicksRemaining > 0) {
-                state.sprintTicksRemaining--;
+        if (player.sprintActive) {
+            if (player.sprintTicksRemaining > 0) {
+                player.sprintTicksRemaining--;
             }
 
-            if (state.sprintTicksRemaining <= 0) {
-                endSprintWithCooldown();
+            if (player.sprintTicksRemaining <= 0) {
+                endSprintWithCooldown(player);
             }
             return;
         }
 
-        if (state.sprintCooldownTicks == 0 && inputHandler.isSprintPressed()) {
-            startSprint();
+        if (player.sprintCooldownTicks == 0 && inputHandler.isSprintPressed(player.controls)) {
+            startSprint(player);
         }
     }
 
-    private void startSprint() {
-        state.sprintActive = true;
-        state.sprintTicksRemaining = GameConstants.TIMER_SPRINT_DURATION;
-        state.pacman.speed = GameConstants.SPEED_PACMAN_SPRINT;
+    private void startSprint(Player player) {
+        player.sprintActive = true;
+        player.sprintTicksRemaining = GameConstants.TIMER_SPRINT_DURATION;
+        player.actor.speed = GameConstants.SPEED_PACMAN_SPRINT;
     }
 
-    private void endSprintWithCooldown() {
-        state.sprintActive = false;
-        state.sprintTicksRemaining = 0;
+    private void endSprintWithCooldown(Player player) {
+        player.sprintActive = false;
+        player.sprintTicksRemaining = 0;
         // Use mode-aware cooldown so Demo mode gets a shorter cooldown
         GameMode currentMode = ModeManager.getSelectedMode();
-        state.sprintCooldownTicks = GameConstants.sprintCooldown(currentMode);
-        state.pacman.speed = GameConstants.SPEED_PACMAN;
-    }
-
-    private void resetSprintState() {
-        state.sprintActive = false;
-        state.sprintTicksRemaining = 0;
-        state.sprintCooldownTicks = 0;
-        if (state.pacman != null) state.pacman.speed = GameConstants.SPEED_PACMAN;
+        player.sprintCooldownTicks = GameConstants.sprintCooldown(currentMode);
+        player.actor.speed = GameConstants.SPEED_PACMAN;
     }
 
-    private void updatePacmanImage() {
-        boolean hasKnife = (state.hasWeapon && state.knifeCount > 0);
-        switch (state.pacman.direction) {
-            case UP: state.pacman.image = hasKnife ? assetManager.getPacmanUpKnifeImage() : assetManager.getPacmanUpImage(); break;
-            case DOWN: state.pacman.image = hasKnife ? assetManager.getPacmanDownKnifeImage() : assetManager.getPacmanDownImage(); break;
-            case LEFT: state.pacman.image = hasKnife ? assetManager.getPacmanLeftKnifeImage() : assetManager.getPacmanLeftImage(); break;
-            case RIGHT: case NONE: state.pacman.image = hasKnife ? assetManager.getPacmanRightKnifeImage() : assetManager.getPacmanRightImage(); break;
+    private void updatePacmanImage(Player player) {
+        Actor pacman = player.actor;
+        boolean hasKnife = player.hasKnife();
+        switch (pacman.direction) {
+            case UP: pacman.image = hasKnife ? assetManager.getPacmanUpKnifeImage() : assetManager.getPacmanUpImage(); break;
+            case DOWN: pacman.image = hasKnife ? assetManager.getPacmanDownKnifeImage() : assetManager.getPacmanDownImage(); break;
+            case LEFT: pacman.image = hasKnife ? assetManager.getPacmanLeftKnifeImage() : assetManager.getPacmanLeftImage(); break;
+            case RIGHT: case NONE: pacman.image = hasKnife ? assetManager.getPacmanRightKnifeImage() : assetManager.getPacmanRightImage(); break;
         }
     }
-}
\ No newline at end of file
+}
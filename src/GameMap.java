@@ -1,14 +1,23 @@
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Stores and provides all level map data and dimensions.
+ *
+ * Levels come from the binary level pack (res/levels.pack) when it is present,
+ * otherwise from the built-in maps below. Each level has its own size, and a
+ * level is only decoded when it is asked for. Game code reads levels as TileGrids
+ * (one tile code byte per tile); the built-in String rows are what LevelPack packs.
  */
 public class GameMap {
+    private static final Logger LOGGER = Logger.getLogger(GameMap.class.getName());
 
+    private final LevelPack pack;          // null when using the built-in maps
     private final List<String[]> levelMaps;
-    private final int rowCount;
-    private final int columnCount;
+    private final List<TileGrid> levelTiles; // built-in levels, parsed once
 
     private static final String[] tileMapLevel1 = {
             "XXXXXXXXXXXXXXXXXXX",
@@ -83,33 +92,59 @@ public class GameMap {
     };
 
     public GameMap() {
-        levelMaps = new ArrayList<>();
-        levelMaps.add(tileMapLevel1);
-        levelMaps.add(tileMapLevel2);
-        levelMaps.add(tileMapLevel3);
+        this(System.getProperty("pacman.levels", LevelPack.DEFAULT_PATH));
+    }
+
+    public GameMap(String packPath) {
+        this.levelMaps = builtInLevels();
+        this.levelTiles = new ArrayList<>();
+        for (String[] map : levelMaps) levelTiles.add(TileGrid.fromRows(map));
+        this.pack = openPack(packPath);
+    }
+
+    private static LevelPack openPack(String packPath) {
+        try {
+            return LevelPack.open(packPath);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Level pack " + packPath + " unavailable, using built-in levels: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static List<String[]> builtInLevels() {
+        List<String[]> maps = new ArrayList<>();
+        maps.add(tileMapLevel1);
+        maps.add(tileMapLevel2);
+        maps.add(tileMapLevel3);
+        return maps;
+    }
 
-        // Assuming all maps are the same size
-        this.rowCount = tileMapLevel1.length;
-        this.columnCount = tileMapLevel1[0].length();
+    /**
+     * Tile grid for the given level. Safe to call from several threads at once
+     * (each decode reads the pack through its own view of the buffer).
+     */
+    public TileGrid getTiles(int level) {
+        level = validLevel(level);
+        return (pack != null) ? pack.decodeTiles(level) : levelTiles.get(level - 1);
     }
 
-    public String[] getMapData(int level) {
-        if (level < 1 || level > levelMaps.size()) {
-            // Handle error or return a default, e.g., level 1
-            return levelMaps.get(1);
+    // Out-of-range levels fall back to a default level
+    public int validLevel(int level) {
+        if (level < 1 || level > getLevelCount()) {
+            return Math.min(2, getLevelCount());
         }
-        return levelMaps.get(level - 1);
+        return level;
     }
 
     public int getLevelCount() {
-        return levelMaps.size();
+        return (pack != null) ? pack.getLevelCount() : levelMaps.size();
     }
 
-    public int getRowCount() {
-        return rowCount;
+    public int getRowCount(int level) {
+        return (pack != null) ? pack.getRowCount(level) : levelMaps.get(level - 1).length;
     }
 
-    public int getColumnCount() {
-        return columnCount;
+    public int getColumnCount(int level) {
+        return (pack != null) ? pack.getColumnCount(level) : levelMaps.get(level - 1)[0].length();
     }
-}
\ No newline at end of file
+}
@@ -1,4 +1,5 @@
 public enum GameMode {
     PLAY,
-    DEMO
+    DEMO,
+    ENDLESS
 }
\ No newline at end of file
@@ -5,30 +5,44 @@ import java.util.List;
 
 public class GameState {
     public int score = 0;
-    public int lives = 3;
     public boolean gameOver = false;
     public boolean gameWon = false;
     public int currentLevel = 1;
-    public int knifeCount = 0;
-    public boolean hasWeapon = false;
     public Boss boss;
     public boolean bossState = true;
 
-    // Sprint State
-    public boolean sprintActive = false;
-    public int sprintTicksRemaining = 0;
-    public int sprintCooldownTicks = 0;
+    // Local players (1 in solo, up to GameConstants.MAX_PLAYERS in co-op)
+    public final List<Player> players = new ArrayList<>();
 
-    // Entities
-    public HashSet<Actor> projectiles = new HashSet<>();
+    // Entities (actors in lists, so the renderer can walk them without an iterator)
+    public List<Actor> projectiles = new ArrayList<>();
+    // Projectiles that reached a wall this tick: they stay in projectiles at the impact
+    // point until the players have been tested against them, then GameLogic drops them
+    public final List<Actor> spentProjectiles = new ArrayList<>();
     public HashSet<Entity> walls = new HashSet<>();
     public HashSet<Entity> foods = new HashSet<>();
     public HashSet<Entity> knives = new HashSet<>();
-    public HashSet<Actor> ghosts = new HashSet<>();
-    public Actor pacman;
+    public List<Actor> ghosts = new ArrayList<>();
 
+    // Tile codes of the current level, and the walkable tiles derived from them
+    public TileGrid tiles;
     // create grid on the game map for heuristic
     public boolean[][] walkableGrid;
+    // Bumped whenever the tiles change (new level, endless window moved), for cached layers
+    public int mapVersion;
+
+    // Food and knives picked up since the renderer last looked, so its pellet chunks
+    // can clear just those tiles instead of redrawing every pickup
+    public final List<Entity> removedPickups = new ArrayList<>();
+
+    // Bit-packed walls and pellets for line-of-sight and corridor queries
+    public MazeBitboard maze;
+
+    // Threat / value layers shared by the ghost AI and the autopilot
+    public final InfluenceMap influence = new InfluenceMap();
+
+    // Chunk streaming for endless mode (null in the normal levels)
+    public EndlessWorld endlessWorld;
 
     // Level Transition State
     public boolean interLevel = false;
@@ -44,4 +58,29 @@ public class GameState {
     public boolean ghostKill = false; //check ghost kill
     public boolean gameEndProcessed = false;
 
+    public boolean allPlayersOut() {
+        for (Player player : players) {
+            if (player.isActive()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Closest active player to the given actor (straight-line), or null if nobody is left.
+     */
+    public Player nearestActivePlayer(Actor from) {
+        Player best = null;
+        long bestDist = Long.MAX_VALUE;
+        for (Player player : players) {
+            if (!player.isActive()) continue;
+            long dx = player.actor.x - from.x;
+            long dy = player.actor.y - from.y;
+            long d = dx * dx + dy * dy;
+            if (d < bestDist) {
+                bestDist = d;
+                best = player;
+            }
+        }
+        return best;
+    }
 }
\ No newline at end of file
@@ -1,14 +1,36 @@
 import javax.swing.JPanel;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Dimension;
 import java.awt.Color;
+import java.awt.Image;
+import java.awt.Toolkit;
 import java.awt.event.KeyListener;
+import java.awt.image.VolatileImage;
 
-
+/**
+ * Game canvas with active rendering: every tick the frame is drawn into a
+ * VolatileImage back buffer (accelerated where the platform allows it) and copied
+ * to the screen straight away, instead of waiting for the RepaintManager.
+ * If the buffer's contents are lost (display change, screen lock, ...) the frame
+ * is simply drawn again. Swing's own repaints (expose, resize) show the last frame.
+ *
+ * The back buffer persists between frames, so only the tiles the renderer reports
+ * as dirty are composited into it and copied to the screen (all of it when the
+ * camera moved, as the whole board shifted). The buffer's Graphics is kept, so
+ * a frame the renderer did not have to load anything for allocates nothing, fog,
+ * death animations and HUD changes included (FrameAllocationTest holds it to
+ * that). The screen's Graphics is taken and disposed for each frame, as Swing
+ * expects of getGraphics.
+ */
 public class GameView extends JPanel {
     private final Renderer renderer;
     private final GameState state;
 
+    private VolatileImage backBuffer;
+    private Graphics2D backGraphics;
+
     public GameView(Renderer renderer, GameState state, int width, int height, KeyListener input) {
         this.renderer = renderer;
         this.state = state;
@@ -19,11 +41,125 @@ public class GameView extends JPanel {
         addKeyListener(input);
     }
 
+    /**
+     * Draws and presents one frame now. Called from the game loop at a fixed cadence.
+     */
+    public void renderFrame() {
+        if (!isShowing() || getWidth() <= 0 || getHeight() <= 0) {
+            repaint(); // not on screen yet; let Swing paint it once it is
+            return;
+        }
+
+        DirtyTiles dirty = collectDirty();
+        boolean full = dirty == null || dirty.isFull();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        do {
+            if (backBuffer == null || backBuffer.getWidth() != getWidth() || backBuffer.getHeight() != getHeight()) {
+                if (!createBackBuffer()) return;
+                full = true;
+            } else {
+                int status = backBuffer.validate(gc);
+                if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    if (!createBackBuffer()) return;
+                    full = true;
+                } else if (status == VolatileImage.IMAGE_RESTORED) {
+                    full = true; // contents are gone
+                }
+            }
+            if (!full && dirty.isEmpty()) return;
+
+            drawFrame(backGraphics, full ? null : dirty);
+            present(full || dirty.isScrolled() ? null : dirty);
+            full = true; // if the contents were lost meanwhile, redraw everything
+        } while (backBuffer.contentsLost());
+    }
+
+    /**
+     * The tiles the next frame changes; null when there is nothing to draw from.
+     */
+    DirtyTiles collectDirty() {
+        return (renderer != null && state != null) ? renderer.collectDirty(state) : null;
+    }
+
+    /**
+     * Draws the frame into g: everything when dirty is null, otherwise only the
+     * dirty tiles, over the previous frame that g still shows.
+     */
+    void drawFrame(Graphics g, DirtyTiles dirty) {
+        if (dirty != null) {
+            renderer.drawDirty(g, state, dirty);
+            return;
+        }
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (renderer != null && state != null) {
+            renderer.drawGame(g, this, state);
+        }
+    }
+
+    /**
+     * Copies the dirty rectangles (everything when dirty is null) of a drawn frame to g.
+     */
+    static void copyFrame(Image frame, Graphics g, DirtyTiles dirty) {
+        if (dirty == null) {
+            g.drawImage(frame, 0, 0, null);
+            return;
+        }
+        int[] rects = dirty.getRects();
+        for (int i = 0, n = dirty.getRectCount() * 4; i < n; i += 4) {
+            int x0 = rects[i];
+            int y0 = rects[i + 1];
+            int x1 = x0 + rects[i + 2];
+            int y1 = y0 + rects[i + 3];
+            g.drawImage(frame, x0, y0, x1, y1, x0, y0, x1, y1, null);
+        }
+    }
+
+    /**
+     * What the renderer had to load or build for the frame drawn last, as
+     * Renderer's LOAD_ flags; 0 when it only used what it had cached.
+     */
+    int getFrameLoads() {
+        return (renderer != null) ? renderer.getFrameLoads() : 0;
+    }
+
+    private boolean createBackBuffer() {
+        if (backGraphics != null) backGraphics.dispose();
+        if (backBuffer != null) backBuffer.flush();
+        backGraphics = null;
+        backBuffer = createVolatileImage(getWidth(), getHeight());
+        if (backBuffer == null) {
+            repaint();
+            return false;
+        }
+        backGraphics = backBuffer.createGraphics();
+        return true;
+    }
+
+    // Copies the frame to the screen through a Graphics of its own that is let go
+    // as soon as the frame is shown
+    private void present(DirtyTiles dirty) {
+        Graphics g = getGraphics();
+        if (g == null) return;
+        try {
+            copyFrame(backBuffer, g, dirty);
+        } finally {
+            g.dispose();
+        }
+        // Flush the window system's queue so the frame shows up now, not whenever it batches
+        Toolkit.getDefaultToolkit().sync();
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
+        if (backBuffer != null && backBuffer.validate(getGraphicsConfiguration()) == VolatileImage.IMAGE_OK
+                && !backBuffer.contentsLost()) {
+            g.drawImage(backBuffer, 0, 0, null);
+            return;
+        }
         super.paintComponent(g);
         if (renderer != null && state != null) {
             renderer.drawGame(g, this, state);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,234 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Cooperative ghost planner, run once per tick before any ghost moves.
+ *
+ * Ghosts only chase when they can actually see a player down a straight,
+ * unobstructed corridor (a bitboard line-of-sight test); the rest intercept.
+ * A handful of multi-source distance fields are built from shared data (player
+ * tiles, the tiles ahead of them, nearby junctions, junctions the players reach
+ * before any ghost). Each ghost is then given a role in a single pass over the
+ * ghosts, and steering is a lookup of four neighbour distances in its role's
+ * field. The number of floods is fixed by the roles in use, not by ghost count.
+ */
+public class GhostPlanner {
+    private static final int AMBUSH_LOOKAHEAD = 4;
+    private static final int FLANK_MIN_DIST = 3;
+    private static final int FLANK_MAX_DIST = 6;
+    private static final int CUTOFF_MAX_DIST = 8;
+
+    private static final Direction[] DIRECTIONS = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+    private static final GhostRole[] ROLES = GhostRole.values();
+
+    private final DistanceField[] fields = new DistanceField[ROLES.length];
+    private final boolean[] fieldReady = new boolean[ROLES.length];
+    private final boolean[] roleNeeded = new boolean[ROLES.length];
+    private final DistanceField ghostField = new DistanceField();
+
+    private boolean[][] walkableGrid;
+    private InfluenceMap influence;
+    private int rows;
+    private int cols;
+    private boolean[] junction = new boolean[0];
+    private int[] sources = new int[0];
+
+    public GhostPlanner() {
+        for (int i = 0; i < fields.length; i++) fields[i] = new DistanceField();
+    }
+
+    // -----------------------------------------------------------------
+    //  PLANNING (once per tick)
+    // -----------------------------------------------------------------
+
+    public void plan(GameState state, int tileSize) {
+        if (state.walkableGrid == null) return;
+        bind(state.walkableGrid);
+        influence = state.influence;
+
+        // 1. Chase field: every active player at once
+        int count = 0;
+        for (Player player : state.players) {
+            if (player.isActive()) sources[count++] = tileOf(player.actor, tileSize);
+        }
+        fields[GhostRole.CHASE.ordinal()].compute(walkableGrid, sources, count);
+        fieldReady[GhostRole.CHASE.ordinal()] = true;
+        DistanceField chase = fields[GhostRole.CHASE.ordinal()];
+
+        // 2. Assign roles in one pass: ghosts that can see a player chase, the other
+        //    SMART ghosts alternate ambush/flank, RANDOM ghosts guard the exits.
+        boolean[] needed = roleNeeded;
+        Arrays.fill(needed, false);
+        int smartIndex = 0;
+        for (Actor ghost : state.ghosts) {
+            if (canSeePlayer(state, ghost, tileSize)) {
+                ghost.role = GhostRole.CHASE;
+            } else if (ghost.movementType == MovementType.SMART) {
+                ghost.role = (smartIndex++ % 2 == 0) ? GhostRole.AMBUSH : GhostRole.FLANK;
+            } else {
+                ghost.role = GhostRole.CUTOFF;
+            }
+            needed[ghost.role.ordinal()] = true;
+        }
+
+        // 3. Only build the fields some ghost actually uses
+        fieldReady[GhostRole.AMBUSH.ordinal()] = needed[GhostRole.AMBUSH.ordinal()] && buildAmbushField(state, tileSize);
+        fieldReady[GhostRole.FLANK.ordinal()] = needed[GhostRole.FLANK.ordinal()] && buildFlankField(chase);
+        fieldReady[GhostRole.CUTOFF.ordinal()] = needed[GhostRole.CUTOFF.ordinal()] && buildCutoffField(state, chase, tileSize);
+    }
+
+    private boolean buildAmbushField(GameState state, int tileSize) {
+        int count = 0;
+        for (Player player : state.players) {
+            if (!player.isActive()) continue;
+            Actor a = player.actor;
+            int row = (a.y + a.height / 2) / tileSize;
+            int col = (a.x + a.width / 2) / tileSize;
+            // Corridor scan on the bitboard: stop short of the next wall
+            int ahead = (state.maze != null) ? Math.min(AMBUSH_LOOKAHEAD, state.maze.corridorLength(row, col, a.direction)) : 0;
+            row += a.direction.getDy(ahead);
+            col += a.direction.getDx(ahead);
+            sources[count++] = row * cols + col;
+        }
+        return computeRole(GhostRole.AMBUSH, count);
+    }
+
+    private boolean buildFlankField(DistanceField chase) {
+        int count = 0;
+        for (int tile = 0; tile < junction.length; tile++) {
+            if (!junction[tile]) continue;
+            int d = chase.distance(tile / cols, tile % cols);
+            if (d >= FLANK_MIN_DIST && d <= FLANK_MAX_DIST) sources[count++] = tile;
+        }
+        return computeRole(GhostRole.FLANK, count);
+    }
+
+    private boolean buildCutoffField(GameState state, DistanceField chase, int tileSize) {
+        int ghostCount = 0;
+        for (Actor ghost : state.ghosts) {
+            sources[ghostCount++] = tileOf(ghost, tileSize);
+        }
+        ghostField.compute(walkableGrid, sources, ghostCount);
+
+        int count = 0;
+        for (int tile = 0; tile < junction.length; tile++) {
+            if (!junction[tile]) continue;
+            int row = tile / cols;
+            int col = tile % cols;
+            int d = chase.distance(row, col);
+            if (d <= CUTOFF_MAX_DIST && d < ghostField.distance(row, col)) sources[count++] = tile;
+        }
+        return computeRole(GhostRole.CUTOFF, count);
+    }
+
+    private boolean computeRole(GhostRole role, int count) {
+        if (count == 0) return false;
+        fields[role.ordinal()].compute(walkableGrid, sources, count);
+        return true;
+    }
+
+    // -----------------------------------------------------------------
+    //  STEERING (per ghost, O(1))
+    // -----------------------------------------------------------------
+
+    /**
+     * Direction that moves the ghost down its role's distance field. Ghosts do not
+     * reverse unless it is the only way out, which keeps them circling a target
+     * instead of jittering on it. RANDOM ghosts patrol once they reach their post.
+     * Ties go to the tile with the least ghost influence so the pack spreads out.
+     * Returns null when no neighbour is walkable.
+     */
+    public Direction chooseDirection(Actor ghost, Random random, int tileSize) {
+        if (walkableGrid == null) return null;
+
+        GhostRole role = fieldReady[ghost.role.ordinal()] ? ghost.role : GhostRole.CHASE;
+        DistanceField field = fields[role.ordinal()];
+        int row = ghost.y / tileSize;
+        int col = ghost.x / tileSize;
+        boolean patrol = ghost.movementType == MovementType.RANDOM && field.distance(row, col) <= 1;
+
+        Direction reverse = opposite(ghost.direction);
+        Direction best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        float bestCrowding = Float.MAX_VALUE;
+        int ties = 0;
+        Direction fallback = null;
+
+        for (Direction dir : DIRECTIONS) {
+            int nextRow = row + dir.getDy(1);
+            int nextCol = col + dir.getDx(1);
+            if (!isWalkable(nextRow, nextCol)) continue;
+            if (dir == reverse) {
+                fallback = dir;
+                continue;
+            }
+
+            int distance = patrol ? 0 : field.distance(nextRow, nextCol);
+            float crowding = influence.ghostThreat(nextRow, nextCol);
+            if (distance < bestDistance || (distance == bestDistance && crowding < bestCrowding)) {
+                bestDistance = distance;
+                bestCrowding = crowding;
+                best = dir;
+                ties = 1;
+            } else if (distance == bestDistance && crowding == bestCrowding && random.nextInt(++ties) == 0) {
+                // Reservoir pick keeps ties random without building a list
+                best = dir;
+            }
+        }
+        return (best != null) ? best : fallback;
+    }
+
+    // -----------------------------------------------------------------
+    //  HELPERS
+    // -----------------------------------------------------------------
+
+    private void bind(boolean[][] grid) {
+        if (grid == walkableGrid) return;
+        walkableGrid = grid;
+        rows = grid.length;
+        cols = grid[0].length;
+        junction = new boolean[rows * cols];
+        sources = new int[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!grid[r][c]) continue;
+                int exits = (isWalkable(r - 1, c) ? 1 : 0) + (isWalkable(r + 1, c) ? 1 : 0)
+                        + (isWalkable(r, c - 1) ? 1 : 0) + (isWalkable(r, c + 1) ? 1 : 0);
+                junction[r * cols + c] = exits >= 3;
+            }
+        }
+    }
+
+    private boolean canSeePlayer(GameState state, Actor ghost, int tileSize) {
+        if (state.maze == null) return false;
+        int tile = tileOf(ghost, tileSize);
+        int row = tile / cols;
+        int col = tile % cols;
+        for (Player player : state.players) {
+            if (!player.isActive()) continue;
+            int target = tileOf(player.actor, tileSize);
+            if (state.maze.lineOfSight(row, col, target / cols, target % cols)) return true;
+        }
+        return false;
+    }
+
+    private int tileOf(Actor a, int tileSize) {
+        int row = Math.max(0, Math.min(rows - 1, (a.y + a.height / 2) / tileSize));
+        int col = Math.max(0, Math.min(cols - 1, (a.x + a.width / 2) / tileSize));
+        return row * cols + col;
+    }
+
+    private boolean isWalkable(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols && walkableGrid[row][col];
+    }
+
+    private static Direction opposite(Direction dir) {
+        switch (dir) {
+            case UP: return Direction.DOWN;
+            case DOWN: return Direction.UP;
+            case LEFT: return Direction.RIGHT;
+            case RIGHT: return Direction.LEFT;
+            default: return Direction.NONE;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Intercept role handed to each ghost by GhostPlanner every tick.
+ */
+public enum GhostRole {
+    CHASE,   // straight at the nearest player, once one is in sight
+    AMBUSH,  // a few tiles ahead of where a player is heading
+    FLANK,   // junctions around a player, approached from another side
+    CUTOFF   // escape junctions a player reaches before any ghost
+}
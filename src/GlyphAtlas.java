@@ -0,0 +1,167 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+
+/**
+ * One font at one size and colour pre-rasterized into a single image, so text is
+ * drawn as one blit per character instead of going through the font rasterizer
+ * on every paint. Covers printable ASCII; anything else falls back to drawing
+ * with the font itself. Glyphs are laid out with their advances and no kerning,
+ * which is what drawString does by default, so widths match FontMetrics.
+ *
+ * Get instances from FontManager, which keeps one per font, size and colour.
+ */
+public class GlyphAtlas {
+    private static final char FIRST = 32;
+    private static final char LAST = 126;
+    private static final int ATLAS_WIDTH = 512;
+    private static final int PADDING = 1; // antialiased edges reach a pixel past the glyph bounds
+
+    private final Font font;
+    private final Color color;
+    private final BufferedImage image;
+    private final FontMetrics metrics; // for characters outside the atlas
+    private final int ascent;
+    private final int descent;
+    private final int height;
+
+    // Per character, indexed by c - FIRST: source rect in the image, offset from the pen, advance
+    private final int[] srcX = new int[LAST - FIRST + 1];
+    private final int[] srcY = new int[LAST - FIRST + 1];
+    private final int[] glyphW = new int[LAST - FIRST + 1];
+    private final int[] glyphH = new int[LAST - FIRST + 1];
+    private final int[] offX = new int[LAST - FIRST + 1];
+    private final int[] offY = new int[LAST - FIRST + 1];
+    private final int[] advance = new int[LAST - FIRST + 1];
+
+    public GlyphAtlas(Font font, Color color) {
+        this.font = font;
+        this.color = color;
+
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D pg = probe.createGraphics();
+        setHints(pg);
+        FontMetrics fm = pg.getFontMetrics(font);
+        metrics = fm;
+        FontRenderContext frc = pg.getFontRenderContext();
+        ascent = fm.getAscent();
+        descent = fm.getDescent();
+        height = fm.getHeight();
+
+        // Shelf-pack the glyph boxes left to right, then allocate the image once
+        int x = 0;
+        int y = 0;
+        int shelf = 0;
+        for (char c = FIRST; c <= LAST; c++) {
+            int i = c - FIRST;
+            advance[i] = fm.charWidth(c);
+            Rectangle bounds = font.createGlyphVector(frc, String.valueOf(c)).getPixelBounds(frc, 0, 0);
+            if (bounds.isEmpty()) continue; // space and friends: advance only
+            int w = bounds.width + 2 * PADDING;
+            int h = bounds.height + 2 * PADDING;
+            if (x + w > ATLAS_WIDTH) {
+                x = 0;
+                y += shelf;
+                shelf = 0;
+            }
+            srcX[i] = x;
+            srcY[i] = y;
+            glyphW[i] = w;
+            glyphH[i] = h;
+            offX[i] = bounds.x - PADDING;
+            offY[i] = bounds.y - PADDING;
+            x += w;
+            shelf = Math.max(shelf, h);
+        }
+        pg.dispose();
+
+        image = SpriteAtlas.createCompatibleImage(ATLAS_WIDTH, Math.max(1, y + shelf), Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        setHints(g);
+        g.setFont(font);
+        g.setColor(color);
+        char[] one = new char[1];
+        for (char c = FIRST; c <= LAST; c++) {
+            int i = c - FIRST;
+            if (glyphW[i] == 0) continue;
+            one[0] = c;
+            g.drawChars(one, 0, 1, srcX[i] - offX[i], srcY[i] - offY[i]);
+        }
+        g.dispose();
+    }
+
+    private static void setHints(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    }
+
+    public Font getFont() { return font; }
+    public Color getColor() { return color; }
+    public int getAscent() { return ascent; }
+    public int getDescent() { return descent; }
+    public int getHeight() { return height; }
+
+    public int charWidth(char c) {
+        if (c >= FIRST && c <= LAST) return advance[c - FIRST];
+        return metrics.charWidth(c);
+    }
+
+    public int stringWidth(String s) {
+        return stringWidth(s, 0, s.length());
+    }
+
+    public int stringWidth(CharSequence s, int start, int end) {
+        int w = 0;
+        for (int i = start; i < end; i++) w += charWidth(s.charAt(i));
+        return w;
+    }
+
+    public int charsWidth(char[] chars, int off, int len) {
+        int w = 0;
+        for (int i = off; i < off + len; i++) w += charWidth(chars[i]);
+        return w;
+    }
+
+    /**
+     * Draws s with its baseline at y, like Graphics.drawString. Returns the x after it.
+     */
+    public int drawString(Graphics g, CharSequence s, int x, int y) {
+        return drawString(g, s, 0, s.length(), x, y);
+    }
+
+    public int drawString(Graphics g, CharSequence s, int start, int end, int x, int y) {
+        for (int i = start; i < end; i++) x = drawChar(g, s.charAt(i), x, y);
+        return x;
+    }
+
+    public int drawChars(Graphics g, char[] chars, int off, int len, int x, int y) {
+        for (int i = off; i < off + len; i++) x = drawChar(g, chars[i], x, y);
+        return x;
+    }
+
+    private int drawChar(Graphics g, char c, int x, int y) {
+        if (c < FIRST || c > LAST) {
+            String s = String.valueOf(c);
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(s, x, y);
+            return x + metrics.stringWidth(s);
+        }
+        int i = c - FIRST;
+        int w = glyphW[i];
+        if (w > 0) {
+            int dx = x + offX[i];
+            int dy = y + offY[i];
+            int sx = srcX[i];
+            int sy = srcY[i];
+            g.drawImage(image, dx, dy, dx + w, dy + glyphH[i], sx, sy, sx + w, sy + glyphH[i], null);
+        }
+        return x + advance[i];
+    }
+}
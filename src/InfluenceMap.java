@@ -0,0 +1,220 @@
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Grid-shaped influence maps over the walkable tiles of the current level:
+ * ghost threat, projectile threat, pellet value and knife value.
+ *
+ * Layers are kept up to date incrementally instead of being rebuilt each tick:
+ * ghosts stamp a falloff kernel and only tiles whose ghost count changed are
+ * re-stamped, pellets and knives are un-stamped as they are picked up, and the
+ * projectile layer fades with one multiply pass before fresh stamps are added.
+ * Every query is a single array read. The tiles touched since the debug overlay
+ * last looked are kept as one rectangle, so it repaints just those.
+ */
+public class InfluenceMap {
+    private static final int GHOST_RADIUS = 4;
+    private static final int PROJECTILE_RADIUS = 1;
+    private static final int PELLET_RADIUS = 5;
+    private static final int KNIFE_RADIUS = 6;
+    private static final float KNIFE_STRENGTH = 4f;
+    private static final float PROJECTILE_DECAY = 0.6f;
+    private static final float EPSILON = 0.01f;
+
+    private boolean[][] walkableGrid;
+    private int rows;
+    private int cols;
+    private int tileSize;
+
+    private float[] ghostThreat = new float[0];
+    private float[] projectileThreat = new float[0];
+    private float[] pelletValue = new float[0];
+    private float[] knifeValue = new float[0];
+    private boolean projectilesLive = false;
+
+    // Ghost tiles stamped last tick vs. this tick, kept sorted so they can be diffed
+    private int[] stampedGhostTiles = new int[0];
+    private int stampedGhostCount = 0;
+    private int[] currentGhostTiles = new int[0];
+
+    // Tiles changed since the last clearDirty, inclusive; empty when dirtyRow0 > dirtyRow1
+    private int dirtyRow0 = Integer.MAX_VALUE;
+    private int dirtyCol0 = Integer.MAX_VALUE;
+    private int dirtyRow1 = -1;
+    private int dirtyCol1 = -1;
+
+    // -----------------------------------------------------------------
+    //  LEVEL SETUP
+    // -----------------------------------------------------------------
+
+    public void reset(boolean[][] walkableGrid, int tileSize, Collection<Entity> foods, Collection<Entity> knives) {
+        this.walkableGrid = walkableGrid;
+        this.rows = walkableGrid.length;
+        this.cols = walkableGrid[0].length;
+        this.tileSize = tileSize;
+
+        int size = rows * cols;
+        if (ghostThreat.length != size) {
+            ghostThreat = new float[size];
+            projectileThreat = new float[size];
+            pelletValue = new float[size];
+            knifeValue = new float[size];
+        } else {
+            Arrays.fill(ghostThreat, 0f);
+            Arrays.fill(projectileThreat, 0f);
+            Arrays.fill(pelletValue, 0f);
+            Arrays.fill(knifeValue, 0f);
+        }
+        projectilesLive = false;
+        stampedGhostCount = 0;
+
+        for (Entity food : foods) stamp(pelletValue, tileOf(food), PELLET_RADIUS, 1f);
+        for (Entity knife : knives) stamp(knifeValue, tileOf(knife), KNIFE_RADIUS, KNIFE_STRENGTH);
+        markDirty(0, 0, rows - 1, cols - 1);
+    }
+
+    // -----------------------------------------------------------------
+    //  INCREMENTAL UPDATES
+    // -----------------------------------------------------------------
+
+    public void removePellet(Entity food) {
+        if (walkableGrid == null) return;
+        stamp(pelletValue, tileOf(food), PELLET_RADIUS, -1f);
+    }
+
+    public void removeKnife(Entity knife) {
+        if (walkableGrid == null) return;
+        stamp(knifeValue, tileOf(knife), KNIFE_RADIUS, -KNIFE_STRENGTH);
+    }
+
+    /**
+     * Brings the moving-actor layers up to date after a tick of movement.
+     */
+    public void update(Collection<Actor> ghosts, Collection<Actor> projectiles) {
+        if (walkableGrid == null) return;
+        updateGhosts(ghosts);
+        updateProjectiles(projectiles);
+    }
+
+    private void updateGhosts(Collection<Actor> ghosts) {
+        int count = ghosts.size();
+        if (currentGhostTiles.length < count) {
+            currentGhostTiles = new int[count * 2];
+            stampedGhostTiles = Arrays.copyOf(stampedGhostTiles, count * 2);
+        }
+        int n = 0;
+        for (Actor ghost : ghosts) currentGhostTiles[n++] = tileOf(ghost);
+        Arrays.sort(currentGhostTiles, 0, n);
+
+        // Merge-diff the sorted tile lists: only tiles that lost or gained a ghost are touched
+        int i = 0;
+        int j = 0;
+        while (i < stampedGhostCount || j < n) {
+            if (j >= n || (i < stampedGhostCount && stampedGhostTiles[i] < currentGhostTiles[j])) {
+                stamp(ghostThreat, stampedGhostTiles[i++], GHOST_RADIUS, -1f);
+            } else if (i >= stampedGhostCount || currentGhostTiles[j] < stampedGhostTiles[i]) {
+                stamp(ghostThreat, currentGhostTiles[j++], GHOST_RADIUS, 1f);
+            } else {
+                i++;
+                j++;
+            }
+        }
+
+        int[] swap = stampedGhostTiles;
+        stampedGhostTiles = currentGhostTiles;
+        currentGhostTiles = swap;
+        stampedGhostCount = n;
+    }
+
+    private void updateProjectiles(Collection<Actor> projectiles) {
+        if (!projectilesLive && projectiles.isEmpty()) return;
+
+        // Decay pass over the whole layer, then stamp where projectiles are now
+        boolean live = false;
+        for (int t = 0; t < projectileThreat.length; t++) {
+            float old = projectileThreat[t];
+            if (old == 0f) continue;
+            float v = old * PROJECTILE_DECAY;
+            if (v < EPSILON) v = 0f;
+            else live = true;
+            projectileThreat[t] = v;
+            markDirty(t / cols, t % cols, t / cols, t % cols);
+        }
+        for (Actor proj : projectiles) {
+            stamp(projectileThreat, tileOf(proj), PROJECTILE_RADIUS, 1f);
+            live = true;
+        }
+        projectilesLive = live;
+    }
+
+    // Adds a diamond-shaped linear falloff kernel centred on the tile (walkable tiles only)
+    private void stamp(float[] layer, int tile, int radius, float strength) {
+        if (tile < 0) return;
+        int row = tile / cols;
+        int col = tile % cols;
+        float step = strength / (radius + 1);
+        int r0 = Math.max(0, row - radius);
+        int r1 = Math.min(rows - 1, row + radius);
+        markDirty(r0, Math.max(0, col - radius), r1, Math.min(cols - 1, col + radius));
+        for (int r = r0; r <= r1; r++) {
+            int span = radius - Math.abs(r - row);
+            int c0 = Math.max(0, col - span);
+            int c1 = Math.min(cols - 1, col + span);
+            boolean[] walkableRow = walkableGrid[r];
+            int base = r * cols;
+            for (int c = c0; c <= c1; c++) {
+                if (!walkableRow[c]) continue;
+                int d = Math.abs(r - row) + Math.abs(c - col);
+                layer[base + c] += strength - step * d;
+            }
+        }
+    }
+
+    private void markDirty(int row0, int col0, int row1, int col1) {
+        dirtyRow0 = Math.min(dirtyRow0, row0);
+        dirtyCol0 = Math.min(dirtyCol0, col0);
+        dirtyRow1 = Math.max(dirtyRow1, row1);
+        dirtyCol1 = Math.max(dirtyCol1, col1);
+    }
+
+    private int tileOf(Entity e) {
+        int row = (e.y + e.height / 2) / tileSize;
+        int col = (e.x + e.width / 2) / tileSize;
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return -1;
+        return row * cols + col;
+    }
+
+    // -----------------------------------------------------------------
+    //  QUERIES (O(1))
+    // -----------------------------------------------------------------
+
+    public float ghostThreat(int row, int col)      { return read(ghostThreat, row, col); }
+    public float projectileThreat(int row, int col) { return read(projectileThreat, row, col); }
+    public float pelletValue(int row, int col)      { return read(pelletValue, row, col); }
+    public float knifeValue(int row, int col)       { return read(knifeValue, row, col); }
+
+    public float danger(int row, int col) {
+        return ghostThreat(row, col) + projectileThreat(row, col);
+    }
+
+    private float read(float[] layer, int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return 0f;
+        return layer[row * cols + col];
+    }
+
+    public int getRows() { return rows; }
+    public int getColumns() { return cols; }
+
+    // Tiles changed since the last clearDirty, as an inclusive rectangle (empty when row0 > row1)
+    public int getDirtyRow0() { return dirtyRow0; }
+    public int getDirtyCol0() { return dirtyCol0; }
+    public int getDirtyRow1() { return dirtyRow1; }
+    public int getDirtyCol1() { return dirtyCol1; }
+
+    public void clearDirty() {
+        dirtyRow0 = Integer.MAX_VALUE;
+        dirtyCol0 = Integer.MAX_VALUE;
+        dirtyRow1 = -1;
+        dirtyCol1 = -1;
+    }
+}
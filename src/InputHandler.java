@@ -6,17 +6,22 @@ public class InputHandler implements KeyListener {
 
     private final HashSet<Integer> pressedKeys = new HashSet<>();
     private boolean pHeld = false;
+    private final HashSet<Integer> heldToggleKeys = new HashSet<>();
 
     public Direction getDirection() {
-        if (pressedKeys.contains(KeyEvent.VK_W) || pressedKeys.contains(KeyEvent.VK_UP)) return Direction.UP;
-        if (pressedKeys.contains(KeyEvent.VK_S) || pressedKeys.contains(KeyEvent.VK_DOWN)) return Direction.DOWN;
-        if (pressedKeys.contains(KeyEvent.VK_A) || pressedKeys.contains(KeyEvent.VK_LEFT)) return Direction.LEFT;
-        if (pressedKeys.contains(KeyEvent.VK_D) || pressedKeys.contains(KeyEvent.VK_RIGHT)) return Direction.RIGHT;
-        return Direction.NONE;
+        return getDirection(PlayerControls.SOLO);
+    }
+
+    public Direction getDirection(PlayerControls controls) {
+        return controls.directionFor(pressedKeys);
     }
 
     public boolean isSprintPressed() {
-        return pressedKeys.contains(KeyEvent.VK_SPACE);
+        return isSprintPressed(PlayerControls.SOLO);
+    }
+
+    public boolean isSprintPressed(PlayerControls controls) {
+        return controls.isSprintPressed(pressedKeys);
     }
     public void clear() { pressedKeys.clear(); }
     public boolean anyKeyPressed() { return !pressedKeys.isEmpty(); }
@@ -42,9 +47,28 @@ public class InputHandler implements KeyListener {
             return;
         }
 
+        // Option toggles on function keys fire once per press
+        if (isToggleKey(kc)) {
+            if (heldToggleKeys.add(kc)) applyToggle(kc);
+            return;
+        }
+
         // existing behavior for movement / sprint etc.
         pressedKeys.add(kc);
     }
+
+    private boolean isToggleKey(int kc) {
+        return kc == KeyEvent.VK_F1 || kc == KeyEvent.VK_F2 || kc == KeyEvent.VK_F3 || kc == KeyEvent.VK_F4;
+    }
+
+    private void applyToggle(int kc) {
+        switch (kc) {
+            case KeyEvent.VK_F1: ModeManager.toggleInfluenceOverlay(); break;
+            case KeyEvent.VK_F2: ModeManager.toggleAutopilot(); break;
+            case KeyEvent.VK_F3: ModeManager.toggleFogOfWar(); break;
+            case KeyEvent.VK_F4: ModeManager.toggleMinimap(); break;
+        }
+    }
     @Override
     public void keyReleased(KeyEvent e) {
         int kc = e.getKeyCode();
@@ -52,6 +76,7 @@ public class InputHandler implements KeyListener {
             pHeld = false;
             return;
         }
+        if (heldToggleKeys.remove(kc)) return;
         pressedKeys.remove(kc);
     }
 }
@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary level pack, read through a memory-mapped file so only the pages of the
+ * level actually being played are touched.
+ *
+ * Layout (big-endian):
+ *   int magic ('PMLP'), int version, int levelCount
+ *   index: levelCount x { int rows, int cols, long offset }
+ *   data:  rows * cols tile bytes per level, row-major, using the map alphabet (X, P, bopr, B, ...)
+ *
+ * Run main to (re)build the pack from text level files, or from the built-in maps.
+ */
+public class LevelPack {
+    public static final String DEFAULT_PATH = "res/levels.pack";
+
+    private static final int MAGIC = 0x504D4C50; // "PMLP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int INDEX_ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int levelCount;
+
+    private LevelPack(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported level pack version " + buffer.getInt(4));
+        }
+        this.levelCount = buffer.getInt(8);
+        if (levelCount <= 0 || HEADER_BYTES + (long) levelCount * INDEX_ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException("Corrupt level pack index");
+        }
+        for (int i = 0; i < levelCount; i++) {
+            long end = offset(i) + (long) rows(i) * columns(i);
+            if (rows(i) <= 0 || columns(i) <= 0 || offset(i) < 0 || end > buffer.capacity()) {
+                throw new IOException("Corrupt level pack entry " + (i + 1));
+            }
+        }
+    }
+
+    // Factory method
+    public static LevelPack open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // -----------------------------------------------------------------
+    //  INDEX (no tile data is touched)
+    // -----------------------------------------------------------------
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    /** Rows of level (1-based). */
+    public int getRowCount(int level) {
+        return rows(level - 1);
+    }
+
+    /** Columns of level (1-based). */
+    public int getColumnCount(int level) {
+        return columns(level - 1);
+    }
+
+    private int rows(int i)    { return buffer.getInt(HEADER_BYTES + i * INDEX_ENTRY_BYTES); }
+    private int columns(int i) { return buffer.getInt(HEADER_BYTES + i * INDEX_ENTRY_BYTES + 4); }
+    private long offset(int i) { return buffer.getLong(HEADER_BYTES + i * INDEX_ENTRY_BYTES + 8); }
+
+    // -----------------------------------------------------------------
+    //  DECODING
+    // -----------------------------------------------------------------
+
+    /**
+     * Decodes one level (1-based) straight into a tile grid, with no per-row strings.
+     */
+    public TileGrid decodeTiles(int level) {
+        int i = level - 1;
+        byte[] tiles = new byte[rows(i) * columns(i)];
+        ByteBuffer data = buffer.duplicate();
+        data.position(dataStart(i, tiles.length));
+        data.get(tiles);
+        return TileGrid.fromSymbols(rows(i), columns(i), tiles);
+    }
+
+    // Offset of a level's tiles as a buffer position, checked against the mapping before narrowing
+    private int dataStart(int i, int length) {
+        long offset = offset(i);
+        if (offset < 0 || offset > buffer.capacity() - (long) length) {
+            throw new IllegalStateException("Level " + (i + 1) + " lies outside the level pack");
+        }
+        return (int) offset;
+    }
+
+    // -----------------------------------------------------------------
+    //  WRITING
+    // -----------------------------------------------------------------
+
+    public static void write(String filePath, List<String[]> levels) throws IOException {
+        long dataStart = HEADER_BYTES + (long) levels.size() * INDEX_ENTRY_BYTES;
+        long total = dataStart;
+        for (String[] map : levels) total += (long) map.length * map[0].length();
+
+        ByteBuffer out = ByteBuffer.allocate((int) total);
+        out.putInt(MAGIC).putInt(VERSION).putInt(levels.size());
+        long offset = dataStart;
+        for (String[] map : levels) {
+            out.putInt(map.length).putInt(map[0].length()).putLong(offset);
+            offset += (long) map.length * map[0].length();
+        }
+        for (String[] map : levels) {
+            for (String row : map) {
+                if (row.length() != map[0].length()) {
+                    throw new IOException("Level rows must all have the same length");
+                }
+                out.put(row.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) channel.write(out);
+        }
+    }
+
+    /**
+     * Usage: LevelPack [output.pack] [level1.txt level2.txt ...]
+     * Text levels have one map row per line. With no level files the built-in maps are packed.
+     */
+    public static void main(String[] args) throws IOException {
+        String outPath = (args.length > 0) ? args[0] : DEFAULT_PATH;
+        List<String[]> levels = new ArrayList<>();
+        if (args.length > 1) {
+            for (int i = 1; i < args.length; i++) {
+                List<String> lines = Files.readAllLines(Path.of(args[i]), StandardCharsets.US_ASCII);
+                lines.removeIf(String::isEmpty);
+                levels.add(lines.toArray(new String[0]));
+            }
+        } else {
+            levels.addAll(GameMap.builtInLevels());
+        }
+        write(outPath, levels);
+        System.out.println("Wrote " + levels.size() + " level(s) to " + outPath);
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * Bit-packed copy of a level: each row (and, transposed, each column) of the
+ * maze is stored as 64-tile words, 1 = walkable. Straight-line queries then
+ * become a few mask/shift operations per word instead of tile-by-tile loops.
+ *
+ * - lineOfSight: straight, unobstructed row or column between two tiles
+ * - corridorLength: open tiles from a tile until the next wall in a direction
+ * - reachable: bit-parallel flood fill, one row of 64 tiles per operation
+ * - pelletCount: pellets left on the pellet board, kept in sync as pellets are eaten
+ */
+public class MazeBitboard {
+    private final int rows;
+    private final int cols;
+    private final int rowWords; // words per row
+    private final int colWords; // words per column
+
+    private final long[] openByRow;
+    private final long[] openByCol;
+    private final long[] pellets;
+    private int pelletCount;
+
+    public MazeBitboard(boolean[][] walkableGrid) {
+        this.rows = walkableGrid.length;
+        this.cols = walkableGrid[0].length;
+        this.rowWords = (cols + 63) >>> 6;
+        this.colWords = (rows + 63) >>> 6;
+        this.openByRow = new long[rows * rowWords];
+        this.openByCol = new long[cols * colWords];
+        this.pellets = new long[rows * rowWords];
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!walkableGrid[r][c]) continue;
+                openByRow[r * rowWords + (c >>> 6)] |= 1L << c;
+                openByCol[c * colWords + (r >>> 6)] |= 1L << r;
+            }
+        }
+    }
+
+    private MazeBitboard(MazeBitboard other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.rowWords = other.rowWords;
+        this.colWords = other.colWords;
+        // The open boards never change after construction and can be shared
+        this.openByRow = other.openByRow;
+        this.openByCol = other.openByCol;
+        this.pellets = other.pellets.clone();
+        this.pelletCount = other.pelletCount;
+    }
+
+    /**
+     * Copy with its own pellet board, sharing the (immutable) walkable tiles.
+     */
+    public MazeBitboard copy() {
+        return new MazeBitboard(this);
+    }
+
+    // -----------------------------------------------------------------
+    //  TILES & PELLETS
+    // -----------------------------------------------------------------
+
+    public boolean isOpen(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return false;
+        return (openByRow[row * rowWords + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public void setPellet(int row, int col, boolean present) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return;
+        int word = row * rowWords + (col >>> 6);
+        long old = pellets[word];
+        if (present) pellets[word] |= 1L << col;
+        else pellets[word] &= ~(1L << col);
+        if (pellets[word] != old) pelletCount += present ? 1 : -1;
+    }
+
+    public boolean hasPellet(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return false;
+        return (pellets[row * rowWords + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    /**
+     * Pellets left on the board; counted as they are set and cleared, so asking is free.
+     */
+    public int pelletCount() {
+        return pelletCount;
+    }
+
+    // -----------------------------------------------------------------
+    //  LINE OF SIGHT & CORRIDORS
+    // -----------------------------------------------------------------
+
+    /**
+     * True when both tiles share a row or column and every tile between them is open.
+     * Maze corridors are axis-aligned, so that is what "seeing" someone means here.
+     */
+    public boolean lineOfSight(int row0, int col0, int row1, int col1) {
+        if (row0 == row1) {
+            return row0 >= 0 && row0 < rows && allOpen(openByRow, row0 * rowWords, Math.min(col0, col1), Math.max(col0, col1));
+        }
+        if (col0 == col1) {
+            return col0 >= 0 && col0 < cols && allOpen(openByCol, col0 * colWords, Math.min(row0, row1), Math.max(row0, row1));
+        }
+        return false;
+    }
+
+    // Checks that bits [from, to] are all set in the line starting at base
+    private boolean allOpen(long[] board, int base, int from, int to) {
+        int limit = (board == openByRow) ? cols : rows;
+        if (from < 0 || to >= limit) return false;
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        for (int w = firstWord; w <= lastWord; w++) {
+            long mask = -1L;
+            if (w == firstWord) mask &= -1L << from;
+            if (w == lastWord) mask &= -1L >>> (63 - (to & 63));
+            if ((board[base + w] & mask) != mask) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Number of open tiles from (row, col), exclusive, up to the next wall in that direction.
+     */
+    public int corridorLength(int row, int col, Direction dir) {
+        switch (dir) {
+            case RIGHT: return runForward(openByRow, row * rowWords, col, cols);
+            case LEFT:  return runBackward(openByRow, row * rowWords, col);
+            case DOWN:  return runForward(openByCol, col * colWords, row, rows);
+            case UP:    return runBackward(openByCol, col * colWords, row);
+            default:    return 0;
+        }
+    }
+
+    private int runForward(long[] board, int base, int pos, int limit) {
+        int start = pos + 1;
+        int p = start;
+        while (p < limit) {
+            // invert so walls are 1s, then the first set bit at or above p is the wall
+            long blocked = ~board[base + (p >>> 6)] & (-1L << p);
+            if (blocked != 0) {
+                int wall = (p & ~63) + Long.numberOfTrailingZeros(blocked);
+                return Math.min(wall, limit) - start;
+            }
+            p = (p & ~63) + 64;
+        }
+        return limit - start;
+    }
+
+    private int runBackward(long[] board, int base, int pos) {
+        int p = pos - 1;
+        while (p >= 0) {
+            long blocked = ~board[base + (p >>> 6)] & (-1L >>> (63 - (p & 63)));
+            if (blocked != 0) {
+                int wall = (p & ~63) + 63 - Long.numberOfLeadingZeros(blocked);
+                return pos - 1 - wall;
+            }
+            p = (p & ~63) - 1;
+        }
+        return pos;
+    }
+
+    // -----------------------------------------------------------------
+    //  REACHABILITY
+    // -----------------------------------------------------------------
+
+    /**
+     * Every tile reachable from (row, col) as a row-major bitboard. Each pass grows
+     * the whole region by one step in all four directions, 64 tiles per operation.
+     */
+    public long[] reachable(int row, int col) {
+        long[] region = new long[rows * rowWords];
+        if (!isOpen(row, col)) return region;
+        region[row * rowWords + (col >>> 6)] = 1L << col;
+
+        boolean grew = true;
+        while (grew) {
+            grew = false;
+            for (int r = 0; r < rows; r++) {
+                int base = r * rowWords;
+                for (int w = 0; w < rowWords; w++) {
+                    long cur = region[base + w];
+                    long next = cur | (cur << 1) | (cur >>> 1);
+                    if (w > 0) next |= region[base + w - 1] >>> 63;
+                    if (w < rowWords - 1) next |= region[base + w + 1] << 63;
+                    if (r > 0) next |= region[base - rowWords + w];
+                    if (r < rows - 1) next |= region[base + rowWords + w];
+                    next &= openByRow[base + w];
+                    if (next != cur) {
+                        region[base + w] = next;
+                        grew = true;
+                    }
+                }
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Whether (row, col) is set in a row-major bitboard of this maze's size, such as reachable's.
+     */
+    public boolean contains(long[] board, int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return false;
+        return (board[row * rowWords + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public static int count(long[] board) {
+        int count = 0;
+        for (long word : board) count += Long.bitCount(word);
+        return count;
+    }
+
+    public int openCount() {
+        return count(openByRow);
+    }
+
+    public int getRows() { return rows; }
+    public int getColumns() { return cols; }
+}
@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded procedural maze generator producing maps in GameMap's tile alphabet
+ * (X wall, ' ' corridor with food, P player start, bopr ghosts, B boss).
+ *
+ * The maze is laid out on cells at odd tile coordinates with walls in between.
+ * Cells are split into square regions; every region gets its own perfect maze
+ * (randomized depth-first search) in parallel, seeded from the level seed and
+ * the region index so the result does not depend on thread scheduling. A random
+ * spanning tree over the regions then opens one door per tree edge, which keeps
+ * the whole maze connected. Finally a fraction of the remaining inner walls
+ * (the loop density) is knocked out so there is more than one way around.
+ */
+public class MazeGenerator {
+    private static final int REGION_CELLS = 64;
+    private static final byte WALL = 'X';
+    private static final byte OPEN = ' ';
+    private static final char[] GHOSTS = {'b', 'o', 'p', 'r'};
+
+    private final long seed;
+    private final double loopDensity;
+    private int ghostCount = 4;
+    private boolean boss = false;
+    private boolean playerStart = true;
+
+    /**
+     * @param loopDensity 0 for a perfect maze (exactly one path between any two tiles),
+     *                    up to 1 to remove every removable inner wall
+     */
+    public MazeGenerator(long seed, double loopDensity) {
+        this.seed = seed;
+        this.loopDensity = Math.max(0, Math.min(1, loopDensity));
+    }
+
+    public MazeGenerator setGhostCount(int ghostCount) {
+        this.ghostCount = Math.max(0, ghostCount);
+        return this;
+    }
+
+    public MazeGenerator setBoss(boolean boss) {
+        this.boss = boss;
+        return this;
+    }
+
+    public MazeGenerator setPlayerStart(boolean playerStart) {
+        this.playerStart = playerStart;
+        return this;
+    }
+
+    // -----------------------------------------------------------------
+    //  GENERATION
+    // -----------------------------------------------------------------
+
+    /**
+     * Generates a rows x cols map (at least 5 x 5). Even sizes keep an extra wall row/column.
+     */
+    public String[] generate(int rows, int cols) {
+        byte[] tiles = generateTiles(rows, cols);
+        String[] map = new String[rows];
+        for (int r = 0; r < rows; r++) {
+            map[r] = new String(tiles, r * cols, cols, StandardCharsets.US_ASCII);
+        }
+        return map;
+    }
+
+    /**
+     * Same as generate, as one row-major byte per tile.
+     */
+    public byte[] generateTiles(int rows, int cols) {
+        if (rows < 5 || cols < 5) throw new IllegalArgumentException("Maze must be at least 5x5 tiles");
+
+        int cellRows = (rows - 1) / 2;
+        int cellCols = (cols - 1) / 2;
+        int regionRows = (cellRows + REGION_CELLS - 1) / REGION_CELLS;
+        int regionCols = (cellCols + REGION_CELLS - 1) / REGION_CELLS;
+
+        byte[] tiles = new byte[rows * cols];
+        Arrays.fill(tiles, WALL);
+
+        // 1. Perfect maze inside every region. Regions only write their own cells and
+        //    the walls between them, so they can be carved in parallel.
+        IntStream.range(0, regionRows * regionCols).parallel().forEach(region -> {
+            int cr0 = (region / regionCols) * REGION_CELLS;
+            int cc0 = (region % regionCols) * REGION_CELLS;
+            int cr1 = Math.min(cellRows, cr0 + REGION_CELLS);
+            int cc1 = Math.min(cellCols, cc0 + REGION_CELLS);
+            SplittableRandom random = new SplittableRandom(mix(seed, region));
+            carveRegion(tiles, cols, cr0, cc0, cr1, cc1, random);
+            if (loopDensity > 0) addLoops(tiles, cols, cr0, cc0, cr1, cc1, random);
+        });
+
+        // 2. Doors between regions along a random spanning tree
+        connectRegions(tiles, cols, cellRows, cellCols, regionRows, regionCols);
+
+        // 3. Spawns
+        placeSpawns(tiles, cols, cellRows, cellCols);
+        return tiles;
+    }
+
+    // Iterative randomized depth-first search over the cells of one region
+    private static void carveRegion(byte[] tiles, int cols, int cr0, int cc0, int cr1, int cc1, SplittableRandom random) {
+        int h = cr1 - cr0;
+        int w = cc1 - cc0;
+        boolean[] visited = new boolean[h * w];
+        int[] stack = new int[h * w];
+        int[] options = new int[4];
+        int top = 0;
+
+        int start = random.nextInt(h * w);
+        visited[start] = true;
+        stack[top++] = start;
+        openCell(tiles, cols, cr0 + start / w, cc0 + start % w);
+
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int r = cell / w;
+            int c = cell % w;
+
+            int n = 0;
+            if (r > 0 && !visited[cell - w]) options[n++] = cell - w;
+            if (r < h - 1 && !visited[cell + w]) options[n++] = cell + w;
+            if (c > 0 && !visited[cell - 1]) options[n++] = cell - 1;
+            if (c < w - 1 && !visited[cell + 1]) options[n++] = cell + 1;
+            if (n == 0) {
+                top--;
+                continue;
+            }
+
+            int next = options[random.nextInt(n)];
+            visited[next] = true;
+            stack[top++] = next;
+            int nr = next / w;
+            int nc = next % w;
+            openCell(tiles, cols, cr0 + nr, cc0 + nc);
+            openBetween(tiles, cols, cr0 + r, cc0 + c, cr0 + nr, cc0 + nc);
+        }
+    }
+
+    // Knocks out inner walls between cells of the region with probability loopDensity
+    private void addLoops(byte[] tiles, int cols, int cr0, int cc0, int cr1, int cc1, SplittableRandom random) {
+        for (int cr = cr0; cr < cr1; cr++) {
+            for (int cc = cc0; cc < cc1; cc++) {
+                if (cc + 1 < cc1 && random.nextDouble() < loopDensity) openBetween(tiles, cols, cr, cc, cr, cc + 1);
+                if (cr + 1 < cr1 && random.nextDouble() < loopDensity) openBetween(tiles, cols, cr, cc, cr + 1, cc);
+            }
+        }
+    }
+
+    // Random Kruskal over the region grid; every tree edge becomes a door on the shared border
+    private void connectRegions(byte[] tiles, int cols, int cellRows, int cellCols, int regionRows, int regionCols) {
+        int regions = regionRows * regionCols;
+        if (regions == 1) return;
+
+        // Edge e: region index * 2 (+0 = right neighbour, +1 = lower neighbour)
+        int[] edges = new int[regions * 2];
+        int edgeCount = 0;
+        for (int region = 0; region < regions; region++) {
+            if (region % regionCols < regionCols - 1) edges[edgeCount++] = region * 2;
+            if (region / regionCols < regionRows - 1) edges[edgeCount++] = region * 2 + 1;
+        }
+        SplittableRandom random = new SplittableRandom(mix(seed, -1));
+        for (int i = edgeCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = edges[i];
+            edges[i] = edges[j];
+            edges[j] = tmp;
+        }
+
+        int[] parent = new int[regions];
+        for (int i = 0; i < regions; i++) parent[i] = i;
+
+        for (int i = 0; i < edgeCount; i++) {
+            int region = edges[i] >> 1;
+            boolean down = (edges[i] & 1) != 0;
+            int neighbour = down ? region + regionCols : region + 1;
+            int a = find(parent, region);
+            int b = find(parent, neighbour);
+            boolean tree = a != b;
+            // Extra doors on non-tree borders add loops between regions too
+            if (!tree && random.nextDouble() >= loopDensity) continue;
+            if (tree) parent[a] = b;
+
+            int cr0 = (region / regionCols) * REGION_CELLS;
+            int cc0 = (region % regionCols) * REGION_CELLS;
+            if (down) {
+                int cr = cr0 + REGION_CELLS - 1;
+                int cc = cc0 + random.nextInt(Math.min(cellCols, cc0 + REGION_CELLS) - cc0);
+                openBetween(tiles, cols, cr, cc, cr + 1, cc);
+            } else {
+                int cc = cc0 + REGION_CELLS - 1;
+                int cr = cr0 + random.nextInt(Math.min(cellRows, cr0 + REGION_CELLS) - cr0);
+                openBetween(tiles, cols, cr, cc, cr, cc + 1);
+            }
+        }
+    }
+
+    // Player near the centre, ghosts in the far corners, boss (optional) next to the player's row
+    private void placeSpawns(byte[] tiles, int cols, int cellRows, int cellCols) {
+        int midR = cellRows / 2;
+        int midC = cellCols / 2;
+        if (playerStart) setCell(tiles, cols, midR, midC, (byte) 'P');
+
+        int[][] corners = {{0, 0}, {0, cellCols - 1}, {cellRows - 1, 0}, {cellRows - 1, cellCols - 1}};
+        for (int i = 0; i < ghostCount; i++) {
+            int[] corner = corners[i % corners.length];
+            // Further ghosts step inwards along the diagonal so they never share a tile
+            int step = i / corners.length;
+            int r = clamp(corner[0] + (corner[0] == 0 ? step : -step), cellRows);
+            int c = clamp(corner[1] + (corner[1] == 0 ? step : -step), cellCols);
+            if (r == midR && c == midC) continue;
+            setCell(tiles, cols, r, c, (byte) GHOSTS[i % GHOSTS.length]);
+        }
+
+        if (boss) {
+            int c = (midC + cellCols) / 2;
+            if (c != midC) setCell(tiles, cols, midR, c, (byte) 'B');
+        }
+    }
+
+    // -----------------------------------------------------------------
+    //  HELPERS
+    // -----------------------------------------------------------------
+
+    private static void openCell(byte[] tiles, int cols, int cr, int cc) {
+        tiles[(cr * 2 + 1) * cols + cc * 2 + 1] = OPEN;
+    }
+
+    private static void setCell(byte[] tiles, int cols, int cr, int cc, byte tile) {
+        tiles[(cr * 2 + 1) * cols + cc * 2 + 1] = tile;
+    }
+
+    private static void openBetween(byte[] tiles, int cols, int cr0, int cc0, int cr1, int cc1) {
+        tiles[(cr0 + cr1 + 1) * cols + cc0 + cc1 + 1] = OPEN;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static int clamp(int v, int size) {
+        return Math.max(0, Math.min(size - 1, v));
+    }
+
+    // SplitMix64-style mixing so neighbouring region indices get unrelated streams
+    static long mix(long seed, long salt) {
+        long z = seed + 0x9E3779B97F4A7C15L * (salt + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Usage: MazeGenerator rows cols [seed] [loopDensity] [output.pack]
+     * Writes a single-level pack, e.g. for benchmarking with -Dpacman.levels=output.pack.
+     */
+    public static void main(String[] args) throws IOException {
+        int rows = Integer.parseInt(args[0]);
+        int cols = Integer.parseInt(args[1]);
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : 1L;
+        double loops = (args.length > 3) ? Double.parseDouble(args[3]) : 0.1;
+        String outPath = (args.length > 4) ? args[4] : "maze.pack";
+
+        long start = System.nanoTime();
+        String[] map = new MazeGenerator(seed, loops).generate(rows, cols);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        List<String[]> levels = new ArrayList<>();
+        levels.add(map);
+        LevelPack.write(outPath, levels);
+        System.out.println("Generated " + rows + "x" + cols + " maze in " + elapsed + " ms, wrote " + outPath);
+    }
+}
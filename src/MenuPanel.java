@@ -4,8 +4,6 @@ import javax.swing.event.ChangeListener;
 import javax.swing.plaf.basic.BasicSliderUI;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.IOException;
-import java.io.InputStream;
 import java.io.Serial;
 
 /**
@@ -30,7 +28,17 @@ public class MenuPanel extends JPanel implements ActionListener {
     private final Timer blinkTimer = new Timer(500, this); // blink every 0.5 sec
     private final Runnable startGameCallback;
 
-    Font customFont;
+    private static final Color TITLE_COLOR = new Color(165, 62, 26);
+    private static final Color HINT_COLOR = new Color(255, 244, 240);
+    private static final String TITLE = "MAN-HUNT";
+    private static final String PRESS_START = "PRESS ENTER TO START";
+    private static final String ESC_HINT = "Press ESC to Exit";
+    private static final String PAUSE_HINT = "Press P to Pause";
+
+    // Text drawn every paint comes from glyph atlases; Swing components get plain derived fonts
+    private final GlyphAtlas titleText = menuAtlas(Font.BOLD, 72, TITLE_COLOR);
+    private final GlyphAtlas pressStartText = menuAtlas(Font.BOLD, 32, Color.WHITE);
+    private final GlyphAtlas hintText = menuAtlas(Font.PLAIN, 20, HINT_COLOR);
     private Image backgroundImage;
 
 
@@ -58,18 +66,6 @@ public class MenuPanel extends JPanel implements ActionListener {
             backgroundImage = new ImageIcon(bgUrl).getImage();
         }
 
-        try (InputStream is = getClass().getResourceAsStream("/font_B.ttf")) {
-            if (is != null) {
-                customFont = Font.createFont(Font.TRUETYPE_FONT, is);
-            } else {
-                // fallback to default
-                customFont = new Font("SansSerif", Font.PLAIN, 12);
-            }
-        } catch (FontFormatException | IOException e) {
-            e.printStackTrace();
-            customFont = new Font("SansSerif", Font.PLAIN, 12);
-        }
-
         blinkTimer.start();
 
         // ---------- top-centered volume slider (only in MenuPanel) ----------
@@ -125,7 +121,7 @@ public class MenuPanel extends JPanel implements ActionListener {
         // percentage label (0% .. 100%) shown to the right of the volume icon
         percentLabel = new JLabel(initial + "%");
         percentLabel.setForeground(new Color(165, 62, 26)); // yellow to match track
-        percentLabel.setFont(customFont.deriveFont(Font.BOLD, 14f));
+        percentLabel.setFont(FontManager.getInstance().getFont(FontManager.MENU_FONT, Font.BOLD, 14f));
         percentLabel.setBorder(BorderFactory.createEmptyBorder(0, 6, 0, 0));
 
         // set listener to change background music volume only and update percent text
@@ -155,9 +151,9 @@ public class MenuPanel extends JPanel implements ActionListener {
             @Override
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_ENTER) {
-                    // Show a small dialog to pick Play or Demo (keyboard friendly).
+                    // Show a small dialog to pick Play, Demo or Endless (keyboard friendly).
                     // Set ModeManager accordingly, then call startGameCallback.run()
-                    String[] options = {"Play", "Demo", "Cancel"};
+                    String[] options = {"Play", "Demo", "Endless", "Cancel"};
                     int res = JOptionPane.showOptionDialog(
                             SwingUtilities.getWindowAncestor(MenuPanel.this),
                             "Choose mode to start:",
@@ -173,6 +169,8 @@ public class MenuPanel extends JPanel implements ActionListener {
                         startGame(GameMode.PLAY);
                     } else if (res == 1) {
                         startGame(GameMode.DEMO);
+                    } else if (res == 2) {
+                        startGame(GameMode.ENDLESS);
                     } else {
                         // Cancel: resume blinking
                     }
@@ -193,8 +191,22 @@ public class MenuPanel extends JPanel implements ActionListener {
         JButton demoBtn = createMenuButton("Demo", accentRed);
         demoBtn.addActionListener(e -> startGame(GameMode.DEMO));
 
+        JButton endlessBtn = createMenuButton("Endless", accentRed);
+        endlessBtn.addActionListener(e -> startGame(GameMode.ENDLESS));
+
+        // Local co-op: cycles 1..MAX_PLAYERS players sharing the keyboard
+        JButton playersBtn = createMenuButton(playerCountLabel(ModeManager.getPlayerCount()), accentRed);
+        playersBtn.addActionListener(e -> {
+            int next = ModeManager.getPlayerCount() % GameConstants.MAX_PLAYERS + 1;
+            ModeManager.setPlayerCount(next);
+            playersBtn.setText(playerCountLabel(next));
+            requestFocusInWindow();
+        });
+
         centerControls.add(playBtn);
         centerControls.add(demoBtn);
+        centerControls.add(endlessBtn);
+        centerControls.add(playersBtn);
 
         add(centerControls, BorderLayout.CENTER);
     }
@@ -204,7 +216,7 @@ public class MenuPanel extends JPanel implements ActionListener {
             private boolean hover;
 
             {
-                setFont(customFont.deriveFont(Font.BOLD, 19f));
+                setFont(FontManager.getInstance().getFont(FontManager.MENU_FONT, Font.BOLD, 19f));
                 setForeground(accent);
                 setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
                 setOpaque(false);
@@ -251,6 +263,14 @@ public class MenuPanel extends JPanel implements ActionListener {
         };
     }
 
+    private static GlyphAtlas menuAtlas(int style, float size, Color color) {
+        return FontManager.getInstance().getAtlas(FontManager.MENU_FONT, style, size, color);
+    }
+
+    private static String playerCountLabel(int count) {
+        return count == 1 ? "1 Player" : count + " Players";
+    }
+
     private void startGame(GameMode mode) {
         ModeManager.setSelectedMode(mode);
         blinkTimer.stop();
@@ -272,35 +292,23 @@ public class MenuPanel extends JPanel implements ActionListener {
         }
 
         // Title␊
-        g2.setColor(new Color(165, 62, 26));
-        g2.setFont(customFont.deriveFont(Font.BOLD, 72));
-        String title = "MAN-HUNT";
-        int titleWidth = g2.getFontMetrics().stringWidth(title);
         int deltaY = 30;
-        g2.drawString(title, (getWidth() - titleWidth) / 2, 285 + deltaY);
+        drawCentered(g2, titleText, TITLE, 285 + deltaY);
 
         // Blinking text
         if (showPressStart) {
-            g2.setColor(Color.WHITE);
-            g2.setFont(customFont.deriveFont(Font.BOLD, 32));
-            String msg = "PRESS ENTER TO START";
-            int msgWidth = g2.getFontMetrics().stringWidth(msg);
-            g2.drawString(msg, (getWidth() - msgWidth) / 2, 350 + deltaY);
+            drawCentered(g2, pressStartText, PRESS_START, 350 + deltaY);
         }
 
         // Instructions
-        g2.setFont(customFont.deriveFont(Font.PLAIN, 20));
-        g2.setColor(new Color(255, 244, 240));
-        String escMsg = "Press ESC to Exit";
-        int escWidth = g2.getFontMetrics().stringWidth(escMsg);
-        g2.drawString(escMsg, (getWidth() - escWidth) / 2, 400 + deltaY);
+        drawCentered(g2, hintText, ESC_HINT, 400 + deltaY);
 
         // Pause hint␊
-        g2.setFont(customFont.deriveFont(Font.PLAIN, 20));
-        g2.setColor(new Color(255, 244, 240));
-        String pauseMsg = "Press P to Pause";
-        int pauseWidth = g2.getFontMetrics().stringWidth(pauseMsg);
-        g2.drawString(pauseMsg, (getWidth() - pauseWidth) / 2, 430 + deltaY);
+        drawCentered(g2, hintText, PAUSE_HINT, 430 + deltaY);
+    }
+
+    private void drawCentered(Graphics g, GlyphAtlas atlas, String text, int baseline) {
+        atlas.drawString(g, text, (getWidth() - atlas.stringWidth(text)) / 2, baseline);
     }
 
     @Override
@@ -0,0 +1,154 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Overview of the level in a corner of the view: walls and remaining pellets one
+ * pixel per tile (scaled up for small levels), with markers for the players,
+ * ghosts and boss. The tile image is built once per map and afterwards only has
+ * single pixels cleared as pellets are eaten; maps bigger than the box show the
+ * part around the camera at one pixel per tile. So a frame costs one small blit
+ * and a few markers whatever the map size. The image is opaque so the blit is a
+ * plain copy.
+ */
+public class Minimap {
+    private static final int WALL = 0xFF8A2D2D;
+    private static final int PELLET = 0xFFE0B030;
+    private static final int FLOOR = 0xFF101010;
+    private static final Color BORDER = new Color(150, 150, 150);
+    private static final Color PLAYER_MARK = new Color(255, 230, 0);
+    private static final Color GHOST_MARK = new Color(80, 200, 255);
+    private static final Color BOSS_MARK = new Color(255, 60, 200);
+
+    private final int tileSize;
+    private final int maxSize; // box side in pixels
+
+    private BufferedImage base;
+    private int cols;
+    private int rows;
+    private int mapVersion = -1;
+    private final int[] floorPixel = { FLOOR };
+
+    public Minimap(int tileSize, int maxSize) {
+        this.tileSize = tileSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Brings the tile image up to date. Call every frame it is shown, before the
+     * renderer's pellet chunks consume state.removedPickups. Returns true if the
+     * image had to be rebuilt.
+     */
+    public boolean update(GameState state) {
+        if (state.tiles == null) return false;
+        if (state.mapVersion != mapVersion || base == null) {
+            rebuild(state);
+            return true;
+        }
+        for (int i = 0; i < state.removedPickups.size(); i++) {
+            Entity pickup = state.removedPickups.get(i);
+            int c = (pickup.x + pickup.width / 2) / tileSize;
+            int r = (pickup.y + pickup.height / 2) / tileSize;
+            // Straight into the raster: setRGB allocates a pixel array on every call
+            if (r >= 0 && r < rows && c >= 0 && c < cols) base.getRaster().setDataElements(c, r, floorPixel);
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the tile image, e.g. while hidden, so it is rebuilt when shown again.
+     */
+    public void invalidate() {
+        mapVersion = -1;
+    }
+
+    private void rebuild(GameState state) {
+        TileGrid tiles = state.tiles;
+        cols = tiles.getColumns();
+        rows = tiles.getRows();
+        int[] pixels = new int[cols * rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int color = FLOOR;
+                if (tiles.isWall(r, c)) {
+                    color = WALL;
+                } else if (state.maze != null && state.maze.hasPellet(r, c)) {
+                    color = PELLET;
+                }
+                pixels[r * cols + c] = color;
+            }
+        }
+        if (base == null || base.getWidth() != cols || base.getHeight() != rows) {
+            base = new BufferedImage(cols, rows, BufferedImage.TYPE_INT_RGB);
+        }
+        base.setRGB(0, 0, cols, rows, pixels, 0, cols);
+        mapVersion = state.mapVersion;
+    }
+
+    // Pixels per tile: small levels are blown up to fill the box, big ones stay at 1
+    private int scale() {
+        return Math.max(1, maxSize / Math.max(1, Math.max(cols, rows)));
+    }
+
+    public int getWidth() {
+        return (base == null) ? 0 : Math.min(maxSize, cols * scale());
+    }
+
+    public int getHeight() {
+        return (base == null) ? 0 : Math.min(maxSize, rows * scale());
+    }
+
+    /**
+     * Draws the box with its top-left at (x, y) in screen pixels.
+     */
+    public void draw(Graphics2D g, GameState state, Camera camera, int x, int y, boolean showEnemies) {
+        if (base == null) return;
+        int scale = scale();
+        int w = getWidth();
+        int h = getHeight();
+
+        // First tile shown; only moves when the map is bigger than the box
+        int col0 = clamp((camera.getX() + camera.getViewWidth() / 2) / tileSize - w / scale / 2, cols - w / scale);
+        int row0 = clamp((camera.getY() + camera.getViewHeight() / 2) / tileSize - h / scale / 2, rows - h / scale);
+        g.drawImage(base, x, y, x + w, y + h, col0, row0, col0 + w / scale, row0 + h / scale, null);
+
+        if (showEnemies) {
+            g.setColor(GHOST_MARK);
+            mark(g, state.ghosts, x, y, w, h, col0, row0, scale);
+            if (state.boss != null) {
+                g.setColor(BOSS_MARK);
+                mark(g, state.boss, x, y, w, h, col0, row0, scale);
+            }
+        }
+        g.setColor(PLAYER_MARK);
+        for (int i = 0; i < state.players.size(); i++) {
+            Player player = state.players.get(i);
+            if (player.isActive()) mark(g, player.actor, x, y, w, h, col0, row0, scale);
+        }
+
+        // Plain fills: a translucent or stroked outline costs more than the whole blit
+        g.setColor(BORDER);
+        g.fillRect(x - 1, y - 1, w + 2, 1);
+        g.fillRect(x - 1, y + h, w + 2, 1);
+        g.fillRect(x - 1, y, 1, h);
+        g.fillRect(x + w, y, 1, h);
+    }
+
+    private void mark(Graphics2D g, List<Actor> actors, int x, int y, int w, int h, int col0, int row0, int scale) {
+        for (int i = 0; i < actors.size(); i++) mark(g, actors.get(i), x, y, w, h, col0, row0, scale);
+    }
+
+    private void mark(Graphics2D g, Entity e, int x, int y, int w, int h, int col0, int row0, int scale) {
+        int px = ((e.x + e.width / 2) / tileSize - col0) * scale;
+        int py = ((e.y + e.height / 2) / tileSize - row0) * scale;
+        if (px < 0 || py < 0 || px >= w || py >= h) return;
+        int size = Math.max(3, scale);
+        int off = (size - scale) / 2;
+        g.fillRect(x + px - off, y + py - off, size, size);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}
@@ -1,9 +1,15 @@
 /**
- * Small helper to store the user's selected game mode.
- * Default is PLAY.
+ * Small helper to store the user's selected game mode, local player count and
+ * the in-game toggles. Default is PLAY with a single player, the minimap shown
+ * and the other toggles off.
  */
 public final class ModeManager {
     private static volatile GameMode selectedMode = GameMode.PLAY;
+    private static volatile int playerCount = 1;
+    private static volatile boolean influenceOverlay = false;
+    private static volatile boolean autopilot = false;
+    private static volatile boolean fogOfWar = false;
+    private static volatile boolean minimap = true;
 
     private ModeManager() {}
 
@@ -14,4 +20,48 @@ public final class ModeManager {
     public static void setSelectedMode(GameMode mode) {
         selectedMode = (mode == null) ? GameMode.PLAY : mode;
     }
-}
\ No newline at end of file
+
+    public static int getPlayerCount() {
+        return playerCount;
+    }
+
+    public static void setPlayerCount(int count) {
+        playerCount = Math.max(1, Math.min(GameConstants.MAX_PLAYERS, count));
+    }
+
+    // Debug overlay of the AI influence maps (F1)
+    public static boolean isInfluenceOverlayEnabled() {
+        return influenceOverlay;
+    }
+
+    public static void toggleInfluenceOverlay() {
+        influenceOverlay = !influenceOverlay;
+    }
+
+    // Influence-map autopilot driving player 1 (F2)
+    public static boolean isAutopilotEnabled() {
+        return autopilot;
+    }
+
+    public static void toggleAutopilot() {
+        autopilot = !autopilot;
+    }
+
+    // Darkness mode: only what the players can see is lit (F3)
+    public static boolean isFogOfWarEnabled() {
+        return fogOfWar;
+    }
+
+    public static void toggleFogOfWar() {
+        fogOfWar = !fogOfWar;
+    }
+
+    // Level overview in the corner of the view (F4)
+    public static boolean isMinimapEnabled() {
+        return minimap;
+    }
+
+    public static void toggleMinimap() {
+        minimap = !minimap;
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 
@@ -8,15 +7,31 @@ public class MovementManager {
     private final Direction[] directions = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
     private final Random random = new Random();
 
+    // Shared ghost targeting: roles and distance fields are planned once per tick
+    private final GhostPlanner ghostPlanner = new GhostPlanner();
+    private final AutoPilot autoPilot = new AutoPilot();
+    private final boolean[] moveStarted = new boolean[GameConstants.MAX_PLAYERS];
+
     public MovementManager() {}
 
-    public boolean updateActorPositions(GameState state, InputHandler input, GameMap map, SoundManager sound, int tileSize) {
-        boolean moveStarted = handlePlayerInput(state, input, sound, map, tileSize);
+    /**
+     * Moves every actor one tick. The returned array (reused between calls) flags,
+     * per player index, whether that player started a new tile move this tick.
+     */
+    public boolean[] updateActorPositions(GameState state, InputHandler input, SoundManager sound, int tileSize) {
+        beginTick(state);
+
+        for (Player player : state.players) {
+            moveStarted[player.index] = false;
+            if (!player.isActive()) continue;
 
-        updatePacmanPosition(state);
-        checkPacmanBounds(state, map, tileSize);
+            moveStarted[player.index] = handlePlayerInput(state, player, input, sound, tileSize);
+            updatePacmanPosition(player.actor);
+            checkPacmanBounds(player.actor, state.walkableGrid, tileSize);
+        }
 
-        moveAiActors(state, state.ghosts, state.walls, map, tileSize);
+        ghostPlanner.plan(state, tileSize);
+        moveAiActors(state, state.ghosts, tileSize);
 
         if (state.boss != null) {
             state.boss.direction = Direction.NONE;
@@ -29,55 +44,64 @@ public class MovementManager {
         return moveStarted;
     }
 
-    private boolean handlePlayerInput(GameState state, InputHandler input, SoundManager sound, GameMap map, int tileSize) {
-        if (state.pacman.isMoving) return false;
+    // Remember where everything started this tick so collisions can be swept
+    private void beginTick(GameState state) {
+        for (Player player : state.players) {
+            if (player.actor != null) player.actor.beginTick();
+        }
+        for (Actor ghost : state.ghosts) ghost.beginTick();
+        for (Actor proj : state.projectiles) proj.beginTick();
+        if (state.boss != null) state.boss.beginTick();
+    }
+
+    private boolean handlePlayerInput(GameState state, Player player, InputHandler input, SoundManager sound, int tileSize) {
+        if (player.actor.isMoving) return false;
 
-        Direction nextDir = input.getDirection();
+        // Player 1 can hand control to the influence-map autopilot (F2)
+        Direction nextDir = (player.index == 0 && ModeManager.isAutopilotEnabled())
+                ? autoPilot.chooseDirection(player, state, tileSize)
+                : input.getDirection(player.controls);
         if (nextDir != Direction.NONE) {
-            return attemptMove(state, nextDir, sound, map, tileSize);
+            return attemptMove(state, player.actor, nextDir, sound, tileSize);
         }
         return false;
     }
 
-    private boolean attemptMove(GameState state, Direction dir, SoundManager sound, GameMap map, int tileSize) {
+    private boolean attemptMove(GameState state, Actor pacman, Direction dir, SoundManager sound, int tileSize) {
         int dx = dir.getDx(tileSize);
         int dy = dir.getDy(tileSize);
 
-        int newX = state.pacman.x + dx;
-        int newY = state.pacman.y + dy;
+        int newX = pacman.x + dx;
+        int newY = pacman.y + dy;
 
-        int boardW = map.getColumnCount() * tileSize;
-        int boardH = map.getRowCount() * tileSize;
+        int boardW = state.walkableGrid[0].length * tileSize;
+        int boardH = state.walkableGrid.length * tileSize;
 
-        if (newX < 0 || newY < 0 || newX > boardW - state.pacman.width || newY > boardH - state.pacman.height) {
+        if (newX < 0 || newY < 0 || newX > boardW - pacman.width || newY > boardH - pacman.height) {
             return false;
         }
 
-        // Check collision at the target TILE
-        Entity tempTarget = new Entity(null, newX, newY, state.pacman.width, state.pacman.height);
-        for (Entity wall : state.walls) {
-            if (tempTarget.collidesWith(wall)) return false;
-        }
+        // Sweep the whole step against the tile grid, so a wall anywhere along it blocks the move
+        if (SweptCollision.timeOfImpact(pacman, dx, dy, state.walkableGrid, tileSize) <= 1) return false;
 
-        state.pacman.direction = dir;
-        state.pacman.targetX = newX;
-        state.pacman.targetY = newY;
-        state.pacman.isMoving = true;
+        pacman.direction = dir;
+        pacman.targetX = newX;
+        pacman.targetY = newY;
+        pacman.isMoving = true;
         sound.playEffect(GameConstants.SOUND_MOVE);
         return true;
     }
 
-    private void updatePacmanPosition(GameState state) {
-        if (!state.pacman.isMoving) return;
+    private void updatePacmanPosition(Actor pacman) {
+        if (!pacman.isMoving) return;
 
-        Actor pacman = state.pacman;
         int moveSpeed = pacman.speed; // Interpolation speed
 
-        // Move pixels towards target
-        if (pacman.x < pacman.targetX) pacman.x += moveSpeed;
-        else if (pacman.x > pacman.targetX) pacman.x -= moveSpeed;
-        else if (pacman.y < pacman.targetY) pacman.y += moveSpeed;
-        else if (pacman.y > pacman.targetY) pacman.y -= moveSpeed;
+        // Move pixels towards target, never past it (sprint speeds need not divide the tile size)
+        if (pacman.x < pacman.targetX) pacman.x += Math.min(moveSpeed, pacman.targetX - pacman.x);
+        else if (pacman.x > pacman.targetX) pacman.x -= Math.min(moveSpeed, pacman.x - pacman.targetX);
+        else if (pacman.y < pacman.targetY) pacman.y += Math.min(moveSpeed, pacman.targetY - pacman.y);
+        else if (pacman.y > pacman.targetY) pacman.y -= Math.min(moveSpeed, pacman.y - pacman.targetY);
 
         // Check if arrived
         if (Math.abs(pacman.x - pacman.targetX) < moveSpeed && Math.abs(pacman.y - pacman.targetY) < moveSpeed) {
@@ -87,10 +111,9 @@ public class MovementManager {
         }
     }
 
-    private void checkPacmanBounds(GameState state, GameMap map, int tileSize) {
-        int boardW = map.getColumnCount() * tileSize;
-        int boardH = map.getRowCount() * tileSize;
-        Actor p = state.pacman;
+    private void checkPacmanBounds(Actor p, boolean[][] walkableGrid, int tileSize) {
+        int boardW = walkableGrid[0].length * tileSize;
+        int boardH = walkableGrid.length * tileSize;
 
         int originalX = p.x;
         int originalY = p.y;
@@ -108,117 +131,63 @@ public class MovementManager {
     }
 
     // Unified method for Ghosts and Boss
-    private void moveAiActors(GameState state, HashSet<Actor> actors, HashSet<Entity> walls, GameMap map, int tileSize) {
-        int boardW = map.getColumnCount() * tileSize;
-        int boardH = map.getRowCount() * tileSize;
+    private void moveAiActors(GameState state, List<Actor> actors, int tileSize) {
+        int boardW = state.walkableGrid[0].length * tileSize;
+        int boardH = state.walkableGrid.length * tileSize;
 
         for (Actor actor : actors) {
-            if (actor.movementType == MovementType.SMART) {
+            // A step never crosses a tile boundary, so every ghost gets a decision at every
+            // tile; what is left of the tick's distance carries on in the new direction
+            int remaining = actor.speed;
+            while (remaining > 0) {
+                // SMART and RANDOM ghosts both steer by the planner's role fields
                 if (isAlignedToTile(actor, tileSize)) {
-                    Direction chaseDir = chooseDirectionTowardTarget(actor, state, tileSize);
-                    if (chaseDir != null && chaseDir != actor.direction) {
-                        actor.direction = chaseDir;
+                    Direction plannedDir = chooseDirectionTowardTarget(actor, state, tileSize);
+                    if (plannedDir == null) plannedDir = chooseRandomDirection(actor, state, tileSize, boardW, boardH);
+                    if (plannedDir != null && plannedDir != actor.direction) {
+                        actor.direction = plannedDir;
                         actor.updateVelocity();
                     }
                 }
-            } else if (actor.movementType == MovementType.RANDOM && isAlignedToTile(actor, tileSize)) {
-                Direction randomDir = chooseRandomDirection(actor, state, tileSize, boardW, boardH);
-                if (randomDir != null) {
-                    actor.direction = randomDir;
+                int stepX = clampToTileBoundary(actor.x, Integer.signum(actor.velocityX) * remaining, tileSize);
+                int stepY = clampToTileBoundary(actor.y, Integer.signum(actor.velocityY) * remaining, tileSize);
+                if (stepX == 0 && stepY == 0) break;
+
+                // Wall and bounds collision: sweep the step against the tile grid (off-board counts as wall)
+                if (SweptCollision.timeOfImpact(actor, stepX, stepY, state.walkableGrid, tileSize) <= 1) {
+                    Direction plannedDir = chooseDirectionTowardTarget(actor, state, tileSize);
+                    if (plannedDir == null) plannedDir = chooseRandomDirection(actor, state, tileSize, boardW, boardH);
+                    actor.direction = (plannedDir != null) ? plannedDir : directions[random.nextInt(directions.length)];
                     actor.updateVelocity();
-                }
-            }
-            actor.x += actor.velocityX;
-            actor.y += actor.velocityY;
-
-            boolean collided = false;
-
-            // Wall Collision
-            for (Entity wall : walls) {
-                if (actor.collidesWith(wall)) {
-                    collided = true;
                     break;
                 }
-            }
-
-            // Bounds Collision
-            if (!collided) {
-                if (actor.x < 0 || actor.x + actor.width > boardW ||
-                        actor.y < 0 || actor.y + actor.height > boardH) {
-                    collided = true;
-                }
-            }
-
-            if (collided) {
-                // Revert move
-                actor.x -= actor.velocityX;
-                actor.y -= actor.velocityY;
-
-                if (actor.movementType == MovementType.SMART) {
-                    Direction chaseDir = chooseDirectionTowardTarget(actor, state, tileSize);
-                    if (chaseDir != null) {
-                        actor.direction = chaseDir;
-                    } else {
-                        actor.direction = directions[random.nextInt(directions.length)];
-                    }
-                } else {
-                    Direction randomDir = chooseRandomDirection(actor, state, tileSize, boardW, boardH);
-                    if (randomDir != null) actor.direction = randomDir;
-                }
-                actor.updateVelocity();
+                actor.x += stepX;
+                actor.y += stepY;
+                remaining -= Math.abs(stepX) + Math.abs(stepY);
             }
         }
     }
 
+    private int clampToTileBoundary(int pos, int velocity, int tileSize) {
+        if (velocity == 0) return 0;
+        int offset = Math.floorMod(pos, tileSize);
+        int toBoundary = (velocity > 0) ? tileSize - offset : (offset == 0 ? tileSize : offset);
+        return (velocity > 0) ? Math.min(velocity, toBoundary) : -Math.min(-velocity, toBoundary);
+    }
+
     private boolean isAlignedToTile(Actor actor, int tileSize) {
         return actor.x % tileSize == 0 && actor.y % tileSize == 0;
     }
 
     private Direction chooseDirectionTowardTarget(Actor actor, GameState state, int tileSize) {
         if (actor == null || actor.speed == 0) return null;
-        if (state == null || state.pacman == null || state.walkableGrid == null) return null;
-
-        int rows = state.walkableGrid.length;
-        int cols = state.walkableGrid[0].length;
-
-        int actorCol = actor.x / tileSize;
-        int actorRow = actor.y / tileSize;
-        int targetCol = state.pacman.x / tileSize;
-        int targetRow = state.pacman.y / tileSize;
-
-        List<Direction> bestDirections = new ArrayList<>();
-        int bestDistance = Integer.MAX_VALUE;
-
-        for (Direction dir : directions) {
-            int nextCol = actorCol + (dir == Direction.RIGHT ? 1 : dir == Direction.LEFT ? -1 : 0);
-            int nextRow = actorRow + (dir == Direction.DOWN ? 1 : dir == Direction.UP ? -1 : 0);
-
-            if (!isWalkable(nextRow, nextCol, rows, cols, state.walkableGrid)) continue;
-
-            int distance = Math.abs(nextCol - targetCol) + Math.abs(nextRow - targetRow);
-
-            if (distance < bestDistance) {
-                bestDistance = distance;
-                bestDirections.clear();
-                bestDirections.add(dir);
-            } else if (distance == bestDistance) {
-                bestDirections.add(dir);
-            }
-        }
-
-        if (bestDirections.isEmpty()) return null;
-        return bestDirections.get(random.nextInt(bestDirections.size()));
-    }
-
-    private boolean isWalkable(int row, int col, int rows, int cols, boolean[][] walkableGrid) {
-        return row >= 0 && row < rows && col >= 0 && col < cols && walkableGrid[row][col];
+        if (state == null || state.walkableGrid == null) return null;
+        return ghostPlanner.chooseDirection(actor, random, tileSize);
     }
 
     private Direction chooseRandomDirection(Actor actor, GameState state, int tileSize, int boardW, int boardH) {
-        if (actor == null || state == null || state.walkableGrid == null) return null;
+        if (actor == null || state == null || state.tiles == null) return null;
 
-        int rows = state.walkableGrid.length;
-        int cols = state.walkableGrid[0].length;
         int actorCol = actor.x / tileSize;
         int actorRow = actor.y / tileSize;
 
@@ -227,7 +196,7 @@ public class MovementManager {
             int nextCol = actorCol + (dir == Direction.RIGHT ? 1 : dir == Direction.LEFT ? -1 : 0);
             int nextRow = actorRow + (dir == Direction.DOWN ? 1 : dir == Direction.UP ? -1 : 0);
 
-            if (isWalkable(nextRow, nextCol, rows, cols, state.walkableGrid)) {
+            if (state.tiles.isWalkable(nextRow, nextCol)) {
                 validDirs.add(dir);
             }
         }
@@ -245,17 +214,21 @@ public class MovementManager {
     }
 
     private void moveProjectiles(GameState state) {
-        HashSet<Actor> toRemove = new HashSet<>();
+        List<Actor> spent = state.spentProjectiles;
+        spent.clear();
 
         // Homing Factor: Higher = Slower turning (more inertia), Lower = Snappier
         double homingInertia = 5.0;
 
-        for (Actor proj : state.projectiles) {
+        for (int i = 0; i < state.projectiles.size(); i++) {
+            Actor proj = state.projectiles.get(i);
 
-            // --- Homing Logic ---
-            if (state.pacman != null) {
-                double dx = (state.pacman.x + state.pacman.width / 2.0) - (proj.x + proj.width / 2.0);
-                double dy = (state.pacman.y + state.pacman.height / 2.0) - (proj.y + proj.height / 2.0);
+            // --- Homing Logic (towards the closest player) ---
+            Player target = state.nearestActivePlayer(proj);
+            if (target != null) {
+                Actor pacman = target.actor;
+                double dx = (pacman.x + pacman.width / 2.0) - (proj.x + proj.width / 2.0);
+                double dy = (pacman.y + pacman.height / 2.0) - (proj.y + proj.height / 2.0);
                 double dist = Math.sqrt(dx * dx + dy * dy);
 
                 if (dist > 0) {
@@ -276,17 +249,18 @@ public class MovementManager {
                 }
             }
 
-            // apply movement
-            proj.x += proj.velocityX;
-            proj.y += proj.velocityY;
-
-            for (Entity wall : state.walls) {
-                if (proj.collidesWith(wall)) {
-                    toRemove.add(proj);
-                    break;
-                }
+            // Sweep the move against the grid: the projectile stops at the first wall it
+            // reaches this tick, however fast it is going, and leaves play there once the
+            // players have been swept against the full move (GameLogic removes it)
+            double impact = SweptCollision.timeOfImpact(proj, proj.velocityX, proj.velocityY, state.walkableGrid, GameConstants.TILE_SIZE);
+            if (impact <= 1) {
+                proj.x += (int) (proj.velocityX * impact);
+                proj.y += (int) (proj.velocityY * impact);
+                spent.add(proj);
+            } else {
+                proj.x += proj.velocityX;
+                proj.y += proj.velocityY;
             }
         }
-        state.projectiles.removeAll(toRemove);
     }
 }
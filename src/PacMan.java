@@ -2,7 +2,18 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 public class PacMan extends JPanel {
     // Core Parts
@@ -15,10 +26,28 @@ public class PacMan extends JPanel {
     private final GameMap gameMap;
     private final InputHandler inputHandler;
     private final Renderer renderer;
+    private final Timer gameLoop;
+
+    // Every pack level compiled once at startup, indexed by level - 1
+    private final CompiledLevel[] compiledLevels;
 
     // Track the active mode for this game instance
     private GameMode currentMode;
 
+    private static final int ENDLESS_GHOSTS = 4;
+
+    private static final Logger LOGGER = Logger.getLogger(PacMan.class.getName());
+
+    // Builds the next level while the inter-level countdown is still running
+    private static final ExecutorService LEVEL_LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "level-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    private Future<PreparedLevel> nextLevel;
+    private int nextLevelNumber;
+    private Future<PreparedWindow> nextWindow; // endless mode: the window the players are heading into
+
     public PacMan() {
         this(GameMode.PLAY);
     }
@@ -36,7 +65,8 @@ public class PacMan extends JPanel {
         // Use the singleton SoundManager so that MenuPanel and game share the same instance
         SoundManager soundManager = SoundManager.getInstance();
         inputHandler = new InputHandler();
-        renderer = new Renderer(assetManager, gameMap, GameConstants.TILE_SIZE);
+        renderer = new Renderer(assetManager, GameConstants.TILE_SIZE);
+        compiledLevels = compileLevels();
 
         // 2. Initialize Logic & View
         logic = new GameLogic(state, gameMap, inputHandler, soundManager, assetManager);
@@ -51,42 +81,72 @@ public class PacMan extends JPanel {
             }
         });
 
-        int mapW = gameMap.getColumnCount() * GameConstants.TILE_SIZE;
-        int mapH = gameMap.getRowCount() * GameConstants.TILE_SIZE;
+        // Window is the renderer's fixed view; larger levels scroll inside it
+        int mapW = GameConstants.SCREEN_WIDTH;
+        int mapH = GameConstants.SCREEN_HEIGHT;
         int topBarH = Math.max(32, GameConstants.TILE_SIZE);
         int bottomBarH = Math.max(40, (int)(GameConstants.TILE_SIZE * 1.2));
 
         view = new GameView(renderer, state, mapW, topBarH + mapH + bottomBarH, inputHandler);
         add(view, BorderLayout.CENTER);
 
-        // Set initial lives depending on the selected/current mode
-        state.lives = (currentMode == GameMode.DEMO) ? 5 : 3;
+        // Create players with lives depending on the selected/current mode
+        initPlayers();
 
         // 3. Load Initial Level
         loadLevel();
 
         // 4. Start Loop
+        gameLoop = new Timer(GameConstants.TICK_MS, e -> {
+            tick();
+            view.renderFrame();
+        });
+        gameLoop.start();
+    }
+
+    /**
+     * One step of the game loop, without drawing: the endless window, level
+     * transitions, restarts and the game logic.
+     */
+    void tick() {
+        if (state.endlessWorld != null && !state.gameOver) {
+            updateEndlessWindow();
+        }
+
         // Check for Level Transition completion
+        if (state.interLevel && nextLevel == null) {
+            prepareNextLevel(state.nextLevelToStart);    // 0. Start building it in the background
+        }
+
+        if (state.interLevel && state.interLevelTicks <= 0) {
+            state.currentLevel = state.nextLevelToStart; // 1. Update Level Index
+            applyLevel(takeNextLevel());                 // 2. Swap in the prepared Map & Entities
+            state.interLevel = false;                    // 3. Clear Transition Flag
+        }
+
         // Check for Restart
-        Timer gameLoop = new Timer(50, e -> {
-            // Check for Level Transition completion
-            // NEW: Check if flag is set and timer is finished
-            if (state.interLevel && state.interLevelTicks <= 0) {
-                state.currentLevel = state.nextLevelToStart; // 1. Update Level Index
-                loadLevel();                                 // 2. Load New Map & Entities
-                state.interLevel = false;                    // 3. Clear Transition Flag
-            }
+        if ((state.gameOver || state.gameWon) && state.restartDebounceTicks == 0 && inputHandler.anyKeyPressed()) {
+            restartGame();
+        }
 
-            // Check for Restart
-            if ((state.gameOver || state.gameWon) && state.restartDebounceTicks == 0 && inputHandler.anyKeyPressed()) {
-                restartGame();
-            }
+        logic.update();
+    }
 
-            logic.update();
-            view.repaint();
-        });
-        gameLoop.start();
+    /**
+     * Stops the game loop for good, e.g. for a caller that calls tick itself.
+     */
+    void stop() {
+        gameLoop.stop();
+    }
+
+    GameState getState() {
+        return state;
+    }
+
+    GameView getView() {
+        return view;
     }
+
     public void startGameMusic() {
         SoundManager.getInstance().playBackgroundLoop(GameConstants.SOUND_GAME);
     }
@@ -99,109 +159,431 @@ public class PacMan extends JPanel {
         if (selected != this.currentMode) {
             this.currentMode = selected;
             // Apply lives and reload the level so the mode takes effect immediately.
-            state.lives = (currentMode == GameMode.DEMO) ? 5 : 3;
-            state.hasWeapon = false;
-            state.knifeCount = 0;
+            initPlayers();
             state.currentLevel = 1; // reset to first level when switching mode
             loadLevel();
+        } else if (ModeManager.getPlayerCount() != state.players.size()) {
+            initPlayers();
+            state.currentLevel = 1;
+            loadLevel();
+        }
+    }
+
+    // --- Player Setup ---
+
+    private void initPlayers() {
+        state.players.clear();
+        int count = ModeManager.getPlayerCount();
+        int lives = (currentMode == GameMode.DEMO) ? 5 : 3;
+        for (int i = 0; i < count; i++) {
+            state.players.add(new Player(i, PlayerControls.forPlayer(i, count), lives));
         }
     }
 
     // --- Setup Methods ---
 
+    // Levels are independent of each other, so they are compiled in parallel
+    private CompiledLevel[] compileLevels() {
+        return IntStream.rangeClosed(1, gameMap.getLevelCount())
+                .parallel()
+                .mapToObj(level -> CompiledLevel.compile(gameMap.getTiles(level), assetManager, renderer.getWallTextures(), GameConstants.TILE_SIZE))
+                .toArray(CompiledLevel[]::new);
+    }
+
     private void loadLevel() {
+        cancelNextLevel();
+        if (currentMode == GameMode.ENDLESS) {
+            loadEndlessWorld();
+        } else {
+            // Built right here, so the renderer prepares (or keeps) its own fog for the level
+            applyLevel(prepareLevel(state.currentLevel, state.players.size(), knivesPerLevel(), false));
+        }
+    }
+
+    private void clearLevel() {
         state.walls.clear();
         state.foods.clear();
         state.ghosts.clear();
         state.knives.clear();
         state.projectiles.clear();
+        state.spentProjectiles.clear();
         state.boss = null;
         state.animations.clear();
-        state.sprintActive = false;
-        state.sprintTicksRemaining = 0;
-        state.sprintCooldownTicks = 0;
-
-        String[] currentMap = gameMap.getMapData(state.currentLevel);
-        boolean[][] wallMatrix = new boolean[gameMap.getRowCount()][gameMap.getColumnCount()];
-        boolean[][] walkableGrid = new boolean[gameMap.getRowCount()][gameMap.getColumnCount()];
-
-        for (int r = 0; r < gameMap.getRowCount(); r++) {
-            String row = currentMap[r];
-            for (int c = 0; c < gameMap.getColumnCount(); c++) {
-                char tileChar = row.charAt(c);
-                int x = c * GameConstants.TILE_SIZE;
-                int y = r * GameConstants.TILE_SIZE;
-
-                boolean isWall = (tileChar == 'X');
-                wallMatrix[r][c] = isWall;
-                walkableGrid[r][c] = !isWall;
-
-                switch (tileChar) {
-                    case 'B':
-                        state.boss = new Boss(assetManager.getBossImage(), x, y, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.SPEED_BOSS);
-                        break;
-                    case 'P':
-                        state.pacman = new Actor(assetManager.getPacmanRightImage(), x, y, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.SPEED_PACMAN);
-                        break;
-                    case ' ':
-                        int foodX = x + (GameConstants.TILE_SIZE - assetManager.getFoodWidth()) / 2;
-                        int foodY = y + (GameConstants.TILE_SIZE - assetManager.getFoodHeight()) / 2;
-                        state.foods.add(new Entity(assetManager.getFoodImage(), foodX, foodY, assetManager.getFoodWidth(), assetManager.getFoodHeight()));
-                        break;
-                }
+    }
+
+    // --- Level Preparation ---
+
+    /**
+     * Everything a level start needs beyond the compiled level, built off the EDT.
+     */
+    private static final class PreparedLevel {
+        CompiledLevel level;
+        boolean[][] walkableGrid; // this start's own copy
+        final HashSet<Entity> foods = new HashSet<>();
+        final HashSet<Entity> knives = new HashSet<>();
+        final List<Actor> ghosts = new ArrayList<>();
+        Boss boss;
+        Actor[] playerActors;
+        MazeBitboard maze;
+        FogOfWar fog; // null unless fog of war was on when the level was prepared
+    }
+
+    /**
+     * Builds a level start from its compiled level. Touches no game state, so it
+     * can run on the level-loader thread while the current level is still showing.
+     */
+    private PreparedLevel prepareLevel(int levelNumber, int playerCount, int knifeCount, boolean fogEnabled) {
+        PreparedLevel prepared = new PreparedLevel();
+        CompiledLevel level = compiledLevels[gameMap.validLevel(levelNumber) - 1];
+        prepared.level = level;
+        prepared.walkableGrid = level.newWalkableGrid();
+        prepared.foods.addAll(level.newFoods());
+
+        if (level.bossTile >= 0) {
+            int x = (level.bossTile % level.cols) * GameConstants.TILE_SIZE;
+            int y = (level.bossTile / level.cols) * GameConstants.TILE_SIZE;
+            prepared.boss = new Boss(assetManager.getBossImage(), x, y, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.SPEED_BOSS);
+        }
+
+        // Player 1 starts on the 'P' tile; co-op partners on the nearest free tiles around it
+        prepared.playerActors = new Actor[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            int tile = level.playerTiles[i];
+            int x = (tile % level.cols) * GameConstants.TILE_SIZE;
+            int y = (tile / level.cols) * GameConstants.TILE_SIZE;
+            prepared.playerActors[i] = new Actor(assetManager.getPacmanRightImage(), x, y, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.SPEED_PACMAN);
+        }
+
+        Random random = new Random();
+        for (int i = 0; i < level.ghostTiles.length; i++) {
+            int tile = level.ghostTiles[i];
+            spawnGhost(prepared.ghosts, level.ghostTypes[i], (tile % level.cols) * GameConstants.TILE_SIZE,
+                    (tile / level.cols) * GameConstants.TILE_SIZE, levelNumber, random);
+        }
+        // Use the mode to decide how many knives to spawn per level
+        spawnKnives(prepared.foods, prepared.knives, knifeCount);
+        prepared.maze = newMaze(level, prepared.knives);
+
+        if (fogEnabled) {
+            prepared.fog = new FogOfWar();
+            prepared.fog.prepare(prepared.walkableGrid);
+        }
+        return prepared;
+    }
+
+    private void prepareNextLevel(int levelNumber) {
+        int playerCount = state.players.size();
+        int knifeCount = knivesPerLevel();
+        boolean fogEnabled = ModeManager.isFogOfWarEnabled();
+        nextLevelNumber = levelNumber;
+        nextLevel = LEVEL_LOADER.submit(() -> prepareLevel(levelNumber, playerCount, knifeCount, fogEnabled));
+    }
+
+    // Normally already done by the time the countdown ends; otherwise waits for it or builds it here
+    private PreparedLevel takeNextLevel() {
+        Future<PreparedLevel> future = nextLevel;
+        nextLevel = null;
+        if (future != null && nextLevelNumber == state.currentLevel) {
+            try {
+                PreparedLevel prepared = future.get();
+                if (prepared.playerActors.length == state.players.size()) return prepared;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Fall through and build it on this thread
             }
         }
+        return prepareLevel(state.currentLevel, state.players.size(), knivesPerLevel(), false);
+    }
+
+    private void cancelNextLevel() {
+        if (nextLevel != null) {
+            nextLevel.cancel(false);
+            nextLevel = null;
+        }
+        if (nextWindow != null) {
+            nextWindow.cancel(false);
+            nextWindow = null;
+        }
+    }
+
+    /**
+     * Swaps a prepared level into the game state; only cheap reference moves are left.
+     */
+    private void applyLevel(PreparedLevel prepared) {
+        clearLevel();
+        state.endlessWorld = null;
+        applyTiles(prepared.level, prepared.walkableGrid);
+        state.walls.addAll(prepared.level.walls);
+        state.foods.addAll(prepared.foods);
+        state.knives.addAll(prepared.knives);
+        state.ghosts.addAll(prepared.ghosts);
+        state.boss = prepared.boss;
+        for (Player player : state.players) {
+            player.actor = prepared.playerActors[player.index];
+            player.resetSprint();
+        }
+        state.maze = prepared.maze;
+        state.influence.reset(state.walkableGrid, GameConstants.TILE_SIZE, state.foods, state.knives);
+        renderer.prepareLevel(state, prepared.fog);
+    }
 
+    private int knivesPerLevel() {
+        return (currentMode == GameMode.DEMO) ? 5 : 3;
+    }
+
+    // Tiles of a compiled level, with the walkable grid this run uses; the caller fills state.walls
+    private void applyTiles(CompiledLevel level, boolean[][] walkableGrid) {
+        state.tiles = level.tiles;
         state.walkableGrid = walkableGrid;
+        state.removedPickups.clear();
+        state.mapVersion++;
+    }
+
+    // Pellet board of a fresh start; knives replace the pellet they were placed on
+    private static MazeBitboard newMaze(CompiledLevel level, Set<Entity> knives) {
+        MazeBitboard maze = level.newMaze();
+        for (Entity knife : knives) {
+            maze.setPellet((knife.y + knife.height / 2) / GameConstants.TILE_SIZE, (knife.x + knife.width / 2) / GameConstants.TILE_SIZE, false);
+        }
+        return maze;
+    }
+
+    // Derived per-level data for endless windows: bitboard, influence maps, renderer caches
+    private void finishLevel(CompiledLevel level, FogOfWar preparedFog) {
+        state.maze = newMaze(level, state.knives);
+        state.influence.reset(state.walkableGrid, GameConstants.TILE_SIZE, state.foods, state.knives);
+        renderer.prepareLevel(state, preparedFog);
+    }
+
+    // --- Endless Mode ---
+
+    private void loadEndlessWorld() {
+        clearLevel();
+        state.endlessWorld = new EndlessWorld(new Random().nextLong());
+        CompiledLevel level = CompiledLevel.compile(endlessStartMap(state.endlessWorld.materializeWindow()),
+                assetManager, renderer.getWallTextures(), GameConstants.TILE_SIZE);
+
+        applyTiles(level, level.walkableGrid); // endless windows are compiled for one use
+        state.walls.addAll(level.walls);
+        state.foods.addAll(level.foods);
+        for (Player player : state.players) {
+            int tile = level.playerTiles[player.index];
+            player.actor = new Actor(assetManager.getPacmanRightImage(), (tile % level.cols) * GameConstants.TILE_SIZE,
+                    (tile / level.cols) * GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.SPEED_PACMAN);
+            player.resetSprint();
+        }
+        Random random = new Random();
+        for (int i = 0; i < level.ghostTiles.length; i++) {
+            int tile = level.ghostTiles[i];
+            spawnGhost(state.ghosts, level.ghostTypes[i], (tile % level.cols) * GameConstants.TILE_SIZE,
+                    (tile / level.cols) * GameConstants.TILE_SIZE, state.currentLevel, random);
+        }
+        spawnKnives(state.foods, state.knives, knivesPerLevel());
+        finishLevel(level, null);
+    }
+
+    // Player starts in the centre chunk, ghosts in the corners of the window (always maze cells)
+    private static TileGrid endlessStartMap(byte[] window) {
+        int size = EndlessWorld.WINDOW_TILES;
+        int half = EndlessWorld.CHUNK_SIZE * (EndlessWorld.WINDOW_CHUNKS / 2);
+        int far = size - 1;
+        window[(half + 1) * size + half + 1] = 'P';
+        window[size + 1] = 'b';
+        window[size + far] = 'o';
+        window[far * size + 1] = 'p';
+        window[far * size + far] = 'r';
+        return TileGrid.fromSymbols(size, size, window);
+    }
+
+    /**
+     * An endless window compiled off the EDT, to be swapped in once it is ready.
+     */
+    private static final class PreparedWindow {
+        EndlessWorld world;
+        int shiftX;
+        int shiftY;
+        int eatenCount; // of the world when the window was asked for
+        CompiledLevel level;
+        HashSet<Entity> walls;
+        HashSet<Entity> foods;
+        FogOfWar fog; // null unless fog of war was on when the window was prepared
+    }
 
-        // Generate Walls
-        for (int r = 0; r < gameMap.getRowCount(); r++) {
-            for (int c = 0; c < gameMap.getColumnCount(); c++) {
-                if (wallMatrix[r][c]) {
-                    Image wallImg = renderer.createWallTexture(wallMatrix, r, c);
-                    state.walls.add(new Entity(wallImg, c * GameConstants.TILE_SIZE, r * GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE));
-                }
+    /**
+     * Floating origin: once the lead player leaves the centre chunk, the window moves
+     * by whole chunks, the tiles are rebuilt from the chunk cache and every actor is
+     * shifted back by the same amount, so coordinates never grow without bound.
+     *
+     * The new window is materialized and compiled on the level loader (which may
+     * wait for chunks still being generated) and swapped in on a later tick, so
+     * the EDT never compiles or blocks. The window is three chunks wide, so the
+     * player is still inside the old one while the new one is being built.
+     */
+    private void updateEndlessWindow() {
+        Future<PreparedWindow> pending = nextWindow;
+        if (pending != null) {
+            if (!pending.isDone()) return;
+            nextWindow = null;
+            PreparedWindow prepared = takeWindow(pending);
+            if (prepared != null && prepared.world == state.endlessWorld) applyWindow(prepared);
+            return;
+        }
+
+        Player lead = leadPlayer();
+        if (lead == null) return;
+        int chunkPx = EndlessWorld.CHUNK_SIZE * GameConstants.TILE_SIZE;
+        int center = EndlessWorld.WINDOW_CHUNKS / 2;
+        int shiftX = Math.floorDiv(lead.actor.targetX + lead.actor.width / 2, chunkPx) - center;
+        int shiftY = Math.floorDiv(lead.actor.targetY + lead.actor.height / 2, chunkPx) - center;
+        if (shiftX == 0 && shiftY == 0) return;
+
+        EndlessWorld world = state.endlessWorld;
+        int windowX = world.getOriginX() + shiftX;
+        int windowY = world.getOriginY() + shiftY;
+        int eatenCount = world.getEatenCount();
+        boolean fogEnabled = ModeManager.isFogOfWarEnabled();
+        WallTextures wallTextures = renderer.getWallTextures();
+        nextWindow = LEVEL_LOADER.submit(() -> {
+            PreparedWindow prepared = new PreparedWindow();
+            prepared.world = world;
+            prepared.shiftX = shiftX;
+            prepared.shiftY = shiftY;
+            prepared.eatenCount = eatenCount;
+            TileGrid tiles = TileGrid.fromSymbols(EndlessWorld.WINDOW_TILES, EndlessWorld.WINDOW_TILES,
+                    world.materializeWindow(windowX, windowY));
+            prepared.level = CompiledLevel.compile(tiles, assetManager, wallTextures, GameConstants.TILE_SIZE);
+            prepared.walls = new HashSet<>(prepared.level.walls);
+            prepared.foods = new HashSet<>(prepared.level.foods);
+            if (fogEnabled) {
+                prepared.fog = new FogOfWar();
+                prepared.fog.prepare(prepared.level.walkableGrid);
             }
+            return prepared;
+        });
+    }
+
+    // Only called once the future is done, so get returns straight away
+    private static PreparedWindow takeWindow(Future<PreparedWindow> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Could not build the next endless window", e.getCause());
         }
+        return null; // asked for again on the next tick
+    }
 
-        spawnGhosts(currentMap);
-        // Use the mode to decide how many knives to spawn per level
-        int knivesToSpawn = (currentMode == GameMode.DEMO) ? 5 : 3;
-        spawnKnives(knivesToSpawn);
+    private Player leadPlayer() {
+        for (Player player : state.players) {
+            if (player.isActive()) return player;
+        }
+        return null;
     }
 
-    private void spawnGhosts(String[] currentMap) {
-        state.ghosts.clear();
-        int speed = (state.currentLevel == 3) ? GameConstants.SPEED_BOSS : GameConstants.SPEED_GHOST;
+    private void applyWindow(PreparedWindow prepared) {
+        Player lead = leadPlayer();
+        if (lead == null) return;
+
+        int chunkPx = EndlessWorld.CHUNK_SIZE * GameConstants.TILE_SIZE;
+        state.endlessWorld.shiftWindow(prepared.shiftX, prepared.shiftY);
+        int dx = -prepared.shiftX * chunkPx;
+        int dy = -prepared.shiftY * chunkPx;
+
+        // The sets were filled on the loader; swapping them in is all that is left
+        CompiledLevel window = prepared.level;
+        state.projectiles.clear();
+        state.spentProjectiles.clear();
+        state.walls = prepared.walls;
+        state.foods = prepared.foods;
+        applyTiles(window, window.walkableGrid);
+        if (state.endlessWorld.getEatenCount() != prepared.eatenCount) {
+            // Pellets eaten while the window was being built are gone from the world by now
+            state.foods.removeIf(food -> state.endlessWorld.isEaten(tileOf(food.y + food.height / 2), tileOf(food.x + food.width / 2)));
+        }
+
+        int windowPx = EndlessWorld.WINDOW_TILES * GameConstants.TILE_SIZE;
+        for (Player player : state.players) {
+            if (player.actor == null) continue;
+            player.actor.translate(dx, dy);
+            // Respawn point follows the player once its chunk has scrolled away
+            if (!insideWindow(player.actor.startX, player.actor.startY, windowPx)) {
+                player.actor.setStart(player.actor.targetX, player.actor.targetY);
+            }
+        }
+
+        // Ghosts left behind re-enter at the window corner furthest from the lead player
+        int far = (EndlessWorld.WINDOW_TILES - 1) * GameConstants.TILE_SIZE;
+        int cornerX = (lead.actor.targetX < windowPx / 2) ? far : 0;
+        int cornerY = (lead.actor.targetY < windowPx / 2) ? far : 0;
+        int entryX = cornerX + (cornerX == 0 ? GameConstants.TILE_SIZE : 0);
+        int entryY = cornerY + (cornerY == 0 ? GameConstants.TILE_SIZE : 0);
+        for (Actor ghost : state.ghosts) {
+            ghost.translate(dx, dy);
+            if (!insideWindow(ghost.x, ghost.y, windowPx)) {
+                ghost.setStart(entryX, entryY);
+                ghost.reset();
+            } else if (!insideWindow(ghost.startX, ghost.startY, windowPx)) {
+                ghost.setStart(entryX, entryY);
+            }
+        }
+        // The pack regroups: ghosts lost to knives are replaced as the world scrolls
         Random random = new Random();
-        Direction[] directions = { Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT };
+        while (state.ghosts.size() < ENDLESS_GHOSTS) {
+            spawnGhost(state.ghosts, TileGrid.ghostCode(state.ghosts.size()), entryX, entryY, state.currentLevel, random);
+        }
 
-        for (int r = 0; r < gameMap.getRowCount(); r++) {
-            String row = currentMap[r];
-            for (int c = 0; c < gameMap.getColumnCount(); c++) {
-                char tileChar = row.charAt(c);
-                if ("bopr".indexOf(tileChar) >= 0) {
-                    Image ghostImage = null;
-                    if (tileChar == 'b') ghostImage = assetManager.getBlueGhostImage();
-                    else if (tileChar == 'o') ghostImage = assetManager.getOrangeGhostImage();
-                    else if (tileChar == 'p') ghostImage = assetManager.getPinkGhostImage();
-                    else if (tileChar == 'r') ghostImage = assetManager.getRedGhostImage();
-
-                    Actor ghost = new Actor(ghostImage, c * GameConstants.TILE_SIZE, r * GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, speed);
-
-                    // split movement into SMART and RANDOM; even index->SMART, odd index->RANDOM
-                    ghost.movementType = (state.ghosts.size() % 2 == 0) ? MovementType.SMART : MovementType.RANDOM;
-                    ghost.direction = directions[random.nextInt(directions.length)];
-                    ghost.updateVelocity();
-                    state.ghosts.add(ghost);
-                }
+        // Knives carry over while in view; top up the rest. No food under a knife.
+        state.knives.removeIf(knife -> {
+            knife.x += dx;
+            knife.y += dy;
+            return !insideWindow(knife.x, knife.y, windowPx);
+        });
+        for (Entity knife : state.knives) {
+            state.foods.removeIf(food -> food.collidesWith(knife));
+        }
+        spawnKnives(state.foods, state.knives, knivesPerLevel() - state.knives.size());
+
+        finishLevel(window, prepared.fog);
+        // The bitboard is the compiled window's; clear the pellets that did not make it into foods
+        for (Entity food : window.foods) {
+            if (!state.foods.contains(food)) {
+                state.maze.setPellet(tileOf(food.y + food.height / 2), tileOf(food.x + food.width / 2), false);
             }
         }
     }
 
-    private void spawnKnives(int count) {
-        state.knives.clear();
-        Entity[] foodArray = state.foods.toArray(new Entity[0]);
+    private static int tileOf(int px) {
+        return px / GameConstants.TILE_SIZE;
+    }
+
+    private static boolean insideWindow(int x, int y, int windowPx) {
+        return x >= 0 && y >= 0 && x < windowPx && y < windowPx;
+    }
+
+    private void spawnGhost(List<Actor> ghosts, byte ghostCode, int x, int y, int levelNumber, Random random) {
+        int speed = (levelNumber == 3) ? GameConstants.SPEED_BOSS : GameConstants.SPEED_GHOST;
+        Direction[] directions = { Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT };
+
+        Image ghostImage = null;
+        if (ghostCode == TileGrid.GHOST_BLUE) ghostImage = assetManager.getBlueGhostImage();
+        else if (ghostCode == TileGrid.GHOST_ORANGE) ghostImage = assetManager.getOrangeGhostImage();
+        else if (ghostCode == TileGrid.GHOST_PINK) ghostImage = assetManager.getPinkGhostImage();
+        else if (ghostCode == TileGrid.GHOST_RED) ghostImage = assetManager.getRedGhostImage();
+
+        Actor ghost = new Actor(ghostImage, x, y, GameConstants.TILE_SIZE, GameConstants.TILE_SIZE, speed);
+
+        // split movement into SMART and RANDOM; even index->SMART, odd index->RANDOM
+        ghost.movementType = (ghosts.size() % 2 == 0) ? MovementType.SMART : MovementType.RANDOM;
+        ghost.direction = directions[random.nextInt(directions.length)];
+        ghost.updateVelocity();
+        ghosts.add(ghost);
+    }
+
+    private void spawnKnives(Set<Entity> foods, Set<Entity> knives, int count) {
+        if (count <= 0) return;
+        Entity[] foodArray = foods.toArray(new Entity[0]);
         if (foodArray.length == 0) return;
 
         count = Math.min(count, foodArray.length);
@@ -211,14 +593,14 @@ public class PacMan extends JPanel {
         while (created < count) {
             int index = random.nextInt(foodArray.length);
             Entity chosenFood = foodArray[index];
-            if (state.foods.contains(chosenFood)) {
-                int knifeSize = Math.max(1, (int) Math.round(GameConstants.TILE_SIZE * 0.7));
+            if (foods.contains(chosenFood)) {
+                int knifeSize = GameConstants.KNIFE_SIZE;
                 int tileX = chosenFood.x - (GameConstants.TILE_SIZE - assetManager.getFoodWidth()) / 2;
                 int tileY = chosenFood.y - (GameConstants.TILE_SIZE - assetManager.getFoodHeight()) / 2;
                 int knifeX = tileX + (GameConstants.TILE_SIZE - knifeSize) / 2;
                 int knifeY = tileY + (GameConstants.TILE_SIZE - knifeSize) / 2;
-                state.knives.add(new Entity(assetManager.getKnifeImage(), knifeX, knifeY, knifeSize, knifeSize));
-                state.foods.remove(chosenFood);
+                knives.add(new Entity(assetManager.getKnifeImage(), knifeX, knifeY, knifeSize, knifeSize));
+                foods.remove(chosenFood);
                 created++;
             }
         }
@@ -228,9 +610,7 @@ public class PacMan extends JPanel {
         state.currentLevel = 1;
         state.score = 0;
         // Use mode-aware lives on restart
-        state.lives = (currentMode == GameMode.DEMO) ? 5 : 3;
-        state.hasWeapon = false;
-        state.knifeCount = 0;
+        initPlayers();
         state.gameOver = false;
         state.gameWon = false;
         inputHandler.clear();
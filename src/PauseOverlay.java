@@ -1,106 +1,225 @@
 import java.awt.*;
-import java.awt.font.FontRenderContext;
-import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.ConvolveOp;
-import java.awt.image.Kernel;
-import java.io.IOException;
-import java.io.InputStream;
 
 /**
  * Draws a blurred background from snapshot + translucent dark overlay + centered text.
- * Tries to use the same custom font as MenuPanel ("/04B_03__.ttf") for consistency.
+ * Text uses the pixel font ("/04B_03__.TTF") through FontManager's glyph atlases.
+ *
+ * The snapshot does not change while the game stays paused, so the whole pause
+ * screen (blur, dimming and text) is composed once per snapshot into an opaque
+ * image and every later paint is a single blit. The blur works on a copy shrunk
+ * by BLUR_DOWNSCALE: box-averaged down, box-blurred horizontally and vertically,
+ * and scaled back up bilinearly, all on int arrays (Java2D's scaled bilinear draw
+ * alone takes several times as long). That is a far stronger blur than a
+ * full-size 3x3 kernel for a fraction of the work.
  */
 public class PauseOverlay {
 
-    private static final float[] BLUR_KERNEL = {
-            1/9f, 1/9f, 1/9f,
-            1/9f, 1/9f, 1/9f,
-            1/9f, 1/9f, 1/9f
-    };
+    private static final int BLUR_DOWNSCALE = 4;
+    private static final int BLUR_RADIUS = 2;  // in shrunk pixels
+    private static final int BLUR_PASSES = 2;  // repeated box blurs approach a gaussian
 
-    private final Font customFont; // may be fallback if resource missing
+    private static final AlphaComposite NO_SNAPSHOT_DIM = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.45f);
+    private static final AlphaComposite DIM = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.35f);
 
-    public PauseOverlay() {
-        Font loaded = null;
-        try (InputStream is = getClass().getResourceAsStream("/04B_03__.ttf")) {
-            if (is != null) {
-                loaded = Font.createFont(Font.TRUETYPE_FONT, is);
-            }
-        } catch (FontFormatException | IOException ignored) {
-            // fallback below
-        }
-        if (loaded != null) {
-            customFont = loaded;
-        } else {
-            customFont = new Font("SansSerif", Font.PLAIN, 18);
-        }
-    }
+    private static final String PAUSED_TEXT = "PAUSED";
+    private static final String HINT_TEXT = "Press 'P' to resume";
+    private static final Color SHADOW = new Color(0, 0, 0, 160);
+    private static final Color HINT = new Color(255, 255, 255, 220);
+
+    private final GlyphAtlas hintText =
+            FontManager.getInstance().getAtlas(FontManager.PIXEL_FONT, Font.PLAIN, 20, HINT);
+
+    // The title scales with the window, so its atlases follow the width they were made for
+    private int titleWidth = -1;
+    private GlyphAtlas titleText;
+    private GlyphAtlas titleShadow;
+
+    // The composed pause screen and the snapshot it was made from
+    private BufferedImage screen;
+    private BufferedImage screenSnapshot;
 
     public void renderPaused(Graphics2D g, BufferedImage snapshot, int width, int height) {
-        // draw blurred snapshot (if available)
-        if (snapshot != null) {
-            BufferedImage blurred = blur(snapshot);
-            g.drawImage(blurred, 0, 0, width, height, null);
-        } else {
-            Composite oldC = g.getComposite();
-            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.45f));
+        if (snapshot == null) {
+            Composite old = g.getComposite();
+            g.setComposite(NO_SNAPSHOT_DIM);
             g.setColor(Color.BLACK);
             g.fillRect(0, 0, width, height);
-            g.setComposite(oldC);
+            g.setComposite(old);
+            drawDimAndText(g, width, height);
+            return;
+        }
+
+        if (screen == null || snapshot != screenSnapshot || screen.getWidth() != width || screen.getHeight() != height) {
+            composeScreen(snapshot, width, height);
+        }
+        g.drawImage(screen, 0, 0, null);
+    }
+
+    /**
+     * Drops the composed pause screen; call once the game is no longer paused.
+     */
+    public void release() {
+        screen = null;
+        screenSnapshot = null;
+    }
+
+    private void composeScreen(BufferedImage snapshot, int width, int height) {
+        BufferedImage blurred = blur(snapshot);
+        if (screen == null || screen.getWidth() != width || screen.getHeight() != height) {
+            screen = SpriteAtlas.createCompatibleImage(width, height, Transparency.OPAQUE);
         }
+        Graphics2D g = screen.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(blurred, 0, 0, width, height, null);
+        drawDimAndText(g, width, height);
+        g.dispose();
+        screenSnapshot = snapshot;
+    }
 
+    private void drawDimAndText(Graphics2D g, int width, int height) {
         // extra dimming overlay
         Composite old = g.getComposite();
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.35f));
+        g.setComposite(DIM);
         g.setColor(Color.BLACK);
         g.fillRect(0, 0, width, height);
         g.setComposite(old);
 
-        // Title "PAUSED" - use bold derived custom font if available
-        Font titleFont;
-        try {
-            titleFont = customFont.deriveFont(Font.BOLD, Math.max(36, width / 20));
-        } catch (Exception ex) {
-            titleFont = new Font("SansSerif", Font.BOLD, Math.max(36, width / 20));
+        // Title "PAUSED" in the bold pixel font
+        if (width != titleWidth) {
+            float size = Math.max(36, width / 20);
+            titleText = FontManager.getInstance().getAtlas(FontManager.PIXEL_FONT, Font.BOLD, size, Color.WHITE);
+            titleShadow = FontManager.getInstance().getAtlas(FontManager.PIXEL_FONT, Font.BOLD, size, SHADOW);
+            titleWidth = width;
         }
-        g.setFont(titleFont);
-        FontRenderContext frc = g.getFontRenderContext();
-        String pausedText = "PAUSED";
-        Rectangle2D bounds = titleFont.getStringBounds(pausedText, frc);
-        int tx = (int) ((width - bounds.getWidth()) / 2);
-        int ty = (int) ((height - bounds.getHeight()) / 2 - bounds.getY());
+        int tx = (width - titleText.stringWidth(PAUSED_TEXT)) / 2;
+        int ty = (height - titleText.getHeight()) / 2 + titleText.getAscent();
 
         // drop shadow + title
-        g.setColor(new Color(0, 0, 0, 160));
-        g.drawString(pausedText, tx + 3, ty + 3);
-        g.setColor(Color.WHITE);
-        g.drawString(pausedText, tx, ty);
-
-        // Hint: use the exact same custom font (plain) like MenuPanel's instruction text
-        Font hintFont;
-        try {
-            // MenuPanel used deriveFont(Font.PLAIN, 20) for ESC; earlier pause hint used ~18.
-            // Use 18-20 depending on width to keep it similar but not huge.
-            //float size = Math.max(14f, Math.min(20f, width / 60f));
-            hintFont = customFont.deriveFont(Font.PLAIN, 20);
-        } catch (Exception ex) {
-            hintFont = new Font("SansSerif", Font.PLAIN, Math.max(14, width / 60));
-        }
-        g.setFont(hintFont);
-        String hint = "Press 'P' to resume";
-        Rectangle2D hb = hintFont.getStringBounds(hint, frc);
-        int hx = (int) ((width - hb.getWidth()) / 2);
+        titleShadow.drawString(g, PAUSED_TEXT, tx + 3, ty + 3);
+        titleText.drawString(g, PAUSED_TEXT, tx, ty);
+
+        // Hint: same pixel font, plain, like MenuPanel's instruction text
+        int hx = (width - hintText.stringWidth(HINT_TEXT)) / 2;
         int hy = ty + 50;
-        g.setColor(new Color(255, 255, 255, 220));
-        g.drawString(hint, hx, hy);
+        hintText.drawString(g, HINT_TEXT, hx, hy);
     }
 
-    private BufferedImage blur(BufferedImage src) {
-        Kernel kernel = new Kernel(3, 3, BLUR_KERNEL);
-        ConvolveOp op = new ConvolveOp(kernel, ConvolveOp.EDGE_NO_OP, null);
-        BufferedImage dest = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        op.filter(src, dest);
-        return dest;
+    // The snapshot blurred, at its own size
+    private static BufferedImage blur(BufferedImage src) {
+        int s = BLUR_DOWNSCALE;
+        int srcW = src.getWidth();
+        int srcH = src.getHeight();
+        int w = Math.max(1, srcW / s);
+        int h = Math.max(1, srcH / s);
+        int bw = Math.min(s, srcW);
+        int bh = Math.min(s, srcH);
+        int[] in = pixels(src);
+
+        // Each small pixel is the average of its block
+        int[] small = new int[w * h];
+        int n = bw * bh;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int r = 0;
+                int gr = 0;
+                int b = 0;
+                for (int dy = 0; dy < bh; dy++) {
+                    int row = (y * s + dy) * srcW + x * s;
+                    for (int dx = 0; dx < bw; dx++) {
+                        int p = in[row + dx];
+                        r += (p >> 16) & 0xFF;
+                        gr += (p >> 8) & 0xFF;
+                        b += p & 0xFF;
+                    }
+                }
+                small[y * w + x] = 0xFF000000 | (r / n) << 16 | (gr / n) << 8 | (b / n);
+            }
+        }
+
+        int[] tmp = new int[w * h];
+        for (int pass = 0; pass < BLUR_PASSES; pass++) {
+            boxBlur(small, tmp, h, w, w, 1);  // rows
+            boxBlur(tmp, small, w, h, 1, w);  // columns
+        }
+
+        BufferedImage out = new BufferedImage(srcW, srcH, BufferedImage.TYPE_INT_RGB);
+        out.getRaster().setDataElements(0, 0, srcW, srcH, upscale(small, w, h, in, srcW, srcH));
+        return out;
+    }
+
+    /**
+     * Bilinear scale of the w x h pixels up to outW x outH, written into out: each
+     * small row is widened once, then output rows mix two widened rows. Weights are
+     * 8-bit fixed point; small pixel centres sit in the middle of their blocks.
+     */
+    private static int[] upscale(int[] small, int w, int h, int[] out, int outW, int outH) {
+        int[] wide = new int[h * outW];
+        for (int x = 0; x < outW; x++) {
+            int sx = Math.max(0, ((2 * x + 1) * w * 256) / (2 * outW) - 128);
+            int x0 = Math.min(w - 1, sx >> 8);
+            int x1 = Math.min(w - 1, x0 + 1);
+            int fx = sx & 0xFF;
+            for (int r = 0; r < h; r++) {
+                wide[r * outW + x] = lerp(small[r * w + x0], small[r * w + x1], fx);
+            }
+        }
+        for (int y = 0; y < outH; y++) {
+            int sy = Math.max(0, ((2 * y + 1) * h * 256) / (2 * outH) - 128);
+            int row0 = Math.min(h - 1, sy >> 8) * outW;
+            int row1 = Math.min(h - 1, (sy >> 8) + 1) * outW;
+            int fy = sy & 0xFF;
+            int o = y * outW;
+            for (int x = 0; x < outW; x++) {
+                out[o + x] = lerp(wide[row0 + x], wide[row1 + x], fy);
+            }
+        }
+        return out;
+    }
+
+    // a * (256 - f) + b * f, over 256, per channel, opaque; red and blue share one multiply
+    private static int lerp(int a, int b, int f) {
+        int rb = (((a & 0xFF00FF) * (256 - f) + (b & 0xFF00FF) * f) >>> 8) & 0xFF00FF;
+        int g = (((a & 0x00FF00) * (256 - f) + (b & 0x00FF00) * f) >>> 8) & 0x00FF00;
+        return 0xFF000000 | rb | g;
+    }
+
+    // The pixels as packed RGB; int images are copied straight from the raster, skipping getRGB's per-pixel conversion
+    private static int[] pixels(BufferedImage src) {
+        int type = src.getType();
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB) {
+            return (int[]) src.getRaster().getDataElements(0, 0, src.getWidth(), src.getHeight(), null);
+        }
+        return src.getRGB(0, 0, src.getWidth(), src.getHeight(), null, 0, src.getWidth());
+    }
+
+    /**
+     * One box blur pass of BLUR_RADIUS along count lines of length pixels each, with
+     * a running sum so the cost does not depend on the radius. Edges repeat the
+     * outermost pixel.
+     */
+    private static void boxBlur(int[] src, int[] dst, int count, int length, int lineStride, int stride) {
+        int radius = BLUR_RADIUS;
+        int window = radius * 2 + 1;
+        for (int line = 0; line < count; line++) {
+            int base = line * lineStride;
+            int r = 0;
+            int g = 0;
+            int b = 0;
+            for (int i = -radius; i <= radius; i++) {
+                int p = src[base + Math.max(0, Math.min(length - 1, i)) * stride];
+                r += (p >> 16) & 0xFF;
+                g += (p >> 8) & 0xFF;
+                b += p & 0xFF;
+            }
+            for (int i = 0; i < length; i++) {
+                dst[base + i * stride] = 0xFF000000 | (r / window) << 16 | (g / window) << 8 | (b / window);
+                int add = src[base + Math.min(length - 1, i + radius + 1) * stride];
+                int sub = src[base + Math.max(0, i - radius) * stride];
+                r += ((add >> 16) & 0xFF) - ((sub >> 16) & 0xFF);
+                g += ((add >> 8) & 0xFF) - ((sub >> 8) & 0xFF);
+                b += (add & 0xFF) - (sub & 0xFF);
+            }
+        }
     }
 }
@@ -0,0 +1,145 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * The food and knives of a level drawn into square chunk images of
+ * WallChunkCache.CHUNK_TILES tiles, the pellet counterpart of WallChunkCache.
+ * The renderer blits the chunks under the view at the camera offset, so a
+ * scrolling camera only costs the chunks it newly reaches.
+ *
+ * Pellets change as they are eaten, so chunks are drawn on the EDT by the
+ * renderer when first needed, and a pickup is cleared out of the chunk that
+ * shows it. At most MAX_CHUNKS are kept; the least recently drawn one gives up
+ * its image (and Graphics) to the next chunk, so once the cache is full a
+ * level scrolls without allocating new images. For the EDT only.
+ */
+public class PelletChunkCache {
+    private static final int MAX_CHUNKS = 16; // a view spans at most 3 x 3 chunks
+
+    // A chunk image with its Graphics, translated to board coordinates
+    private static final class Chunk {
+        final BufferedImage image;
+        final Graphics2D g;
+        int originX;
+        int originY;
+
+        Chunk(BufferedImage image) {
+            this.image = image;
+            this.g = image.createGraphics();
+        }
+    }
+
+    private final int chunkSize; // pixels
+
+    private int chunkRows;
+    private int chunkCols;
+    private Chunk[] chunks = new Chunk[0];
+    private int[] lastUsed = new int[0]; // use stamp per chunk, for evicting the oldest
+    private int cachedCount;
+    private int useClock;
+    private final Chunk[] spare = new Chunk[MAX_CHUNKS];
+    private int spareCount;
+
+    public PelletChunkCache(int tileSize) {
+        this.chunkSize = WallChunkCache.CHUNK_TILES * tileSize;
+    }
+
+    /**
+     * Drops every chunk for a board of the given size in pixels; their images are kept for reuse.
+     */
+    public void reset(int boardWidth, int boardHeight) {
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] != null) spare[spareCount++] = chunks[i];
+        }
+        int rows = (boardHeight + chunkSize - 1) / chunkSize;
+        int cols = (boardWidth + chunkSize - 1) / chunkSize;
+        if (rows * cols != chunks.length) {
+            chunks = new Chunk[rows * cols];
+            lastUsed = new int[rows * cols];
+        } else {
+            Arrays.fill(chunks, null);
+        }
+        chunkRows = rows;
+        chunkCols = cols;
+        cachedCount = 0;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * The chunk image, or null if it has not been drawn (or lies off the board).
+     */
+    public BufferedImage getChunk(int chunkRow, int chunkCol) {
+        if (!inside(chunkRow, chunkCol)) return null;
+        int index = chunkRow * chunkCols + chunkCol;
+        Chunk chunk = chunks[index];
+        if (chunk == null) return null;
+        lastUsed[index] = ++useClock;
+        return chunk.image;
+    }
+
+    /**
+     * Makes room for the chunk and returns the Graphics to draw its pellets with,
+     * empty and translated so board coordinates land in the chunk. Null off the board.
+     */
+    public Graphics2D newChunk(int chunkRow, int chunkCol) {
+        if (!inside(chunkRow, chunkCol)) return null;
+        int index = chunkRow * chunkCols + chunkCol;
+        Chunk chunk = chunks[index];
+        if (chunk == null) {
+            if (cachedCount >= MAX_CHUNKS) evictOldest();
+            chunk = (spareCount > 0) ? spare[--spareCount]
+                    : new Chunk(SpriteAtlas.createCompatibleImage(chunkSize, chunkSize, Transparency.TRANSLUCENT));
+            chunks[index] = chunk;
+            cachedCount++;
+        }
+        Graphics2D g = chunk.g;
+        g.translate(chunk.originX, chunk.originY);
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, chunkSize, chunkSize);
+        g.setComposite(AlphaComposite.SrcOver);
+        chunk.originX = chunkCol * chunkSize;
+        chunk.originY = chunkRow * chunkSize;
+        g.translate(-chunk.originX, -chunk.originY);
+        lastUsed[index] = ++useClock;
+        return g;
+    }
+
+    /**
+     * Clears a board rectangle, e.g. an eaten pellet, out of the chunks drawn so far.
+     */
+    public void clear(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        int cr1 = Math.min(chunkRows - 1, (y + h - 1) / chunkSize);
+        int cc1 = Math.min(chunkCols - 1, (x + w - 1) / chunkSize);
+        for (int cr = Math.max(0, y / chunkSize); cr <= cr1; cr++) {
+            for (int cc = Math.max(0, x / chunkSize); cc <= cc1; cc++) {
+                Chunk chunk = chunks[cr * chunkCols + cc];
+                if (chunk == null) continue;
+                chunk.g.setComposite(AlphaComposite.Clear);
+                chunk.g.fillRect(x, y, w, h);
+                chunk.g.setComposite(AlphaComposite.SrcOver);
+            }
+        }
+    }
+
+    private boolean inside(int chunkRow, int chunkCol) {
+        return chunkRow >= 0 && chunkCol >= 0 && chunkRow < chunkRows && chunkCol < chunkCols;
+    }
+
+    private void evictOldest() {
+        int oldest = -1;
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] != null && (oldest < 0 || lastUsed[i] < lastUsed[oldest])) oldest = i;
+        }
+        if (oldest < 0) return;
+        spare[spareCount++] = chunks[oldest];
+        chunks[oldest] = null;
+        cachedCount--;
+    }
+}
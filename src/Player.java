@@ -0,0 +1,42 @@
+/**
+ * One local player: the Pac-Man actor they control plus their own lives,
+ * knives and sprint timers. Score is shared through GameState.
+ */
+public class Player {
+    public final int index;
+    public final PlayerControls controls;
+    public Actor actor;
+
+    public int lives;
+    public int knifeCount = 0;
+    public boolean hasWeapon = false;
+
+    // Sprint State
+    public boolean sprintActive = false;
+    public int sprintTicksRemaining = 0;
+    public int sprintCooldownTicks = 0;
+
+    public Player(int index, PlayerControls controls, int lives) {
+        this.index = index;
+        this.controls = controls;
+        this.lives = lives;
+    }
+
+    /**
+     * A player with no lives left is out of the round: not drawn, not hit, not chased.
+     */
+    public boolean isActive() {
+        return actor != null && lives > 0;
+    }
+
+    public boolean hasKnife() {
+        return hasWeapon && knifeCount > 0;
+    }
+
+    public void resetSprint() {
+        sprintActive = false;
+        sprintTicksRemaining = 0;
+        sprintCooldownTicks = 0;
+        if (actor != null) actor.speed = GameConstants.SPEED_PACMAN;
+    }
+}
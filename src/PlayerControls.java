@@ -0,0 +1,53 @@
+import java.awt.event.KeyEvent;
+import java.util.Set;
+
+/**
+ * Key mapping for one local player.
+ * SOLO keeps the original single-player layout (WASD or arrows, SPACE to sprint).
+ * In co-op every player gets their own cluster of keys so nobody steals input.
+ */
+public enum PlayerControls {
+    SOLO(KeyEvent.VK_SPACE,
+            KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_D,
+            KeyEvent.VK_UP, KeyEvent.VK_DOWN, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT),
+    PLAYER_1(KeyEvent.VK_SPACE, KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_D),
+    PLAYER_2(KeyEvent.VK_ENTER, KeyEvent.VK_UP, KeyEvent.VK_DOWN, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT),
+    PLAYER_3(KeyEvent.VK_U, KeyEvent.VK_I, KeyEvent.VK_K, KeyEvent.VK_J, KeyEvent.VK_L),
+    PLAYER_4(KeyEvent.VK_NUMPAD0, KeyEvent.VK_NUMPAD8, KeyEvent.VK_NUMPAD5, KeyEvent.VK_NUMPAD4, KeyEvent.VK_NUMPAD6);
+
+    private final int sprintKey;
+    // Groups of four key codes: up, down, left, right
+    private final int[] directionKeys;
+
+    PlayerControls(int sprintKey, int... directionKeys) {
+        this.sprintKey = sprintKey;
+        this.directionKeys = directionKeys;
+    }
+
+    public Direction directionFor(Set<Integer> pressedKeys) {
+        for (int i = 0; i < directionKeys.length; i += 4) {
+            if (pressedKeys.contains(directionKeys[i])) return Direction.UP;
+            if (pressedKeys.contains(directionKeys[i + 1])) return Direction.DOWN;
+            if (pressedKeys.contains(directionKeys[i + 2])) return Direction.LEFT;
+            if (pressedKeys.contains(directionKeys[i + 3])) return Direction.RIGHT;
+        }
+        return Direction.NONE;
+    }
+
+    public boolean isSprintPressed(Set<Integer> pressedKeys) {
+        return pressedKeys.contains(sprintKey);
+    }
+
+    /**
+     * Controls for the player at the given index when playerCount players share the keyboard.
+     */
+    public static PlayerControls forPlayer(int index, int playerCount) {
+        if (playerCount <= 1) return SOLO;
+        switch (index) {
+            case 0: return PLAYER_1;
+            case 1: return PLAYER_2;
+            case 2: return PLAYER_3;
+            default: return PLAYER_4;
+        }
+    }
+}
@@ -1,285 +1,1081 @@
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.ImageObserver;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.JPanel;
 
 public class Renderer {
 
+    // Constant palette, fonts and labels: once its caches are warm a frame allocates nothing
+    private static final Color BAR_BACKGROUND = new Color(0, 0, 0, 200);
+    private static final Color OVERLAY_DIM = new Color(0, 0, 0, 140);
+    private static final Color METER_BACKGROUND = new Color(255, 255, 255, 50);
+    private static final Color METER_BORDER = new Color(255, 255, 255, 140);
+    private static final Color BOSS_BAR_BACKGROUND = new Color(80, 0, 0, 180);
+    private static final Color BOSS_BAR_BORDER = new Color(200, 80, 80, 220);
+    private static final Color BOSS_BAR_TOP = new Color(255, 120, 120);
+    private static final Color BOSS_BAR_BOTTOM = new Color(200, 20, 20);
+
+    // Sprint meter states, indexing the colours, labels and cached images below
+    private static final int SPRINTING = 0;
+    private static final int COOLDOWN = 1;
+    private static final int READY = 2;
+    private static final Color[] SPRINT_COLORS = { new Color(255, 200, 0), new Color(180, 60, 60), new Color(60, 180, 90) };
+    private static final String[] SPRINT_LABELS = { "Sprinting", "Cooldown", "Sprint" };
+
+    private static final String LEVEL = "Level ";
+    private static final String ENDLESS = "Endless";
+    private static final String GAME_OVER = "GAME OVER";
+    private static final String YOU_WIN = "YOU WIN!";
+    private static final String RESTART_HINT = "Press any key to restart";
+
+    // What a frame had to load before drawing, reported by getFrameLoads
+    public static final int LOAD_LEVEL = 1;      // a new map's caches, the minimap or the fog visibility
+    public static final int LOAD_CHUNK = 2;      // a wall or pellet chunk built, or drawn tile by tile until it is
+    public static final int LOAD_BACKGROUND = 4; // a new frame of the animated background
+    public static final int LOAD_CACHE = 8;      // an image or buffer made for the first time or grown
+
+    // Fog visibility for a level that fog of war was switched on in, computed off the EDT
+    private static final ExecutorService FOG_PREPARER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fog-preparer");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final AssetManager assetManager;
-    private final GameMap gameMap;
+    private final SpriteAtlas atlas;
     private final int tileSize;
 
     // --- Pre-calculated Dimensions
-    private final int boardWidth;
-    private final int boardHeight;
+    // The view (playfield on screen) is fixed; the board is per level and may be larger,
+    // in which case the camera scrolls over it.
+    private final int viewWidth;
+    private final int viewHeight;
     private final int topBarH;
     private final int bottomBarH;
     private final int totalH;
+    private final Camera camera;
 
     // Pause support
     private final PauseManager pauseManager = PauseManager.getInstance();
     private final PauseOverlay pauseOverlay = new PauseOverlay();
 
-    public Renderer(AssetManager assetManager, GameMap gameMap, int tileSize) {
+    // Influence map debug overlay over the tiles under the view, at full size so it is drawn
+    // with a plain blit; repainted only where the map changed or when the view moves a tile
+    private BufferedImage influenceImage;
+    private int[] influencePixels;
+    private int influenceRow0;
+    private int influenceCol0;
+    private int influenceRows = -1;
+    private int influenceCols;
+
+    // Background layer: the background and the bar backgrounds at screen size, redrawn
+    // only when the gif's frame changes. The bars are cut from it as they are; its
+    // middle, the part behind the view, is repeated over the board and scrolls with it.
+    private BufferedImage backgroundLayer;
+    private Graphics2D backgroundGraphics;
+    private int backgroundLayerFrame = -1;
+
+    // Walls and pellets in chunks, blitted at the camera offset; dropped when the map changes
+    private final WallTextures wallTextures;
+    private final WallChunkCache wallChunks;
+    private final PelletChunkCache pelletChunks;
+    private int boardMapVersion = -1;
+
+    // Level overview in the top-right corner of the view
+    private final Minimap minimap;
+
+    // The background is an animated gif; this observer counts its frames as they arrive
+    private final AtomicInteger backgroundFrame = new AtomicInteger();
+    private final ImageObserver backgroundObserver = (img, flags, x, y, w, h) -> {
+        if ((flags & (ImageObserver.FRAMEBITS | ImageObserver.ALLBITS)) != 0) backgroundFrame.incrementAndGet();
+        return (flags & (ImageObserver.ERROR | ImageObserver.ABORT)) == 0;
+    };
+
+    // Dirty tracking for partial repaints: what the last collected frame showed
+    private final DirtyTiles dirty;
+    private int[] lastBounds = new int[64]; // x, y, w, h per drawn actor, board pixels
+    private int lastBoundsCount;
+    private int dirtyMapVersion = -1;
+    private int dirtyFrame = -1;
+    private int collectedFrame = -1; // background frame the next drawGame must show, or -1
+    private int dirtyCamX = -1;
+    private int dirtyCamY = -1;
+    private int dirtyOverlay;
+    private boolean dirtyPaused;
+    private boolean dirtyMinimap;
+
+    // Bars redrawn by drawDirty: the HUD changed, or an actor reaches past the view
+    private boolean hudDirty;
+    private boolean lastSpilled;
+
+    // What the current frame had to build or rebuild, as LOAD_ flags
+    private int loads;
+    private int loadsAtlasVersion;
+
+    // HUD text and pieces: fonts made once, numbers written into a reused buffer and
+    // drawn from a glyph atlas, and the antialiased meters, bars and labels drawn once
+    // into images
+    private final Font scoreFont;
+    private final GlyphAtlas scoreText;
+    private final Font meterFont;
+    private final Font bossFont;
+    private final Font titleFont = new Font(Font.DIALOG, Font.BOLD, 56);
+    private final Font subtitleFont = new Font(Font.DIALOG, Font.PLAIN, 28);
+    private final char[] text = new char[32];
+    private BufferedImage meterFrame;
+    private final BufferedImage[] meterFills = new BufferedImage[SPRINT_COLORS.length];
+    private final BufferedImage[] meterLabels = new BufferedImage[SPRINT_LABELS.length];
+    private BufferedImage bossFrame;
+    private BufferedImage bossFill;
+    private final BufferedImage[] bossLabels = new BufferedImage[GameConstants.BOSS_LIVES + 1];
+    private BufferedImage overlayImage;
+    private int overlayKey;
+
+    // Retained HUD: the bar contents drawn into transparent layers that are composited
+    // over the bar strips, and redrawn only when a value they show changes
+    private BufferedImage topHud;
+    private BufferedImage bottomHud;
+    private Graphics2D topHudGraphics;
+    private Graphics2D bottomHudGraphics; // translated, so the bottom bar keeps screen coordinates
+    private int[] hudClear;               // zero pixels for emptying a layer
+    private boolean hudValid;
+    private int hudScore;
+    private int hudLevel;                 // -1 in endless mode
+    private int hudBossLives;             // -1 without a boss
+    private int hudPlayerCount;
+    private final int[] hudPlayers = new int[GameConstants.MAX_PLAYERS * 3]; // lives, knives, sprint
+
+    // Fog of war: visibility and light are precomputed per level, the mask is one unscaled blit per frame
+    private FogOfWar fog = new FogOfWar();
+    private final int[] fogOrigins = new int[GameConstants.MAX_PLAYERS];
+    private Future<FogOfWar> pendingFog;
+    private boolean[][] pendingFogGrid;
+
+    public Renderer(AssetManager assetManager, int tileSize) {
         this.assetManager = assetManager;
-        this.gameMap = gameMap;
+        this.atlas = assetManager.getAtlas();
         this.tileSize = tileSize;
 
-        // 1. Calculate dimensions here in the constructor
-        this.boardWidth  = tileSize * gameMap.getColumnCount();
-        this.boardHeight = tileSize * gameMap.getRowCount();
+        // 1. Calculate dimensions here in the constructor; the view is the same for every level
+        this.viewWidth   = tileSize * GameConstants.VIEW_COLUMNS;
+        this.viewHeight  = tileSize * GameConstants.VIEW_ROWS;
         this.topBarH     = Math.max(32, tileSize);
         this.bottomBarH  = Math.max(40, (int)(tileSize * 1.2));
-        this.totalH      = topBarH + boardHeight + bottomBarH;
+        this.totalH      = topBarH + viewHeight + bottomBarH;
+        this.camera      = new Camera(viewWidth, viewHeight, tileSize);
+        this.dirty       = new DirtyTiles(viewWidth, totalH, tileSize);
+        this.wallTextures = new WallTextures(assetManager.getWallImage(), tileSize);
+        this.wallChunks  = new WallChunkCache(wallTextures, tileSize);
+        this.pelletChunks = new PelletChunkCache(tileSize);
+        this.minimap     = new Minimap(tileSize, tileSize * 3);
+        this.scoreFont   = new Font("Arial", Font.BOLD, Math.max(18, tileSize / 2));
+        this.scoreText   = FontManager.getInstance().getAtlas(scoreFont, Color.WHITE);
+        this.meterFont   = new Font("Arial", Font.BOLD, Math.max(12, tileSize / 3));
+        this.bossFont    = new Font("Arial", Font.BOLD, Math.max(14, tileSize / 2));
+
+        // HUD icons at their bar-dependent sizes (see drawHUD / drawBossHud)
+        int iconH = (int) (bottomBarH * 0.8);
+        atlas.add(assetManager.getPacmanRightImage(), iconH, iconH);
+        atlas.add(assetManager.getKnifeHudImage(), iconH, iconH);
+        Image bossImg = assetManager.getBossImage();
+        if (bossImg != null) {
+            int bossIconH = Math.max(topBarH - Math.max(8, tileSize / 6) * 2, tileSize);
+            atlas.add(bossImg, bossIconH * bossImg.getWidth(null) / bossImg.getHeight(null), bossIconH);
+        }
+    }
+
+    /**
+     * Called once a level has been built; picks up the level's board size and does
+     * the per-level precomputation (visibility for the fog of war) so it never
+     * happens mid-frame. A fog already prepared for this level in the background
+     * is adopted as is.
+     */
+    public void prepareLevel(GameState state, FogOfWar preparedFog) {
+        if (state.walkableGrid != null) {
+            camera.setBoard(state.walkableGrid[0].length, state.walkableGrid.length);
+        }
+        if (preparedFog != null && preparedFog.isPrepared(state.walkableGrid)) {
+            preparedFog.takeMask(fog);
+            fog = preparedFog;
+        } else if (ModeManager.isFogOfWarEnabled() && state.walkableGrid != null) {
+            fog.prepare(state.walkableGrid);
+        }
+    }
+
+    /**
+     * The wall tiles every level is drawn and compiled with.
+     */
+    public WallTextures getWallTextures() {
+        return wallTextures;
     }
 
     public void drawGame(Graphics g, JPanel panel, GameState state) {
-        // 1. Draw Backgrounds (uses pre-calculated fields)
-        g.drawImage(assetManager.getBackgroundImage(), 0, 0, boardWidth, totalH, null);
-        drawBarBackgrounds(g);
-
-        // 2. Draw Game Entities
-        Graphics2D gm = (Graphics2D) g.create();
-        gm.translate(0, topBarH); // Use the field
-        drawEntities(gm, state);
-        gm.dispose();
-
-        // 3. Draw Animations
-        if (state.animations != null && !state.animations.isEmpty()) {
-            Graphics2D gAnim = (Graphics2D) g.create();
-            gAnim.translate(0, topBarH);
-            for (DeathAnimation da : state.animations) {
-                da.render(gAnim);
+        Graphics2D g2 = (Graphics2D) g;
+        camera.follow(state.players);
+
+        // ----------------------------
+        // Pause: the frame at the moment of pausing is captured once, using the
+        // normal draw routines, and the overlay draws its blurred version over
+        // everything. Nothing moves while paused, so the scene is not drawn again.
+        // ----------------------------
+        if (pauseManager.isPaused()) {
+            BufferedImage snap = pauseManager.getPauseSnapshot();
+            if (snap == null) {
+                loads |= LOAD_CACHE;
+                updateLayers(state);
+                snap = new BufferedImage(viewWidth, totalH, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D gs = snap.createGraphics();
+                drawScene(gs, state);
+                gs.dispose();
+                pauseManager.setPauseSnapshot(snap);
+            }
+            pauseOverlay.renderPaused(g2, snap, viewWidth, totalH);
+            return;
+        }
+        pauseOverlay.release();
+
+        updateLayers(state);
+        drawScene(g2, state);
+    }
+
+    /**
+     * Brings a buffer that still shows the previous frame up to date by redrawing
+     * only the tiles collectDirty reported. If the camera moved, the board part of
+     * the buffer is first shifted along with it. Each dirty rectangle is then
+     * composed again from the background layer and the wall and pellet chunks, the
+     * actors and the minimap are drawn over them, an overlay that is up is blended
+     * over each rectangle again, and the bars are drawn only when the HUD changed
+     * or an actor reaches into them. Nothing is clipped; whatever is drawn lands
+     * inside the dirty tiles. Only valid when the tiles are not full (collectDirty
+     * marks everything whenever the frame needs more than this, e.g. fog,
+     * animations or an overlay appearing).
+     */
+    public void drawDirty(Graphics g, GameState state, DirtyTiles dirty) {
+        Graphics2D g2 = (Graphics2D) g;
+        updateLayers(state);
+
+        if (dirty.isScrolled()) {
+            int sx = dirty.getScrollX();
+            int sy = dirty.getScrollY();
+            g2.copyArea(Math.max(0, sx), topBarH + Math.max(0, sy),
+                    viewWidth - Math.abs(sx), viewHeight - Math.abs(sy), -sx, -sy);
+        }
+
+        int[] rects = dirty.getRects();
+        int viewBottom = topBarH + viewHeight;
+        for (int i = 0, n = dirty.getRectCount() * 4; i < n; i += 4) {
+            int x0 = rects[i];
+            int y0 = rects[i + 1];
+            int x1 = x0 + rects[i + 2];
+            int y1 = y0 + rects[i + 3];
+            if (y0 < topBarH) {
+                int by1 = Math.min(y1, topBarH);
+                g2.drawImage(backgroundLayer, x0, y0, x1, by1, x0, y0, x1, by1, null);
+            }
+            if (y1 > viewBottom) {
+                int by0 = Math.max(y0, viewBottom);
+                g2.drawImage(backgroundLayer, x0, by0, x1, y1, x0, by0, x1, y1, null);
             }
-            gAnim.dispose();
+            int py0 = Math.max(y0, topBarH);
+            int py1 = Math.min(y1, viewBottom);
+            if (py1 > py0) composeBoard(g2, state, x0, py0, x1, py1);
         }
 
+        int camX = camera.getX();
+        int camY = camera.getY();
+        g2.translate(-camX, topBarH - camY);
+        drawActors(g2, state);
+        g2.translate(camX, camY - topBarH);
+
+        if (hudDirty) drawBarStrips(g2);
+        if (ModeManager.isMinimapEnabled()) drawMinimap(g2, state);
+
+        // An overlay that stays up is only blended again where something changed under it
+        int overlay = overlayFor(state);
+        if (overlay != 0) {
+            if (overlayImage == null || overlay != overlayKey) renderOverlay(state, overlay);
+            for (int i = 0, n = dirty.getRectCount() * 4; i < n; i += 4) {
+                int x0 = rects[i];
+                int y0 = rects[i + 1];
+                int x1 = x0 + rects[i + 2];
+                int y1 = y0 + rects[i + 3];
+                g2.drawImage(overlayImage, x0, y0, x1, y1, x0, y0, x1, y1, null);
+            }
+        }
+        if (hudDirty && (overlay == 0 || state.interLevel)) drawHudLayers(g2);
+    }
+
+    /**
+     * What the last frame had to load or build before it could be drawn from the
+     * caches, as LOAD_ flags; 0 for a frame that only used what was already there.
+     * Those frames allocate nothing, whatever moved, died or changed on the HUD.
+     */
+    public int getFrameLoads() {
+        return (atlas.getVersion() != loadsAtlasVersion) ? loads | LOAD_CACHE : loads;
+    }
+
+    // Everything that is cached between frames, updated to the current state
+    private void updateLayers(GameState state) {
+        // Before the pellet chunks take the pickups
+        if (ModeManager.isMinimapEnabled()) {
+            if (minimap.update(state)) loads |= LOAD_LEVEL;
+        } else {
+            minimap.invalidate();
+        }
+        updateBackgroundLayer();
+        updateBoardCaches(state);
+        collectedFrame = -1;
+    }
+
+    // A whole frame from the layers updateLayers has prepared
+    private void drawScene(Graphics2D g, GameState state) {
+        // 1. Draw the board under the view: background, walls and pellets from their caches
+        composeBoard(g, state, 0, topBarH, viewWidth, topBarH + viewHeight);
+
+        // 2. Draw Game Entities, animations and the darkness, in board coordinates
+        int camX = camera.getX();
+        int camY = camera.getY();
+        g.translate(-camX, topBarH - camY);
+        drawActors(g, state);
+        if (ModeManager.isInfluenceOverlayEnabled()) drawInfluenceOverlay(g, state.influence);
+        if (state.animations != null) {
+            for (int i = 0; i < state.animations.size(); i++) state.animations.get(i).render(g);
+        }
+        if (ModeManager.isFogOfWarEnabled()) drawFog(g, state);
+        g.translate(camX, camY - topBarH);
+
+        // 3. The bars, which also cover whatever went past the view edges
+        drawBarStrips(g);
+        if (ModeManager.isMinimapEnabled()) drawMinimap(g, state);
+
         // 4. Draw HUD
         drawHUD(g, state);
+    }
 
-        // ----------------------------
-        // Pause snapshot capture + overlay
-        // Inserted here so it's executed after the normal frame has been drawn,
-        // but before the buffer is shown. Uses the existing draw routines to
-        // produce a snapshot that matches the on-screen content.
-        // ----------------------------
-        {
-            Graphics2D g2 = (g instanceof Graphics2D) ? (Graphics2D) g : (Graphics2D) g.create();
+    // The bar backgrounds, without clipping the board drawing
+    private void drawBarStrips(Graphics2D g) {
+        int bottom = topBarH + viewHeight;
+        g.drawImage(backgroundLayer, 0, 0, viewWidth, topBarH, 0, 0, viewWidth, topBarH, null);
+        g.drawImage(backgroundLayer, 0, bottom, viewWidth, totalH, 0, bottom, viewWidth, totalH, null);
+    }
 
-            // Capture snapshot once when entering pause
-            if (pauseManager.isPaused() && pauseManager.getPauseSnapshot() == null) {
-                BufferedImage snap = new BufferedImage(boardWidth, totalH, BufferedImage.TYPE_INT_ARGB);
-                Graphics2D gs = snap.createGraphics();
+    /**
+     * Works out which screen tiles the next drawGame changes compared with the frame
+     * collected before it: old and new actor bounds, picked-up food and knives, and
+     * the bars when the HUD values changed (the HUD layers are redrawn here). A camera
+     * move is recorded as a scroll of the board, and only the strips it exposes and
+     * the minimap, which stays put on screen, are marked on top. Anything that
+     * changes the whole picture (map, background frame, fog, an overlay appearing or
+     * changing, animations, pausing, a jump of the camera by a view or more) marks
+     * everything; a frame that stays paused marks nothing. The marked tiles come back
+     * already collected into rectangles. Call before drawGame or drawDirty.
+     */
+    public DirtyTiles collectDirty(GameState state) {
+        camera.follow(state.players);
+        dirty.clear();
+        loads = 0;
+        loadsAtlasVersion = atlas.getVersion();
+        int camX = camera.getX();
+        int camY = camera.getY();
+
+        boolean paused = pauseManager.isPaused();
+        int frame = backgroundFrame.get();
+        boolean hudChanged = updateHudLayers(state);
+        int overlay = overlayFor(state);
+        boolean showMinimap = ModeManager.isMinimapEnabled();
+        boolean spilled = lastSpilled;
+        int scrollX = camX - dirtyCamX;
+        int scrollY = camY - dirtyCamY;
+        boolean moved = scrollX != 0 || scrollY != 0;
+        if (paused) {
+            if (!dirtyPaused) dirty.markAll();
+        } else if (dirtyPaused || showMinimap != dirtyMinimap || state.mapVersion != dirtyMapVersion || frame != dirtyFrame
+                || overlay != dirtyOverlay || (moved && overlay != 0)
+                || Math.abs(scrollX) >= viewWidth || Math.abs(scrollY) >= viewHeight
+                || ModeManager.isFogOfWarEnabled() || ModeManager.isInfluenceOverlayEnabled()
+                || (state.animations != null && !state.animations.isEmpty())) {
+            dirty.markAll();
+        } else {
+            if (moved) markScroll(scrollX, scrollY, showMinimap);
+            for (int i = 0; i < lastBoundsCount; i += 4) {
+                markBoard(lastBounds[i], lastBounds[i + 1], lastBounds[i + 2], lastBounds[i + 3]);
+            }
+            for (int i = 0; i < state.removedPickups.size(); i++) {
+                Entity pickup = state.removedPickups.get(i);
+                markBoard(pickup.x, pickup.y, pickup.width, pickup.height);
+            }
+            // Its markers move with the actors; border and markers reach 2 px past the box
+            if (showMinimap) {
+                dirty.mark(minimapX() - 2, minimapY() - 2, minimap.getWidth() + 4, minimap.getHeight() + 4);
+            }
+        }
+
+        // Where the actors are drawn this frame; marked now and again next frame
+        lastBoundsCount = 0;
+        lastSpilled = false;
+        recordBounds(state.ghosts);
+        if (state.boss != null)              recordBounds(state.boss);
+        recordBounds(state.projectiles);
+        for (int i = 0; i < state.players.size(); i++) {
+            Player player = state.players.get(i);
+            if (player.isActive())           recordBounds(player.actor);
+        }
+        if (!paused) {
+            for (int i = 0; i < lastBoundsCount; i += 4) {
+                markBoard(lastBounds[i], lastBounds[i + 1], lastBounds[i + 2], lastBounds[i + 3]);
+            }
+        }
+
+        // Actors are drawn unclipped, so one reaching into a bar (now or last frame) redraws the bars
+        hudDirty = hudChanged || spilled || lastSpilled;
+        if (hudDirty && !paused) {
+            dirty.mark(0, 0, viewWidth, topBarH);
+            dirty.mark(0, topBarH + viewHeight, viewWidth, bottomBarH);
+        }
+
+        dirtyMapVersion = state.mapVersion;
+        dirtyFrame = frame;
+        collectedFrame = frame;
+        dirtyCamX = camX;
+        dirtyCamY = camY;
+        dirtyOverlay = overlay;
+        dirtyPaused = paused;
+        dirtyMinimap = showMinimap;
+        dirty.collectRects();
+        return dirty;
+    }
+
+    /**
+     * The board moved by (-sx, -sy) on screen: drawDirty shifts what the buffer shows,
+     * which leaves the strips along the edges it moved away from to be drawn, and
+     * the minimap, drawn over the board, both where it is and where the shift took
+     * its old picture. The actors are marked at their board positions as usual,
+     * which is where the shift takes their old pictures too.
+     */
+    private void markScroll(int sx, int sy, boolean showMinimap) {
+        dirty.scroll(sx, sy);
+        if (sx > 0) markView(viewWidth - sx, topBarH, sx, viewHeight);
+        if (sx < 0) markView(0, topBarH, -sx, viewHeight);
+        if (sy > 0) markView(0, topBarH + viewHeight - sy, viewWidth, sy);
+        if (sy < 0) markView(0, topBarH, viewWidth, -sy);
+        if (showMinimap) {
+            markView(minimapX() - 2 - sx, minimapY() - 2 - sy, minimap.getWidth() + 4, minimap.getHeight() + 4);
+        }
+    }
+
+    // Screen rectangle to screen tiles, limited to the view (the shift never reaches the bars)
+    private void markView(int x, int y, int w, int h) {
+        int x0 = Math.max(0, x);
+        int y0 = Math.max(topBarH, y);
+        int x1 = Math.min(viewWidth, x + w);
+        int y1 = Math.min(topBarH + viewHeight, y + h);
+        if (x1 > x0 && y1 > y0) dirty.mark(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    // Indexed loops over the actor lists: no iterator per frame
+    private void recordBounds(List<Actor> actors) {
+        for (int i = 0; i < actors.size(); i++) recordBounds(actors.get(i));
+    }
+
+    private void recordBounds(Actor a) {
+        if (lastBoundsCount + 4 > lastBounds.length) {
+            loads |= LOAD_CACHE;
+            lastBounds = Arrays.copyOf(lastBounds, lastBounds.length * 2);
+        }
+        lastBounds[lastBoundsCount++] = a.x;
+        lastBounds[lastBoundsCount++] = a.y;
+        lastBounds[lastBoundsCount++] = a.width;
+        lastBounds[lastBoundsCount++] = a.height;
+        if (camera.isVisible(a.x, a.y, a.width, a.height)
+                && (a.y < camera.getY() || a.y + a.height > camera.getY() + viewHeight)) {
+            lastSpilled = true;
+        }
+    }
+
+    // Board rectangle to screen tiles, limited to the view
+    private void markBoard(int x, int y, int w, int h) {
+        int camX = camera.getX();
+        int camY = camera.getY();
+        int x0 = Math.max(camX, x);
+        int y0 = Math.max(camY, y);
+        int x1 = Math.min(camX + viewWidth, x + w);
+        int y1 = Math.min(camY + viewHeight, y + h);
+        if (x1 > x0 && y1 > y0) dirty.mark(x0 - camX, y0 - camY + topBarH, x1 - x0, y1 - y0);
+    }
+
+    private void updateBackgroundLayer() {
+        if (backgroundLayer == null) {
+            backgroundLayer = SpriteAtlas.createCompatibleImage(viewWidth, totalH, Transparency.OPAQUE);
+            backgroundGraphics = backgroundLayer.createGraphics();
+        }
 
-                // Replicate the same drawing steps into the snapshot so it matches on-screen.
-                gs.drawImage(assetManager.getBackgroundImage(), 0, 0, boardWidth, totalH, null);
-                drawBarBackgrounds(gs);
+        // Stick to the frame collectDirty saw; a newer one would be drawn only in the dirty tiles
+        int frame = (collectedFrame >= 0) ? collectedFrame : backgroundFrame.get();
+        if (frame != backgroundLayerFrame) {
+            loads |= LOAD_BACKGROUND;
+            Graphics2D gs = backgroundGraphics;
+            gs.setColor(Color.LIGHT_GRAY);
+            gs.fillRect(0, 0, viewWidth, totalH);
+            gs.drawImage(assetManager.getBackgroundImage(), 0, 0, viewWidth, totalH, backgroundObserver);
+            gs.setColor(BAR_BACKGROUND);
+            gs.fillRect(0, 0, viewWidth, topBarH);
+            gs.fillRect(0, topBarH + viewHeight, viewWidth, bottomBarH);
+            backgroundLayerFrame = frame;
+        }
+    }
 
-                Graphics2D gmSnap = (Graphics2D) gs.create();
-                gmSnap.translate(0, topBarH);
-                drawEntities(gmSnap, state);
-                gmSnap.dispose();
+    // Chunks for a new map, eaten pickups cleared out of the pellet chunks, wall chunks queued around the view
+    private void updateBoardCaches(GameState state) {
+        if (state.mapVersion != boardMapVersion) {
+            loads |= LOAD_LEVEL;
+            if (state.tiles != null) wallChunks.setTiles(state.tiles);
+            pelletChunks.reset(camera.getBoardWidth(), camera.getBoardHeight());
+            boardMapVersion = state.mapVersion;
+            state.removedPickups.clear();
+        } else if (!state.removedPickups.isEmpty()) {
+            for (int i = 0; i < state.removedPickups.size(); i++) {
+                Entity pickup = state.removedPickups.get(i);
+                pelletChunks.clear(pickup.x, pickup.y, pickup.width, pickup.height);
+            }
+            state.removedPickups.clear();
+        }
+        if (wallChunks.collectBuilt()) loads |= LOAD_CHUNK;
+        if (state.tiles == null) return;
 
-                if (state.animations != null && !state.animations.isEmpty()) {
-                    Graphics2D gAnimSnap = (Graphics2D) gs.create();
-                    gAnimSnap.translate(0, topBarH);
-                    for (DeathAnimation da : state.animations) {
-                        da.render(gAnimSnap);
+        // Get the ring around the view going before the camera reaches it
+        int size = WallChunkCache.CHUNK_TILES;
+        int row1 = camera.lastRow(state.tiles.getRows()) / size + 1;
+        int col1 = camera.lastColumn(state.tiles.getColumns()) / size + 1;
+        for (int cr = camera.firstRow() / size - 1; cr <= row1; cr++) {
+            for (int cc = camera.firstColumn() / size - 1; cc <= col1; cc++) {
+                if (wallChunks.request(cr, cc)) loads |= LOAD_CHUNK;
+            }
+        }
+    }
+
+    /**
+     * The board under a screen rectangle of the view: the background, walls and
+     * pellets, each cut out of its cached image at the camera offset. The
+     * background image is repeated over the board in view-sized cells, so it
+     * scrolls with the walls and a camera move only exposes strips at the edges.
+     */
+    private void composeBoard(Graphics2D g, GameState state, int x0, int y0, int x1, int y1) {
+        // Board pixel = screen pixel + (dx, dy)
+        int dx = camera.getX();
+        int dy = camera.getY() - topBarH;
+        int bx0 = x0 + dx;
+        int by0 = y0 + dy;
+        int bx1 = x1 + dx;
+        int by1 = y1 + dy;
+
+        for (int cy = by0 / viewHeight * viewHeight; cy < by1; cy += viewHeight) {
+            for (int cx = bx0 / viewWidth * viewWidth; cx < bx1; cx += viewWidth) {
+                int px0 = Math.max(bx0, cx);
+                int py0 = Math.max(by0, cy);
+                int px1 = Math.min(bx1, cx + viewWidth);
+                int py1 = Math.min(by1, cy + viewHeight);
+                g.drawImage(backgroundLayer, px0 - dx, py0 - dy, px1 - dx, py1 - dy,
+                        px0 - cx, py0 - cy + topBarH, px1 - cx, py1 - cy + topBarH, null);
+            }
+        }
+
+        TileGrid tiles = state.tiles;
+        if (tiles == null) {
+            drawWallEntities(g, state, bx0, by0, bx1, by1, dx, dy);
+        } else {
+            int size = WallChunkCache.CHUNK_TILES * tileSize;
+            for (int cy = by0 / size * size; cy < by1; cy += size) {
+                for (int cx = bx0 / size * size; cx < bx1; cx += size) {
+                    BufferedImage chunk = wallChunks.getChunk(cy / size, cx / size);
+                    if (chunk != null) {
+                        blitChunk(g, chunk, cx, cy, bx0, by0, bx1, by1, dx, dy);
+                    } else {
+                        drawWallTiles(g, tiles, Math.max(bx0, cx), Math.max(by0, cy),
+                                Math.min(bx1, cx + size), Math.min(by1, cy + size), dx, dy);
                     }
-                    gAnimSnap.dispose();
                 }
+            }
+        }
 
-                // Draw HUD into snapshot as well (omit if you want HUD sharp)
-                drawHUD(gs, state);
+        int size = pelletChunks.getChunkSize();
+        for (int cy = by0 / size * size; cy < by1; cy += size) {
+            for (int cx = bx0 / size * size; cx < bx1; cx += size) {
+                BufferedImage chunk = pelletChunks.getChunk(cy / size, cx / size);
+                if (chunk == null) chunk = drawPelletChunk(state, cy / size, cx / size);
+                if (chunk != null) blitChunk(g, chunk, cx, cy, bx0, by0, bx1, by1, dx, dy);
+            }
+        }
+    }
 
-                gs.dispose();
-                pauseManager.setPauseSnapshot(snap);
+    // The part of a chunk at board (cx, cy) inside the board rectangle, drawn at the camera offset
+    private static void blitChunk(Graphics2D g, BufferedImage chunk, int cx, int cy,
+                                  int bx0, int by0, int bx1, int by1, int dx, int dy) {
+        int px0 = Math.max(bx0, cx);
+        int py0 = Math.max(by0, cy);
+        int px1 = Math.min(bx1, cx + chunk.getWidth());
+        int py1 = Math.min(by1, cy + chunk.getHeight());
+        if (px1 <= px0 || py1 <= py0) return;
+        g.drawImage(chunk, px0 - dx, py0 - dy, px1 - dx, py1 - dy, px0 - cx, py0 - cy, px1 - cx, py1 - cy, null);
+    }
+
+    // Wall tiles of a chunk that is not built yet, clipped to the board rectangle
+    private void drawWallTiles(Graphics2D g, TileGrid tiles, int bx0, int by0, int bx1, int by1, int dx, int dy) {
+        loads |= LOAD_CHUNK;
+        Shape clip = g.getClip();
+        g.clipRect(bx0 - dx, by0 - dy, bx1 - bx0, by1 - by0);
+        g.translate(-dx, -dy);
+        int row1 = Math.min(tiles.getRows() - 1, (by1 - 1) / tileSize);
+        int col1 = Math.min(tiles.getColumns() - 1, (bx1 - 1) / tileSize);
+        for (int r = by0 / tileSize; r <= row1; r++) {
+            for (int c = bx0 / tileSize; c <= col1; c++) {
+                if (tiles.isWall(r, c)) g.drawImage(wallTextures.get(tiles.wallMask(r, c)), c * tileSize, r * tileSize, null);
             }
+        }
+        g.translate(dx, dy);
+        g.setClip(clip);
+    }
 
-            // If paused, draw overlay on top of current frame
-            if (pauseManager.isPaused()) {
-                BufferedImage snap = pauseManager.getPauseSnapshot();
-                if (snap != null) {
-                    pauseOverlay.renderPaused(g2, snap, boardWidth, totalH);
-                } else {
-                    Composite old = g2.getComposite();
-                    g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
-                    g2.setColor(Color.BLACK);
-                    g2.fillRect(0, 0, boardWidth, totalH);
-                    g2.setComposite(old);
-                    g2.setColor(Color.WHITE);
-                    g2.setFont(new Font("SansSerif", Font.BOLD, 48));
-                    FontMetrics fm = g2.getFontMetrics();
-                    String paused = "PAUSED";
-                    int px = (boardWidth - fm.stringWidth(paused)) / 2;
-                    int py = topBarH + boardHeight / 2;
-                    g2.drawString(paused, px, py);
+    // A level without a tile grid keeps its walls as entities only
+    private void drawWallEntities(Graphics2D g, GameState state, int bx0, int by0, int bx1, int by1, int dx, int dy) {
+        loads |= LOAD_CHUNK;
+        Shape clip = g.getClip();
+        g.clipRect(bx0 - dx, by0 - dy, bx1 - bx0, by1 - by0);
+        g.translate(-dx, -dy);
+        for (Entity wall : state.walls) drawVisible(g, wall);
+        g.translate(dx, dy);
+        g.setClip(clip);
+    }
+
+    // Draws a pellet chunk the cache does not have yet; null if it lies off the board
+    private BufferedImage drawPelletChunk(GameState state, int chunkRow, int chunkCol) {
+        Graphics2D g = pelletChunks.newChunk(chunkRow, chunkCol);
+        if (g == null) return null;
+        loads |= LOAD_CHUNK;
+        int size = pelletChunks.getChunkSize();
+        int x0 = chunkCol * size;
+        int y0 = chunkRow * size;
+        if (state.maze == null) {
+            for (Entity food : state.foods) {
+                if (overlaps(food, x0, y0, size)) drawEntity(g, food);
+            }
+        } else {
+            drawPellets(g, state, y0 / tileSize, x0 / tileSize,
+                    Math.min(state.maze.getRows(), (y0 + size) / tileSize) - 1,
+                    Math.min(state.maze.getColumns(), (x0 + size) / tileSize) - 1);
+        }
+        for (Entity knife : state.knives) {
+            if (overlaps(knife, x0, y0, size)) drawEntity(g, knife);
+        }
+        return pelletChunks.getChunk(chunkRow, chunkCol);
+    }
+
+    private static boolean overlaps(Entity e, int x, int y, int size) {
+        return e.x < x + size && e.x + e.width > x && e.y < y + size && e.y + e.height > y;
+    }
+
+    // Pellets of a tile range (inclusive), read from the pellet bitboard
+    private void drawPellets(Graphics2D g, GameState state, int row0, int col0, int row1, int col1) {
+        Image foodImage = assetManager.getFoodImage();
+        int foodW = assetManager.getFoodWidth();
+        int foodH = assetManager.getFoodHeight();
+        for (int r = row0; r <= row1; r++) {
+            for (int c = col0; c <= col1; c++) {
+                if (!state.maze.hasPellet(r, c)) continue;
+                atlas.draw(g, foodImage, c * tileSize + (tileSize - foodW) / 2, r * tileSize + (tileSize - foodH) / 2, foodW, foodH);
+            }
+        }
+    }
+
+    private void drawActors(Graphics2D g2d, GameState state) {
+        drawVisible(g2d, state.ghosts);
+        if (state.boss != null)               drawVisible(g2d, state.boss);
+        drawVisible(g2d, state.projectiles);
+        for (int i = 0; i < state.players.size(); i++) {
+            Player player = state.players.get(i);
+            if (player.isActive())            drawVisible(g2d, player.actor);
+        }
+    }
+
+    private void drawVisible(Graphics2D g2d, List<Actor> actors) {
+        for (int i = 0; i < actors.size(); i++) drawVisible(g2d, actors.get(i));
+    }
+
+    private void drawInfluenceOverlay(Graphics2D g, InfluenceMap influence) {
+        int rows = influence.getRows();
+        int cols = influence.getColumns();
+        if (rows == 0 || cols == 0) return;
+
+        // Only the tiles under the view; room for one more each way, as the span moves with the camera
+        int col0 = camera.firstColumn();
+        int row0 = camera.firstRow();
+        int col1 = camera.lastColumn(cols) + 1;
+        int row1 = camera.lastRow(rows) + 1;
+        if (influenceImage == null || (col1 - col0) * tileSize > influenceImage.getWidth()
+                || (row1 - row0) * tileSize > influenceImage.getHeight()) {
+            loads |= LOAD_CACHE;
+            influenceImage = new BufferedImage(Math.min(cols, col1 - col0 + 1) * tileSize,
+                    Math.min(rows, row1 - row0 + 1) * tileSize, BufferedImage.TYPE_INT_ARGB);
+            influencePixels = ((DataBufferInt) influenceImage.getRaster().getDataBuffer()).getData();
+            influenceRows = -1;
+        }
+        if (row0 != influenceRow0 || col0 != influenceCol0 || row1 - row0 != influenceRows || col1 - col0 != influenceCols) {
+            influenceRow0 = row0;
+            influenceCol0 = col0;
+            influenceRows = row1 - row0;
+            influenceCols = col1 - col0;
+            drawInfluenceTiles(influence, row0, col0, row1 - 1, col1 - 1);
+        } else if (influence.getDirtyRow0() <= influence.getDirtyRow1()) {
+            // Only the tiles stamped since the last frame
+            drawInfluenceTiles(influence, Math.max(row0, influence.getDirtyRow0()), Math.max(col0, influence.getDirtyCol0()),
+                    Math.min(row1 - 1, influence.getDirtyRow1()), Math.min(col1 - 1, influence.getDirtyCol1()));
+        }
+        influence.clearDirty();
+
+        int w = influenceCols * tileSize;
+        int h = influenceRows * tileSize;
+        g.drawImage(influenceImage, col0 * tileSize, row0 * tileSize, col0 * tileSize + w, row0 * tileSize + h, 0, 0, w, h, null);
+    }
+
+    // Fills whole tiles straight into the raster: red = danger, green = pellet value, blue = knife value
+    private void drawInfluenceTiles(InfluenceMap influence, int row0, int col0, int row1, int col1) {
+        int width = influenceImage.getWidth();
+        for (int r = row0; r <= row1; r++) {
+            for (int c = col0; c <= col1; c++) {
+                int red = toChannel(influence.danger(r, c));
+                int green = toChannel(influence.pelletValue(r, c) / 4f);
+                int blue = toChannel(influence.knifeValue(r, c) / 4f);
+                int alpha = Math.max(red, Math.max(green, blue)) * 3 / 4;
+                int argb = (alpha << 24) | (red << 16) | (green << 8) | blue;
+                int start = (r - influenceRow0) * tileSize * width + (c - influenceCol0) * tileSize;
+                for (int y = 0; y < tileSize; y++, start += width) {
+                    Arrays.fill(influencePixels, start, start + tileSize, argb);
                 }
             }
         }
     }
 
-    private void drawBarBackgrounds(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setColor(new Color(0, 0, 0, 200));
-        g2.fillRect(0, 0, boardWidth, topBarH);
-        g2.fillRect(0, topBarH + boardHeight, boardWidth, bottomBarH);
-        g2.dispose();
+    // g is in board coordinates
+    private void drawFog(Graphics2D g, GameState state) {
+        if (state.walkableGrid == null) return;
+        if (!fog.isPrepared(state.walkableGrid)) {
+            loads |= LOAD_LEVEL; // handing the visibility over from the background thread
+            if (!adoptPreparedFog(state.walkableGrid)) return;
+        }
+
+        int cols = fog.getColumns();
+        int count = 0;
+        for (int i = 0; i < state.players.size(); i++) {
+            Player player = state.players.get(i);
+            if (!player.isActive()) continue;
+            Actor a = player.actor;
+            int row = Math.max(0, Math.min(state.walkableGrid.length - 1, (a.y + a.height / 2) / tileSize));
+            int col = Math.max(0, Math.min(cols - 1, (a.x + a.width / 2) / tileSize));
+            fogOrigins[count++] = row * cols + col;
+        }
+        if (count == 0) return;
+
+        // The darkness covers the tiles under the view; its image is only allocated once
+        int rows = state.walkableGrid.length;
+        if (fog.draw(g, fogOrigins, count, tileSize, camera.firstRow(), camera.firstColumn(),
+                camera.lastRow(rows) + 1, camera.lastColumn(cols) + 1)) {
+            loads |= LOAD_CACHE;
+        }
+    }
+
+    /**
+     * Fog switched on mid-level: its visibility is computed on FOG_PREPARER rather
+     * than in the middle of a frame, and the level stays lit until it is ready.
+     * Returns whether the fog can be drawn now.
+     */
+    private boolean adoptPreparedFog(boolean[][] walkableGrid) {
+        if (pendingFog == null || pendingFogGrid != walkableGrid) {
+            if (pendingFog != null) pendingFog.cancel(false);
+            pendingFogGrid = walkableGrid;
+            pendingFog = FOG_PREPARER.submit(() -> {
+                FogOfWar prepared = new FogOfWar();
+                prepared.prepare(walkableGrid);
+                return prepared;
+            });
+        }
+        if (!pendingFog.isDone()) return false;
+        try {
+            FogOfWar prepared = pendingFog.get();
+            prepared.takeMask(fog);
+            fog = prepared;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Left unprepared; the next frame asks again
+        }
+        pendingFog = null;
+        pendingFogGrid = null;
+        return fog.isPrepared(walkableGrid);
     }
 
-    private void drawEntities(Graphics2D g2d, GameState state) {
-        for (Entity wall : state.walls)       drawEntity(g2d, wall);
-        for (Entity food : state.foods)       drawEntity(g2d, food);
-        for (Entity knife : state.knives)     drawEntity(g2d, knife);
-        for (Actor ghost : state.ghosts)      drawActor(g2d, ghost);
-        if (state.boss != null)               drawActor(g2d, state.boss);
-        for (Actor proj : state.projectiles)  drawActor(g2d, proj);
-        if (state.pacman != null)             drawActor(g2d, state.pacman);
+    private void drawMinimap(Graphics2D g, GameState state) {
+        minimap.draw(g, state, camera, minimapX(), minimapY(), !ModeManager.isFogOfWarEnabled());
     }
 
-    private void drawEntity(Graphics2D g, Entity e) {
-        if (e.image != null) g.drawImage(e.image, e.x, e.y, e.width, e.height, null);
+    private int minimapX() {
+        return viewWidth - Math.max(8, tileSize / 6) - minimap.getWidth();
     }
-    private void drawActor(Graphics2D g, Actor a) {
-        if (a.image != null) g.drawImage(a.image, a.x, a.y, a.width, a.height, null);
+
+    private int minimapY() {
+        return topBarH + Math.max(8, tileSize / 6);
     }
 
-    private void drawHUD(Graphics g, GameState state) {
-        int pad = Math.max(8, tileSize / 6);
+    private static int toChannel(float value) {
+        return Math.max(0, Math.min(255, (int) (value * 255f)));
+    }
+
+    private void drawEntity(Graphics2D g, Entity e) {
+        atlas.draw(g, e.image, e.x, e.y, e.width, e.height);
+    }
+    // Culled against the camera; most actors of a big map are off screen
+    private void drawVisible(Graphics2D g, Entity e) {
+        if (camera.isVisible(e.x, e.y, e.width, e.height)) drawEntity(g, e);
+    }
 
+    private void drawHUD(Graphics2D g, GameState state) {
         // Overlays (Game Over / Level Up)
-        if (state.gameOver || state.gameWon || state.interLevel) {
-            Graphics2D g2 = (Graphics2D) g.create();
-            g2.setColor(new Color(0, 0, 0, 140));
-            g2.fillRect(0, 0, boardWidth, totalH);
-
-            String title = state.gameOver ? "GAME OVER" : (state.gameWon ? "YOU WIN!" : ("Level " + (state.nextLevelToStart > 0 ? state.nextLevelToStart : state.currentLevel + 1)));
-            float titleSize = 56f;
-
-            g2.setFont(g2.getFont().deriveFont(Font.BOLD, titleSize));
-            FontMetrics fm = g2.getFontMetrics();
-            int tx = (boardWidth - fm.stringWidth(title)) / 2;
-            int ty = topBarH + boardHeight / 2 - fm.getHeight();
-            g2.setColor(Color.WHITE);
-            g2.drawString(title, tx, ty);
-
-            if (!state.interLevel) {
-                String sub = "Press any key to restart";
-                g2.setFont(g2.getFont().deriveFont(Font.PLAIN, 28f));
-                FontMetrics fm2 = g2.getFontMetrics();
-                int sx = (boardWidth - fm2.stringWidth(sub)) / 2;
-                int sy = ty + fm.getHeight() + 40;
-                g2.drawString(sub, sx, sy);
-            }
-            g2.dispose();
+        if (overlayFor(state) != 0) {
+            drawOverlay(g, state);
             if (!state.interLevel) return;
         }
+        updateHudLayers(state);
+        drawHudLayers(g);
+    }
+
+    private void drawHudLayers(Graphics2D g) {
+        g.drawImage(topHud, 0, 0, null);
+        g.drawImage(bottomHud, 0, topBarH + viewHeight, null);
+    }
+
+    /**
+     * Redraws the HUD layers whose values changed since they were last drawn and
+     * returns whether any did. The layers are emptied through their rasters and
+     * drawn with image blits only, so a redraw allocates nothing.
+     */
+    private boolean updateHudLayers(GameState state) {
+        if (topHud == null) {
+            loads |= LOAD_CACHE;
+            topHud = SpriteAtlas.createCompatibleImage(viewWidth, topBarH, Transparency.TRANSLUCENT);
+            bottomHud = SpriteAtlas.createCompatibleImage(viewWidth, bottomBarH, Transparency.TRANSLUCENT);
+            topHudGraphics = topHud.createGraphics();
+            bottomHudGraphics = bottomHud.createGraphics();
+            bottomHudGraphics.translate(0, -(topBarH + viewHeight));
+            hudClear = new int[viewWidth * Math.max(topBarH, bottomBarH)];
+            hudValid = false;
+        }
+        int pad = Math.max(8, tileSize / 6);
+        boolean changed = false;
 
-        Graphics2D g2 = (Graphics2D) g.create();
+        int level = (state.endlessWorld != null) ? -1 : state.currentLevel;
+        int bossLives = (state.boss != null) ? state.boss.getLives() : -1;
+        if (!hudValid || state.score != hudScore || level != hudLevel || bossLives != hudBossLives) {
+            topHud.getRaster().setDataElements(0, 0, viewWidth, topBarH, hudClear);
+            drawTopBar(topHudGraphics, state, pad);
+            hudScore = state.score;
+            hudLevel = level;
+            hudBossLives = bossLives;
+            changed = true;
+        }
+        if (recordPlayers(state) || !hudValid) {
+            bottomHud.getRaster().setDataElements(0, 0, viewWidth, bottomBarH, hudClear);
+            drawBottomBar(bottomHudGraphics, state, pad);
+            changed = true;
+        }
+        hudValid = true;
+        return changed;
+    }
+
+    // Stores what the bottom bar shows of each player; true if anything differs from before
+    private boolean recordPlayers(GameState state) {
+        int count = Math.min(state.players.size(), GameConstants.MAX_PLAYERS);
+        boolean changed = count != hudPlayerCount;
+        hudPlayerCount = count;
+        for (int p = 0, i = 0; p < count; p++, i += 3) {
+            Player player = state.players.get(p);
+            int sprint = player.sprintActive ? player.sprintTicksRemaining + 1000 : player.sprintCooldownTicks;
+            changed |= hudPlayers[i] != player.lives || hudPlayers[i + 1] != player.knifeCount || hudPlayers[i + 2] != sprint;
+            hudPlayers[i] = player.lives;
+            hudPlayers[i + 1] = player.knifeCount;
+            hudPlayers[i + 2] = sprint;
+        }
+        return changed;
+    }
 
+    // Score, level and the boss bar
+    private void drawTopBar(Graphics2D g, GameState state, int pad) {
         // Score
-        g2.setFont(new Font("Arial", Font.BOLD, Math.max(18, tileSize / 2)));
-        String scoreText = String.valueOf(state.score);
-        FontMetrics fm = g2.getFontMetrics();
-        int ty = (topBarH - fm.getHeight()) / 2 + fm.getAscent();
-        g2.setColor(Color.WHITE);
-        g2.drawString(scoreText, pad, ty);
+        int ty = (topBarH - scoreText.getHeight()) / 2 + scoreText.getAscent();
+        int len = put(text, 0, state.score);
+        scoreText.drawChars(g, text, 0, len, pad, ty);
 
         // Level
-        String levelText = "Level " + state.currentLevel;
-        int tx = boardWidth - pad - fm.stringWidth(levelText);
-        g2.drawString(levelText, tx, ty);
+        len = (state.endlessWorld != null) ? put(text, 0, ENDLESS) : put(text, put(text, 0, LEVEL), state.currentLevel);
+        int tx = viewWidth - pad - scoreText.charsWidth(text, 0, len);
+        scoreText.drawChars(g, text, 0, len, tx, ty);
 
         // Boss HUD in top bar
         if (state.boss != null) {
-            drawBossHud(g2, state, pad);
+            drawBossHud(g, state, pad);
         }
+    }
 
+    // Lives, knives and sprint meters, in screen coordinates
+    private void drawBottomBar(Graphics2D g, GameState state, int pad) {
         // Bottom Bar Icons
         int iconH = (int) (bottomBarH * 0.8);
         int gap   = Math.max(6, tileSize / 6);
-        int baseY = topBarH + boardHeight + (bottomBarH - iconH) / 2;
+        int baseY = topBarH + viewHeight + (bottomBarH - iconH) / 2;
 
-        // Lives
+        // Lives (left) and Knives (right), one group per player separated by a wider gap
         Image lifeIcon = assetManager.getPacmanRightImage();
-        int count = Math.max(0, state.lives);
+        Image knifeIcon = assetManager.getKnifeHudImage();
         int x = pad;
-        for (int i = 0; i < count; i++) {
-            if (lifeIcon != null) g2.drawImage(lifeIcon, x, baseY, iconH, iconH, null);
-            x += iconH + gap;
+        int kx = viewWidth - pad - iconH;
+        for (int p = 0; p < state.players.size(); p++) {
+            Player player = state.players.get(p);
+            int count = Math.max(0, player.lives);
+            for (int i = 0; i < count; i++) {
+                atlas.draw(g, lifeIcon, x, baseY, iconH, iconH);
+                x += iconH + gap;
+            }
+            x += gap * 2;
+
+            int kCount = Math.max(0, player.knifeCount);
+            for (int i = 0; i < kCount; i++) {
+                atlas.draw(g, knifeIcon, kx, baseY, iconH, iconH);
+                kx -= iconH + gap;
+            }
+            kx -= gap * 2;
         }
 
-        // Knives
-        Image knifeIcon = assetManager.getKnifeHudImage();
-        int kCount = Math.max(0, state.knifeCount);
-        int kx = boardWidth - pad - iconH;
-        for (int i = 0; i < kCount; i++) {
-            if (knifeIcon != null) g2.drawImage(knifeIcon, kx, baseY, iconH, iconH, null);
-            kx -= iconH + gap;
+        // Sprint Meter (split into one segment per player)
+        int meterWidth = Math.max(tileSize * 6, viewWidth / 2);
+        int playerCount = Math.max(1, state.players.size());
+        int segmentWidth = (meterWidth - gap * (playerCount - 1)) / playerCount;
+        int mx = (viewWidth - meterWidth) / 2;
+        for (int p = 0; p < state.players.size(); p++) {
+            Player player = state.players.get(p);
+            drawSprintMeter(g, player, mx + player.index * (segmentWidth + gap), segmentWidth, baseY, iconH);
         }
+    }
 
-        // Sprint Meter
-        drawSprintMeter(g2, state, baseY, iconH, gap);
+    // What overlay the state calls for: -1 game over, -2 won, the next level number, or 0 for none
+    private static int overlayFor(GameState state) {
+        if (state.gameOver) return -1;
+        if (state.gameWon) return -2;
+        if (!state.interLevel) return 0;
+        return state.nextLevelToStart > 0 ? state.nextLevelToStart : state.currentLevel + 1;
+    }
+
+    // Game over / win / next level screen: dim, title and hint are one cached image
+    private void drawOverlay(Graphics2D g, GameState state) {
+        int key = overlayFor(state);
+        if (overlayImage == null || key != overlayKey) renderOverlay(state, key);
+        g.drawImage(overlayImage, 0, 0, null);
+    }
 
-        g2.dispose();
+    private void renderOverlay(GameState state, int key) {
+        loads |= LOAD_CACHE;
+        if (overlayImage == null) overlayImage = SpriteAtlas.createCompatibleImage(viewWidth, totalH, Transparency.TRANSLUCENT);
+        Graphics2D g = overlayImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setColor(OVERLAY_DIM);
+        g.fillRect(0, 0, viewWidth, totalH);
+        g.setComposite(AlphaComposite.SrcOver);
+
+        String title = state.gameOver ? GAME_OVER : (state.gameWon ? YOU_WIN : LEVEL + key);
+        g.setFont(titleFont);
+        FontMetrics fm = g.getFontMetrics();
+        int tx = (viewWidth - fm.stringWidth(title)) / 2;
+        int ty = topBarH + viewHeight / 2 - fm.getHeight();
+        g.setColor(Color.WHITE);
+        g.drawString(title, tx, ty);
+
+        if (!state.interLevel) {
+            g.setFont(subtitleFont);
+            FontMetrics fm2 = g.getFontMetrics();
+            int sx = (viewWidth - fm2.stringWidth(RESTART_HINT)) / 2;
+            int sy = ty + fm.getHeight() + 40;
+            g.drawString(RESTART_HINT, sx, sy);
+        }
+        g.dispose();
+        overlayKey = key;
     }
 
-    private void drawSprintMeter(Graphics2D g2, GameState state, int baseY, int iconH, int gap) {
+    private void drawSprintMeter(Graphics2D g2, Player player, int mx, int meterWidth, int baseY, int iconH) {
         int meterHeight = Math.max(iconH / 2, (int) (iconH * 0.6));
-        int meterWidth = Math.max(tileSize * 6, boardWidth / 2);
-        int mx = (boardWidth - meterWidth) / 2;
         int my = baseY + (iconH - meterHeight) / 2;
-
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (meterFrame == null || meterFrame.getWidth() != meterWidth + 1 || meterFrame.getHeight() != meterHeight + 1) {
+            buildMeterImages(meterWidth, meterHeight);
+        }
 
         // Background and border
-        g2.setColor(new Color(255, 255, 255, 50));
-        g2.fillRoundRect(mx, my, meterWidth, meterHeight, 12, 12);
-        g2.setColor(new Color(255, 255, 255, 140));
-        g2.drawRoundRect(mx, my, meterWidth, meterHeight, 12, 12);
+        g2.drawImage(meterFrame, mx, my, null);
 
         // Determine status
-        boolean onCooldown = state.sprintCooldownTicks > 0;
-        boolean active = state.sprintActive;
+        boolean onCooldown = player.sprintCooldownTicks > 0;
+        boolean active = player.sprintActive;
         float fillRatio;
-        Color fillColor;
-        String label;
+        int status;
 
         if (active) {
-            fillRatio = Math.max(0f, Math.min(1f, (float) state.sprintTicksRemaining / GameConstants.TIMER_SPRINT_DURATION));
-            fillColor = new Color(255, 200, 0);
-            label = "Sprinting";
+            fillRatio = Math.max(0f, Math.min(1f, (float) player.sprintTicksRemaining / GameConstants.TIMER_SPRINT_DURATION));
+            status = SPRINTING;
         } else if (onCooldown) {
-            float cooldownRatio = 1f - (float) state.sprintCooldownTicks / GameConstants.TIMER_SPRINT_COOLDOWN;
+            float cooldownRatio = 1f - (float) player.sprintCooldownTicks / GameConstants.TIMER_SPRINT_COOLDOWN;
             fillRatio = Math.max(0f, Math.min(1f, cooldownRatio));
-            fillColor = new Color(180, 60, 60);
-            label = "Cooldown";
+            status = COOLDOWN;
         } else {
             fillRatio = 1f;
-            fillColor = new Color(60, 180, 90);
-            label = "Sprint";
+            status = READY;
         }
 
         int fillWidth = (int) (fillRatio * (meterWidth - 4));
-        g2.setColor(fillColor);
-        g2.fillRoundRect(mx + 2, my + 2, fillWidth, meterHeight - 4, 10, 10);
+        drawBarFill(g2, meterFills[status], mx + 2, my + 2, fillWidth, 5);
 
         // Label
-        g2.setFont(new Font("Arial", Font.BOLD, Math.max(12, tileSize / 3)));
-        FontMetrics fm = g2.getFontMetrics();
-        int textX = mx + (meterWidth - fm.stringWidth(label)) / 2;
-        int textY = my + (meterHeight - fm.getHeight()) / 2 + fm.getAscent();
-        g2.setColor(Color.BLACK);
-        g2.drawString(label, textX + 1, textY + 1);
-        g2.setColor(Color.WHITE);
-        g2.drawString(label, textX, textY);
+        BufferedImage label = meterLabels[status];
+        int textX = mx + (meterWidth - label.getWidth() + 1) / 2;
+        int textY = my + (meterHeight - label.getHeight() + 1) / 2;
+        g2.drawImage(label, textX, textY, null);
+    }
+
+    // Frame, the three status fills and labels of a sprint meter segment, drawn antialiased once
+    private void buildMeterImages(int meterWidth, int meterHeight) {
+        loads |= LOAD_CACHE;
+        meterFrame = SpriteAtlas.createCompatibleImage(meterWidth + 1, meterHeight + 1, Transparency.TRANSLUCENT);
+        Graphics2D g = meterFrame.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(METER_BACKGROUND);
+        g.fillRoundRect(0, 0, meterWidth, meterHeight, 12, 12);
+        g.setColor(METER_BORDER);
+        g.drawRoundRect(0, 0, meterWidth, meterHeight, 12, 12);
+        g.dispose();
+
+        for (int status = 0; status < SPRINT_COLORS.length; status++) {
+            meterFills[status] = renderFill(meterWidth - 4, meterHeight - 4, SPRINT_COLORS[status]);
+            if (meterLabels[status] == null) meterLabels[status] = renderLabel(SPRINT_LABELS[status], meterFont);
+        }
     }
 
     private void drawBossHud(Graphics2D g2, GameState state, int pad) {
         Image bossImg = assetManager.getBossImage();
-        int centerX = boardWidth / 2;
+        int centerX = viewWidth / 2;
         int gap = Math.max(6, pad / 2);
 
-        int barWidth = Math.max(tileSize * 8, boardWidth / 3);
+        int barWidth = Math.max(tileSize * 8, viewWidth / 3);
         int barHeight = Math.max(topBarH / 2, tileSize / 2);
         int iconW = 0;
         int iconH = 0;
@@ -294,61 +1090,106 @@ public class Renderer {
         int barX = iconW > 0 ? startX + iconW + gap : startX;
         int barY = (topBarH - barHeight) / 2;
 
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
         if (bossImg != null) {
-            g2.drawImage(bossImg, startX, (topBarH - iconH) / 2, iconW, iconH, null);
+            atlas.draw(g2, bossImg, startX, (topBarH - iconH) / 2, iconW, iconH);
         }
 
-        g2.setColor(new Color(80, 0, 0, 180));
-        g2.fillRoundRect(barX, barY, barWidth, barHeight, 12, 12);
-        g2.setColor(new Color(200, 80, 80, 220));
-        g2.drawRoundRect(barX, barY, barWidth, barHeight, 12, 12);
+        if (bossFrame == null) buildBossBarImages(barWidth, barHeight);
+        g2.drawImage(bossFrame, barX, barY, null);
 
-        float livesRatio = Math.max(0f, Math.min(1f, (float) state.boss.getLives() / GameConstants.BOSS_LIVES));
+        int lives = Math.max(0, Math.min(GameConstants.BOSS_LIVES, state.boss.getLives()));
+        float livesRatio = (float) lives / GameConstants.BOSS_LIVES;
         int innerWidth = Math.max(0, (int) ((barWidth - 6) * livesRatio));
+        drawBarFill(g2, bossFill, barX + 3, barY + 3, innerWidth, 5);
+
+        if (bossLabels[lives] == null) {
+            loads |= LOAD_CACHE;
+            bossLabels[lives] = renderLabel("BOSS " + lives + "/" + GameConstants.BOSS_LIVES, bossFont);
+        }
+        BufferedImage label = bossLabels[lives];
+        int textX = barX + (barWidth - label.getWidth() + 1) / 2;
+        int textY = barY + (barHeight - label.getHeight() + 1) / 2;
+        g2.drawImage(label, textX, textY, null);
+    }
+
+    private void buildBossBarImages(int barWidth, int barHeight) {
+        loads |= LOAD_CACHE;
+        bossFrame = SpriteAtlas.createCompatibleImage(barWidth + 1, barHeight + 1, Transparency.TRANSLUCENT);
+        Graphics2D g = bossFrame.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(BOSS_BAR_BACKGROUND);
+        g.fillRoundRect(0, 0, barWidth, barHeight, 12, 12);
+        g.setColor(BOSS_BAR_BORDER);
+        g.drawRoundRect(0, 0, barWidth, barHeight, 12, 12);
+        g.dispose();
+
         int innerHeight = barHeight - 6;
-        int innerX = barX + 3;
-        int innerY = barY + 3;
-
-        g2.setPaint(new GradientPaint(innerX, innerY, new Color(255, 120, 120), innerX, innerY + innerHeight, new Color(200, 20, 20)));
-        g2.fillRoundRect(innerX, innerY, innerWidth, innerHeight, 10, 10);
-
-        String label = "BOSS " + state.boss.getLives() + "/" + GameConstants.BOSS_LIVES;
-        g2.setFont(new Font("Arial", Font.BOLD, Math.max(14, tileSize / 2)));
-        FontMetrics fm = g2.getFontMetrics();
-        int textX = barX + (barWidth - fm.stringWidth(label)) / 2;
-        int textY = barY + (barHeight - fm.getHeight()) / 2 + fm.getAscent();
-
-        g2.setColor(Color.BLACK);
-        g2.drawString(label, textX + 1, textY + 1);
-        g2.setColor(Color.WHITE);
-        g2.drawString(label, textX, textY);
-    }
-    // -----------------------------------------------------------------
-    //  WALL TEXTURE LOGIC
-    // -----------------------------------------------------------------
-
-    public Image createWallTexture(boolean[][] wallMatrix, int row, int column) {
-        Image wallImage = assetManager.getWallImage();
-
-        if (wallImage == null) {
-            BufferedImage fallback = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D fallbackG = fallback.createGraphics();
-            fallbackG.setColor(new Color(30, 30, 30));
-            fallbackG.fillRect(0, 0, tileSize, tileSize);
-            fallbackG.setColor(new Color(80, 80, 80));
-            fallbackG.drawRect(0, 0, tileSize - 1, tileSize - 1);
-            fallbackG.dispose();
-            return fallback;
-        }
-
-        BufferedImage texture = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = texture.createGraphics();
-
-        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g2d.drawImage(wallImage, 0, 0, tileSize, tileSize, null);
-        g2d.dispose();
-        return texture;
-    }
-}
\ No newline at end of file
+        bossFill = renderFill(barWidth - 6, innerHeight, new GradientPaint(0, 0, BOSS_BAR_TOP, 0, innerHeight, BOSS_BAR_BOTTOM));
+    }
+
+    // A full-width rounded bar fill; drawBarFill cuts shorter ones out of it
+    private static BufferedImage renderFill(int width, int height, Paint paint) {
+        BufferedImage fill = SpriteAtlas.createCompatibleImage(Math.max(1, width), Math.max(1, height), Transparency.TRANSLUCENT);
+        Graphics2D g = fill.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setPaint(paint);
+        g.fillRoundRect(0, 0, width, height, 10, 10);
+        g.dispose();
+        return fill;
+    }
+
+    /**
+     * Draws the first width pixels of a bar fill: its left part and its rounded right
+     * end (cap pixels wide), so a partly filled bar keeps both rounded ends.
+     */
+    private static void drawBarFill(Graphics2D g, BufferedImage fill, int x, int y, int width, int cap) {
+        if (width <= 0) return;
+        int w = fill.getWidth();
+        int h = fill.getHeight();
+        int end = Math.min(cap, width / 2);
+        int left = width - end;
+        g.drawImage(fill, x, y, x + left, y + h, 0, 0, left, h, null);
+        g.drawImage(fill, x + left, y, x + width, y + h, w - end, 0, w, h, null);
+    }
+
+    // Antialiased white text with a black drop shadow; the baseline sits at the font's ascent
+    private static BufferedImage renderLabel(String label, Font font) {
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = probe.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        FontMetrics fm = g.getFontMetrics(font);
+        g.dispose();
+
+        BufferedImage image = SpriteAtlas.createCompatibleImage(fm.stringWidth(label) + 1, fm.getHeight() + 1, Transparency.TRANSLUCENT);
+        g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(font);
+        g.setColor(Color.BLACK);
+        g.drawString(label, 1, fm.getAscent() + 1);
+        g.setColor(Color.WHITE);
+        g.drawString(label, 0, fm.getAscent());
+        g.dispose();
+        return image;
+    }
+
+    // Writes s at pos in buf and returns the position after it
+    private static int put(char[] buf, int pos, String s) {
+        s.getChars(0, s.length(), buf, pos);
+        return pos + s.length();
+    }
+
+    // Writes value in decimal at pos in buf and returns the position after it
+    private static int put(char[] buf, int pos, int value) {
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int end = pos;
+        for (int v = value; v >= 10; v /= 10) end++;
+        for (int i = end; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end + 1;
+    }
+}
@@ -15,6 +15,7 @@ public class SoundManager {
     private final List<Clip> backgroundClips = new ArrayList<>();
     private final List<FloatControl> bgGainControls = new ArrayList<>();
     private final Preferences prefs = Preferences.userNodeForPackage(SoundManager.class);
+    private volatile boolean clipsUnavailable; // no mixer plays clips, e.g. no sound device
 
     private SoundManager() { }
 
@@ -108,6 +109,9 @@ public class SoundManager {
     }
 
     private Clip loadClip(String resourcePath) {
+        if (clipsUnavailable) {
+            return null;
+        }
         AudioInputStream audioStream = resolveAudioStream(resourcePath);
         if (audioStream == null) {
             return null;
@@ -119,6 +123,11 @@ public class SoundManager {
         } catch (IOException | LineUnavailableException exception) {
             System.err.println("Failed to load audio resource " + resourcePath + ": " + exception.getMessage());
             return null;
+        } catch (IllegalArgumentException exception) {
+            // getClip: nothing on this system can play clips; the game stays silent
+            clipsUnavailable = true;
+            System.err.println("Sound disabled: " + exception.getMessage());
+            return null;
         }
     }
 
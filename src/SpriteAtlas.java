@@ -0,0 +1,164 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Sprites pre-scaled to the sizes they are drawn at and packed into a few
+ * display-compatible pages, so drawing a sprite is an unscaled copy of a
+ * rectangle of an image the pipeline already has in its native format.
+ *
+ * Entries are looked up by (source image, width, height). Known sizes are added
+ * when the assets load; any other size is added the first time it is drawn.
+ * Used from the EDT only.
+ */
+public class SpriteAtlas {
+    private static final int PAGE_SIZE = 512;
+    private static final int PADDING = 1;
+
+    private static final class Entry {
+        final int width;
+        final int height;
+        final BufferedImage page;
+        final int x;
+        final int y;
+        final Entry next; // other sizes of the same image
+
+        Entry(int width, int height, BufferedImage page, int x, int y, Entry next) {
+            this.width = width;
+            this.height = height;
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.next = next;
+        }
+    }
+
+    private final IdentityHashMap<Image, Entry> entries = new IdentityHashMap<>();
+    private final List<BufferedImage> pages = new ArrayList<>();
+
+    // Shelf packing on the current page
+    private BufferedImage page;
+    private int shelfX;
+    private int shelfY;
+    private int shelfHeight;
+
+    private int version; // bumped on every insert
+
+    /**
+     * Makes sure image is in the atlas at width x height.
+     */
+    public void add(Image image, int width, int height) {
+        if (image != null && width > 0 && height > 0) find(image, width, height);
+    }
+
+    /**
+     * Draws image at (x, y) with the given size, from the atlas when possible.
+     */
+    public void draw(Graphics2D g, Image image, int x, int y, int width, int height) {
+        if (image == null || width <= 0 || height <= 0) return;
+        Entry e = find(image, width, height);
+        g.drawImage(e.page, x, y, x + width, y + height, e.x, e.y, e.x + width, e.y + height, null);
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Changes whenever an entry is added, so callers can tell a draw that had to
+     * scale and pack a new size from one that was a plain copy.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    private Entry find(Image image, int width, int height) {
+        Entry first = entries.get(image);
+        for (Entry e = first; e != null; e = e.next) {
+            if (e.width == width && e.height == height) return e;
+        }
+        Entry e = insert(image, width, height, first);
+        entries.put(image, e);
+        return e;
+    }
+
+    private Entry insert(Image image, int width, int height, Entry next) {
+        BufferedImage target;
+        int x;
+        int y;
+        if (width + PADDING > PAGE_SIZE || height + PADDING > PAGE_SIZE) {
+            // Too big to share a page
+            target = createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            pages.add(target);
+            x = 0;
+            y = 0;
+        } else {
+            if (page != null && shelfX + width > PAGE_SIZE) {
+                shelfX = 0;
+                shelfY += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            if (page == null || shelfY + height > PAGE_SIZE) {
+                page = createCompatibleImage(PAGE_SIZE, PAGE_SIZE, Transparency.TRANSLUCENT);
+                pages.add(page);
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+            }
+            target = page;
+            x = shelfX;
+            y = shelfY;
+            shelfX += width + PADDING;
+            shelfHeight = Math.max(shelfHeight, height);
+        }
+
+        version++;
+        Graphics2D g = target.createGraphics();
+        g.drawImage(scale(image, width, height), x, y, null);
+        g.dispose();
+        return new Entry(width, height, target, x, y, next);
+    }
+
+    /**
+     * Scales in steps of at most one half with bilinear filtering, which keeps
+     * large source art (up to 1000 px here) smooth at tile size.
+     */
+    static BufferedImage scale(Image image, int width, int height) {
+        int w = Math.max(width, image.getWidth(null));
+        int h = Math.max(height, image.getHeight(null));
+        BufferedImage current = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = current.createGraphics();
+        g.drawImage(image, 0, 0, w, h, null);
+        g.dispose();
+
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    /**
+     * Image in the screen's native format where there is a screen, so blits need no conversion.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            int type = (transparency == Transparency.OPAQUE) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            return new BufferedImage(width, height, type);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+    }
+}
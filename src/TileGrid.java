@@ -0,0 +1,172 @@
+import java.util.Arrays;
+
+/**
+ * One level as a dense, row-major byte per tile holding a tile type code, with a
+ * flag table per code, so "is this a wall", "can I walk here" or "which ghost
+ * spawns here" are a single array lookup instead of character comparisons.
+ *
+ * Map characters: X wall, ' ' corridor with a pellet, O corridor without one
+ * (any unknown character reads as O), P player start, b/o/p/r ghosts, B boss.
+ * Tiles outside the grid read as walls.
+ */
+public class TileGrid {
+    // Tile type codes
+    public static final byte EMPTY = 0;        // ' '
+    public static final byte WALL = 1;         // 'X'
+    public static final byte TUNNEL = 2;       // 'O'
+    public static final byte PLAYER = 3;       // 'P'
+    public static final byte GHOST_BLUE = 4;   // 'b'
+    public static final byte GHOST_ORANGE = 5; // 'o'
+    public static final byte GHOST_PINK = 6;   // 'p'
+    public static final byte GHOST_RED = 7;    // 'r'
+    public static final byte BOSS = 8;         // 'B'
+    public static final int GHOST_TYPES = 4;
+
+    // Flags
+    public static final int F_WALL = 1;
+    public static final int F_WALKABLE = 1 << 1;
+    public static final int F_PELLET = 1 << 2;
+    public static final int F_SPAWN = 1 << 3;
+    public static final int F_GHOST = 1 << 4;
+    public static final int F_TUNNEL = 1 << 5;
+
+    // Wall neighbour mask bits, for autotiling
+    public static final int WALL_N = 1;
+    public static final int WALL_E = 1 << 1;
+    public static final int WALL_S = 1 << 2;
+    public static final int WALL_W = 1 << 3;
+
+    private static final char[] SYMBOLS = {' ', 'X', 'O', 'P', 'b', 'o', 'p', 'r', 'B'};
+    private static final int[] FLAGS = {
+            F_WALKABLE | F_PELLET,                   // EMPTY
+            F_WALL,                                  // WALL
+            F_WALKABLE | F_TUNNEL,                   // TUNNEL
+            F_WALKABLE | F_SPAWN,                    // PLAYER
+            F_WALKABLE | F_SPAWN | F_GHOST,          // GHOST_BLUE
+            F_WALKABLE | F_SPAWN | F_GHOST,          // GHOST_ORANGE
+            F_WALKABLE | F_SPAWN | F_GHOST,          // GHOST_PINK
+            F_WALKABLE | F_SPAWN | F_GHOST,          // GHOST_RED
+            F_WALKABLE | F_SPAWN                     // BOSS
+    };
+    // Map character -> code, for the whole byte range
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        Arrays.fill(CODES, TUNNEL);
+        for (byte code = 0; code < SYMBOLS.length; code++) CODES[SYMBOLS[code]] = code;
+    }
+
+    private final int rows;
+    private final int cols;
+    private final byte[] tiles;
+
+    private TileGrid(int rows, int cols, byte[] tiles) {
+        this.rows = rows;
+        this.cols = cols;
+        this.tiles = tiles;
+    }
+
+    // -----------------------------------------------------------------
+    //  FACTORIES
+    // -----------------------------------------------------------------
+
+    /**
+     * Converts row-major map characters (as stored in a level pack) in place and wraps them.
+     */
+    public static TileGrid fromSymbols(int rows, int cols, byte[] symbols) {
+        if (symbols.length != rows * cols) throw new IllegalArgumentException("Expected " + rows * cols + " tiles");
+        for (int i = 0; i < symbols.length; i++) symbols[i] = CODES[symbols[i] & 0xFF];
+        return new TileGrid(rows, cols, symbols);
+    }
+
+    public static TileGrid fromRows(String[] map) {
+        int rows = map.length;
+        int cols = map[0].length();
+        byte[] tiles = new byte[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            String row = map[r];
+            if (row.length() != cols) throw new IllegalArgumentException("Level rows must all have the same length");
+            for (int c = 0; c < cols; c++) tiles[r * cols + c] = CODES[row.charAt(c) & 0xFF];
+        }
+        return new TileGrid(rows, cols, tiles);
+    }
+
+    // -----------------------------------------------------------------
+    //  QUERIES
+    // -----------------------------------------------------------------
+
+    public int getRows() { return rows; }
+    public int getColumns() { return cols; }
+    public int size() { return tiles.length; }
+
+    public byte tileAt(int index) {
+        return tiles[index];
+    }
+
+    public byte tileAt(int row, int col) {
+        return inside(row, col) ? tiles[row * cols + col] : WALL;
+    }
+
+    public int flagsAt(int index) {
+        return FLAGS[tiles[index]];
+    }
+
+    public boolean isWall(int row, int col) {
+        return !inside(row, col) || (FLAGS[tiles[row * cols + col]] & F_WALL) != 0;
+    }
+
+    public boolean isWalkable(int row, int col) {
+        return inside(row, col) && (FLAGS[tiles[row * cols + col]] & F_WALKABLE) != 0;
+    }
+
+    public boolean hasPellet(int row, int col) {
+        return inside(row, col) && (FLAGS[tiles[row * cols + col]] & F_PELLET) != 0;
+    }
+
+    public boolean isSpawn(int row, int col) {
+        return inside(row, col) && (FLAGS[tiles[row * cols + col]] & F_SPAWN) != 0;
+    }
+
+    /**
+     * Which of the four neighbours are walls (WALL_N/E/S/W). Unlike isWall, tiles
+     * outside the grid do not count, so the board's outer walls keep their edge.
+     */
+    public int wallMask(int row, int col) {
+        int mask = 0;
+        if (row > 0 && tiles[(row - 1) * cols + col] == WALL)        mask |= WALL_N;
+        if (col < cols - 1 && tiles[row * cols + col + 1] == WALL)   mask |= WALL_E;
+        if (row < rows - 1 && tiles[(row + 1) * cols + col] == WALL) mask |= WALL_S;
+        if (col > 0 && tiles[row * cols + col - 1] == WALL)          mask |= WALL_W;
+        return mask;
+    }
+
+    private boolean inside(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    // -----------------------------------------------------------------
+    //  CODES
+    // -----------------------------------------------------------------
+
+    public static boolean hasFlag(byte code, int flag) {
+        return (FLAGS[code] & flag) != 0;
+    }
+
+    /** Ghost codes in b, o, p, r order, wrapping around. */
+    public static byte ghostCode(int ghostIndex) {
+        return (byte) (GHOST_BLUE + Math.floorMod(ghostIndex, GHOST_TYPES));
+    }
+
+    /**
+     * Walkable tiles as a row-major boolean grid, for the path-finding and collision code.
+     */
+    public boolean[][] toWalkableGrid() {
+        boolean[][] walkable = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                walkable[r][c] = (FLAGS[tiles[r * cols + c]] & F_WALKABLE) != 0;
+            }
+        }
+        return walkable;
+    }
+}
@@ -0,0 +1,181 @@
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The walls of a level pre-rendered into square chunk images of CHUNK_TILES tiles,
+ * so the renderer blits a handful of chunks at the camera offset instead of
+ * drawing every wall tile.
+ *
+ * Chunks are rasterized in parallel on a ForkJoin pool when first asked for
+ * (the renderer asks for the ones under the view and a ring around it). Until a
+ * chunk is ready getChunk returns null and the caller draws those tiles itself,
+ * so the EDT never waits. Finished chunks are kept as soft references, at most
+ * as many as MEMORY_BUDGET allows, the least recently drawn going first.
+ * Chunks are looked up by index in arrays sized for the grid, so a lookup
+ * allocates nothing. getChunk, request, collectBuilt and setTiles are for the
+ * EDT only.
+ */
+public class WallChunkCache {
+    public static final int CHUNK_TILES = 16;
+    private static final long MEMORY_BUDGET = 48L << 20; // bytes of chunk pixels
+
+    private static final ForkJoinPool POOL =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    // A chunk handed back by a worker
+    private static final class Built {
+        final TileGrid tiles;
+        final int index;
+        final BufferedImage image;
+
+        Built(TileGrid tiles, int index, BufferedImage image) {
+            this.tiles = tiles;
+            this.index = index;
+            this.image = image;
+        }
+    }
+
+    private final WallTextures wallTextures;
+    private final int tileSize;
+    private final int maxChunks;
+
+    private TileGrid tiles;
+    private int chunkRows;
+    private int chunkCols;
+    private SoftReference<BufferedImage>[] chunks = newChunkArray(0);
+    private int[] lastUsed = new int[0];  // use stamp per chunk, for evicting the oldest
+    private boolean[] pending = new boolean[0];
+    private int cachedCount;
+    private int useClock;
+    private final ConcurrentLinkedQueue<Built> built = new ConcurrentLinkedQueue<>();
+
+    public WallChunkCache(WallTextures wallTextures, int tileSize) {
+        this.wallTextures = wallTextures;
+        this.tileSize = tileSize;
+        long chunkBytes = 4L * CHUNK_TILES * tileSize * CHUNK_TILES * tileSize;
+        this.maxChunks = (int) Math.max(4, MEMORY_BUDGET / chunkBytes);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // generic array of soft references
+    private static SoftReference<BufferedImage>[] newChunkArray(int size) {
+        return new SoftReference[size];
+    }
+
+    /**
+     * Switches to another tile grid; chunks of the previous one are dropped.
+     * Grids are immutable, so the same grid (a restarted level) keeps its chunks.
+     */
+    public void setTiles(TileGrid tiles) {
+        if (tiles == this.tiles) return;
+        this.tiles = tiles;
+        chunkRows = (tiles.getRows() + CHUNK_TILES - 1) / CHUNK_TILES;
+        chunkCols = (tiles.getColumns() + CHUNK_TILES - 1) / CHUNK_TILES;
+        int count = chunkRows * chunkCols;
+        chunks = newChunkArray(count);
+        lastUsed = new int[count];
+        pending = new boolean[count];
+        cachedCount = 0;
+        built.clear();
+    }
+
+    /**
+     * The chunk image, or null if it is still being built (it is queued if need be).
+     */
+    public BufferedImage getChunk(int chunkRow, int chunkCol) {
+        if (!inside(chunkRow, chunkCol)) return null;
+        int index = chunkRow * chunkCols + chunkCol;
+        SoftReference<BufferedImage> ref = chunks[index];
+        BufferedImage image = (ref != null) ? ref.get() : null;
+        if (image == null) {
+            if (ref != null) drop(index); // cleared by the GC
+            submit(chunkRow, chunkCol, index);
+        } else {
+            lastUsed[index] = ++useClock;
+        }
+        return image;
+    }
+
+    /**
+     * Queues the chunk for building if it is not cached yet, without waiting for it.
+     * Returns whether a build was queued just now.
+     */
+    public boolean request(int chunkRow, int chunkCol) {
+        if (!inside(chunkRow, chunkCol)) return false;
+        int index = chunkRow * chunkCols + chunkCol;
+        SoftReference<BufferedImage> ref = chunks[index];
+        return (ref == null || ref.get() == null) && submit(chunkRow, chunkCol, index);
+    }
+
+    /**
+     * Takes in the chunks the workers finished since the last call, dropping any
+     * built for an older grid. Returns whether any arrived.
+     */
+    public boolean collectBuilt() {
+        boolean any = false;
+        Built b;
+        while ((b = built.poll()) != null) {
+            if (b.tiles != tiles) continue;
+            pending[b.index] = false;
+            if (chunks[b.index] == null) {
+                if (cachedCount >= maxChunks) evictOldest();
+                cachedCount++;
+            }
+            chunks[b.index] = new SoftReference<>(b.image);
+            lastUsed[b.index] = ++useClock;
+            any = true;
+        }
+        return any;
+    }
+
+    public int getCachedCount() {
+        return cachedCount;
+    }
+
+    private boolean inside(int chunkRow, int chunkCol) {
+        return tiles != null && chunkRow >= 0 && chunkCol >= 0 && chunkRow < chunkRows && chunkCol < chunkCols;
+    }
+
+    private boolean submit(int chunkRow, int chunkCol, int index) {
+        if (pending[index]) return false;
+        pending[index] = true;
+        TileGrid grid = tiles;
+        POOL.execute(() -> built.add(new Built(grid, index, rasterize(grid, chunkRow, chunkCol))));
+        return true;
+    }
+
+    private void drop(int index) {
+        chunks[index] = null;
+        cachedCount--;
+    }
+
+    // Only runs when a chunk comes in with the cache full
+    private void evictOldest() {
+        int oldest = -1;
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] != null && (oldest < 0 || lastUsed[i] < lastUsed[oldest])) oldest = i;
+        }
+        if (oldest >= 0) drop(oldest);
+    }
+
+    // Runs on the pool
+    private BufferedImage rasterize(TileGrid grid, int chunkRow, int chunkCol) {
+        int row0 = chunkRow * CHUNK_TILES;
+        int col0 = chunkCol * CHUNK_TILES;
+        int rows = Math.min(CHUNK_TILES, grid.getRows() - row0);
+        int cols = Math.min(CHUNK_TILES, grid.getColumns() - col0);
+        BufferedImage image = SpriteAtlas.createCompatibleImage(cols * tileSize, rows * tileSize, Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!grid.isWall(row0 + r, col0 + c)) continue;
+                g.drawImage(wallTextures.get(grid.wallMask(row0 + r, col0 + c)), c * tileSize, r * tileSize, null);
+            }
+        }
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,77 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * The 16 wall tiles, one per neighbour mask (TileGrid.WALL_N/E/S/W), shared by
+ * every level. All of them are rendered in the constructor and never change
+ * afterwards, so get needs no locking and is safe to call from the parallel
+ * level compilers and the wall chunk workers alike.
+ */
+public class WallTextures {
+    private final int tileSize;
+    private final Image[] tiles = new Image[16];
+
+    public WallTextures(Image wallImage, int tileSize) {
+        this.tileSize = tileSize;
+        BufferedImage box = createWallBox(wallImage);
+        for (int mask = 0; mask < tiles.length; mask++) tiles[mask] = connectWallBox(box, mask);
+    }
+
+    /**
+     * Wall tile for a neighbour mask, joined up with the walls on the masked sides.
+     */
+    public Image get(int neighbourMask) {
+        return tiles[neighbourMask & 15];
+    }
+
+    // A single free-standing wall tile: the wall image scaled to the tile, or a plain box
+    private BufferedImage createWallBox(Image wallImage) {
+        BufferedImage box = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = box.createGraphics();
+
+        if (wallImage == null) {
+            g2d.setColor(new Color(30, 30, 30));
+            g2d.fillRect(0, 0, tileSize, tileSize);
+            g2d.setColor(new Color(80, 80, 80));
+            g2d.drawRect(0, 0, tileSize - 1, tileSize - 1);
+        } else {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(wallImage, 0, 0, tileSize, tileSize, null);
+        }
+        g2d.dispose();
+        return box;
+    }
+
+    /**
+     * Opens the box towards every connected side by stretching the box's middle
+     * cross-section over that side's edge band, so outlines run on into the
+     * neighbouring wall instead of closing off each tile.
+     */
+    private BufferedImage connectWallBox(BufferedImage box, int mask) {
+        int size = tileSize;
+        int band = Math.max(1, size / 4);
+        int mid = size / 2;
+        BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = box.getRGB(0, 0, size, size, null, 0, size);
+
+        // Each pass reads the current pixels, so a corner between two open sides is open too
+        if ((mask & TileGrid.WALL_N) != 0) for (int y = 0; y < band; y++) copyRow(pixels, size, mid, y);
+        if ((mask & TileGrid.WALL_S) != 0) for (int y = size - band; y < size; y++) copyRow(pixels, size, mid, y);
+        if ((mask & TileGrid.WALL_W) != 0) for (int x = 0; x < band; x++) copyColumn(pixels, size, mid, x);
+        if ((mask & TileGrid.WALL_E) != 0) for (int x = size - band; x < size; x++) copyColumn(pixels, size, mid, x);
+
+        tile.setRGB(0, 0, size, size, pixels, 0, size);
+        return tile;
+    }
+
+    private static void copyRow(int[] pixels, int size, int from, int to) {
+        System.arraycopy(pixels, from * size, pixels, to * size, size);
+    }
+
+    private static void copyColumn(int[] pixels, int size, int from, int to) {
+        for (int y = 0; y < size; y++) pixels[y * size + to] = pixels[y * size + from];
+    }
+}
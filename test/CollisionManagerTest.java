@@ -1,105 +1,96 @@
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
-import static org.junit.jupiter.api.Assertions.*;
-import java.util.*;
-import java.awt.Image;
-
-class Entity {
-    int x, y, width, height;
-    public boolean collidesWith(Entity o) { return false; }
-}
-
-class Actor extends Entity {
-    boolean collideFlag = false;
-    int speed;
-    Image image;
-    @Override
-    public boolean collidesWith(Entity o) { return collideFlag; }
-}
-
-class Boss extends Actor {
-    private boolean reflecting = false;
-    private int lives;
-    public Boss(int lives) { this.lives = lives; }
-    public void setReflecting(boolean r) { reflecting = r; }
-    public boolean isReflecting() { return reflecting; }
-    public boolean takeDamage() { if(reflecting) return true; lives--; return lives > 0; }
-}
-
-class SoundManager {
-    void playEffect(String s) {}
-}
-
-class GameState {
-    Actor pacman = new Actor();
-    Boss boss = null;
-    HashSet<Actor> projectiles = new HashSet<>(); // FIXED type!
-    boolean hasWeapon = false;
-    int knifeCount = 0;
-    int score = 0;
-    int lives = 3;
-    boolean gameOver = false;
-    List<Object> animations = new ArrayList<>();
-}
-
-public class CollisionManagerTest {
-    private CollisionManager collisionManager;
-    private GameState state;
-    private SoundManager soundManager;
-
-    @BeforeEach
-    void setup() {
-        collisionManager = new CollisionManager();
-        soundManager = new SoundManager();
-        state = new GameState();
-        state.pacman = new Actor();
-    }
-
-    @Test
-    void testBossCollision_none() {
-        state.boss = null;
-        int result = collisionManager.checkBossCollisions(state, soundManager);
-        assertEquals(CollisionManager.GHOST_COLLISION_NONE, result);
-    }
-
-    @Test
-    void testBossCollision_instantDeath() {
-        state.boss = new Boss(1);
-        state.boss.image = null;
-        state.hasWeapon = false;
-        state.knifeCount = 0;
-        state.pacman.collideFlag = true;
-        int result = collisionManager.checkBossCollisions(state, soundManager);
-        assertEquals(CollisionManager.GHOST_COLLISION_LIFE_LOST, result);
-    }
-
-    @Test
-    void testBossCollision_reflecting() {
-        state.boss = new Boss(1);
-        state.boss.image = null;
-        state.hasWeapon = true;
-        state.knifeCount = 1;
-        state.boss.setReflecting(true);
-        state.pacman.collideFlag = true;
-        int result = collisionManager.checkBossCollisions(state, soundManager);
-        assertEquals(CollisionManager.GHOST_COLLISION_LIFE_LOST, result);
-    }
-
-    @Test
-    void testProjectileCollision_none() {
-        int result = collisionManager.checkProjectileCollisions(state, soundManager);
-        assertEquals(CollisionManager.GHOST_COLLISION_NONE, result);
-    }
-
-    @Test
-    void testProjectileCollision_hit() {
-        Actor projectile = new Actor();
-        projectile.collideFlag = false;
-        projectile.image = null;
-        state.projectiles.add(projectile); // HashSet<Actor>
-        state.pacman.collideFlag = true;
-        int result = collisionManager.checkProjectileCollisions(state, soundManager);
-        assertEquals(CollisionManager.GHOST_COLLISION_LIFE_LOST, result);
-        assertTrue(state.projectiles.isEmpty());
-    }
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollisionManagerTest {
+    private CollisionManager collisionManager;
+    private GameState state;
+    private SoundManager soundManager;
+    private Actor pacman;
+    private Player player; // lives and knives are per player
+
+    @BeforeEach
+    void setup() {
+        collisionManager = new CollisionManager();
+        soundManager = SoundManager.getInstance();
+        state = new GameState();
+        pacman = new Actor(null, 0, 0, 32, 32, 4);
+        player = new Player(0, null, 3);
+        player.actor = pacman;
+    }
+
+    // Puts a 32x32 box where the player stands, so the two overlap this tick
+    private static void placeOnPlayer(Actor a, Actor pacman) {
+        a.x = a.prevX = pacman.x;
+        a.y = a.prevY = pacman.y;
+    }
+
+    @Test
+    void testBossCollision_none() {
+        state.boss = null;
+        int result = collisionManager.checkBossCollisions(state, player, soundManager);
+        assertEquals(CollisionManager.GHOST_COLLISION_NONE, result);
+    }
+
+    @Test
+    void testBossCollision_instantDeath() {
+        state.boss = new Boss(null, 0, 0, 32, 32, 2);
+        player.hasWeapon = false;
+        player.knifeCount = 0;
+        placeOnPlayer(state.boss, pacman);
+        int result = collisionManager.checkBossCollisions(state, player, soundManager);
+        assertEquals(CollisionManager.GHOST_COLLISION_LIFE_LOST, result);
+    }
+
+    @Test
+    void testBossCollision_reflecting() {
+        state.boss = new Boss(null, 0, 0, 32, 32, 2);
+        player.hasWeapon = true;
+        player.knifeCount = 1;
+        for (int i = 0; i < GameConstants.TIMER_BOSS_NORMAL; i++) {
+            state.boss.updateAI(); // sit out the vulnerable phase
+        }
+        assertTrue(state.boss.isReflecting());
+        placeOnPlayer(state.boss, pacman);
+        int result = collisionManager.checkBossCollisions(state, player, soundManager);
+        assertEquals(CollisionManager.GHOST_COLLISION_LIFE_LOST, result);
+    }
+
+    @Test
+    void testProjectileCollision_none() {
+        int result = collisionManager.checkProjectileCollisions(state, player, soundManager);
+        assertEquals(CollisionManager.GHOST_COLLISION_NONE, result);
+    }
+
+    @Test
+    void testProjectileCollision_hit() {
+        Actor projectile = new Actor(null, 0, 0, 16, 16, 4);
+        placeOnPlayer(projectile, pacman);
+        state.projectiles.add(projectile);
+        int result = collisionManager.checkProjectileCollisions(state, player, soundManager);
+        assertEquals(CollisionManager.GHOST_COLLISION_LIFE_LOST, result);
+        assertTrue(state.projectiles.isEmpty());
+    }
+
+    @Test
+    void testProjectileCollision_crossesPlayerIntoWall() {
+        // One corridor row: the player stands on tile 3, tile 6 is a wall
+        state.walkableGrid = new boolean[][] {{true, true, true, true, true, true, false, false}};
+        pacman.x = pacman.prevX = 3 * 32;
+        player = new Player(0, PlayerControls.forPlayer(0, 1), 3); // standing still, no keys held
+        player.actor = pacman;
+        state.players.add(player);
+        Actor projectile = new Actor(null, 0, 8, 16, 16, 200);
+        projectile.velocityX = 200;
+        state.projectiles.add(projectile);
+
+        // Within one tick it passes through the player and stops against the wall
+        new MovementManager().updateActorPositions(state, new InputHandler(), soundManager, 32);
+        assertEquals(6 * 32 - 16, projectile.x);
+        assertTrue(state.projectiles.contains(projectile), "a spent projectile stays until the hit test");
+
+        int result = collisionManager.checkProjectileCollisions(state, player, soundManager);
+        assertEquals(CollisionManager.GHOST_COLLISION_LIFE_LOST, result);
+        assertEquals(2, player.lives);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the real game loop (PacMan.tick, then GameView's dirty-tile frame and the
+ * copy of its dirty rectangles to a target) on an endless run steered by the
+ * autopilot, and checks with the thread's allocation counter that every frame
+ * that did not have to load anything allocates not a single byte. The test keeps
+ * the frames busy: fog of war goes on and off, ghosts die, and the score and the
+ * lives change, so the bars are redrawn.
+ *
+ * That holds for the frame path as the JIT compiles it: Java2D allocates a few
+ * Rectangles per blit that only escape analysis removes. When the game first
+ * takes a branch the compiled frame path never saw, the JVM throws that code
+ * away (which itself allocates) and runs it unoptimized until it is compiled
+ * again. So the frames run in phases, and a phase is checked once neither it nor
+ * the SETTLE_PHASES before it saw the frame path deoptimized (JFR reports each
+ * deoptimization with its stack). In that phase every frame counts: it either allocates nothing, or the
+ * renderer reports one of the loads a running game still has (a new map, a chunk
+ * scrolled into view, a new frame of the background), and those stay rare.
+ */
+public class FrameAllocationTest {
+    private static final int PHASE_FRAMES = 1000;
+    private static final int SETTLE_PHASES = 2;
+    private static final int MAX_PHASES = 8;
+
+    // Events scripted into every phase, in frames
+    private static final int FOG_PERIOD = PHASE_FRAMES / 2;
+    private static final int SCORE_PERIOD = 40;
+    private static final int LIVES_PERIOD = 50;
+    private static final int DEATH_PERIOD = 150;
+
+    // Loads a running game keeps having; anything else means a cache was not warm
+    private static final int RUNNING_LOADS = Renderer.LOAD_LEVEL | Renderer.LOAD_CHUNK | Renderer.LOAD_BACKGROUND;
+
+    @Test
+    void testFramesWithoutLoadsAllocateNothing() throws Exception {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assertTrue(threads instanceof com.sun.management.ThreadMXBean, "allocation counter needed");
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        assertTrue(counter.isThreadAllocatedMemorySupported(), "allocation counter needed");
+        counter.setThreadAllocatedMemoryEnabled(true);
+
+        boolean autopilot = ModeManager.isAutopilotEnabled();
+        boolean fog = ModeManager.isFogOfWarEnabled();
+        if (!autopilot) ModeManager.toggleAutopilot();
+        try (Recording deoptimizations = new Recording()) {
+            deoptimizations.enable("jdk.Deoptimization").withStackTrace();
+            deoptimizations.start();
+            SwingUtilities.invokeAndWait(() -> runPhases(counter, deoptimizations));
+        } finally {
+            if (ModeManager.isAutopilotEnabled() != autopilot) ModeManager.toggleAutopilot();
+            if (ModeManager.isFogOfWarEnabled() != fog) ModeManager.toggleFogOfWar();
+        }
+    }
+
+    // On the EDT, where the game loop runs
+    private static void runPhases(com.sun.management.ThreadMXBean counter, Recording deoptimizations) {
+        PacMan game = new PacMan(GameMode.ENDLESS);
+        game.stop(); // the frames are driven from here
+        GameState state = game.getState();
+        GameView view = game.getView();
+        view.setSize(view.getPreferredSize());
+
+        BufferedImage buffer = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB);
+        BufferedImage screen = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D bufferGraphics = buffer.createGraphics();
+        Graphics2D screenGraphics = screen.createGraphics();
+
+        long[] allocated = new long[PHASE_FRAMES];
+        int[] loads = new int[PHASE_FRAMES];
+        boolean[] fogged = new boolean[PHASE_FRAMES];
+        boolean[] animated = new boolean[PHASE_FRAMES];
+        boolean[] hudChanged = new boolean[PHASE_FRAMES];
+        long[] phaseStarts = new long[MAX_PHASES];
+        try {
+            for (int phase = 0; phase < MAX_PHASES; phase++) {
+                phaseStarts[phase] = System.currentTimeMillis();
+                for (int i = 0; i < PHASE_FRAMES; i++) {
+                    hudChanged[i] = script(state, i);
+                    game.tick();
+                    allocated[i] = drawFrame(counter, view, buffer, bufferGraphics, screenGraphics);
+                    loads[i] = view.getFrameLoads();
+                    fogged[i] = ModeManager.isFogOfWarEnabled();
+                    animated[i] = !state.animations.isEmpty();
+                }
+                assertFalse(state.gameOver, "the run ended early");
+                if (phase < SETTLE_PHASES
+                        || lastFramePathDeoptimization(deoptimizations) >= phaseStarts[phase - SETTLE_PHASES]) {
+                    continue; // compiled code was thrown away lately; let the JIT catch up
+                }
+
+                int loadFrames = 0;
+                int fogFrames = 0;
+                int deathFrames = 0;
+                int hudFrames = 0;
+                for (int i = 0; i < PHASE_FRAMES; i++) {
+                    String frame = "frame " + i + " of phase " + phase;
+                    if (loads[i] != 0) {
+                        assertEquals(0, loads[i] & ~RUNNING_LOADS, frame + " built a cache: loads " + loads[i]);
+                        loadFrames++;
+                        continue;
+                    }
+                    assertEquals(0, allocated[i], frame + " allocated");
+                    if (fogged[i]) fogFrames++;
+                    if (animated[i]) deathFrames++;
+                    if (hudChanged[i]) hudFrames++;
+                }
+                assertTrue(loadFrames <= PHASE_FRAMES / 5, loadFrames + " of " + PHASE_FRAMES + " frames loaded something");
+                // The checked frames did cover what the claim is about
+                assertTrue(fogFrames > 0, "no checked frame had fog");
+                assertTrue(fogFrames < PHASE_FRAMES - loadFrames, "every checked frame had fog");
+                assertTrue(deathFrames > 0, "no checked frame had a death animation");
+                assertTrue(hudFrames > 0, "no checked frame redrew the bars");
+                return;
+            }
+            fail("the frame path was still being recompiled after " + MAX_PHASES + " phases");
+        } finally {
+            bufferGraphics.dispose();
+            screenGraphics.dispose();
+        }
+    }
+
+    // One frame as the game loop draws it; returns the bytes it allocated
+    private static long drawFrame(com.sun.management.ThreadMXBean counter, GameView view, BufferedImage buffer,
+                                  Graphics2D bufferGraphics, Graphics2D screenGraphics) {
+        long before = counter.getCurrentThreadAllocatedBytes();
+        DirtyTiles dirty = view.collectDirty();
+        DirtyTiles drawn = dirty.isFull() ? null : dirty;
+        view.drawFrame(bufferGraphics, drawn);
+        GameView.copyFrame(buffer, screenGraphics, drawn == null || dirty.isScrolled() ? null : drawn);
+        return counter.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    // This frame's scripted events, before the tick; returns whether the bars' values changed
+    private static boolean script(GameState state, int frame) {
+        if (frame % FOG_PERIOD == 0) ModeManager.toggleFogOfWar();
+        if (frame % DEATH_PERIOD == 0 && !state.ghosts.isEmpty()) {
+            Actor ghost = state.ghosts.get(0);
+            state.animations.add(new DeathAnimation(ghost.image, ghost.x, ghost.y, ghost.width, ghost.height, 30, "100", Color.yellow));
+        }
+        boolean changed = false;
+        if (frame % SCORE_PERIOD == 0) {
+            state.score += 10;
+            changed = true;
+        }
+        int lives = (frame % (2 * LIVES_PERIOD) < LIVES_PERIOD) ? 3 : 2; // and the run never ends
+        for (Player player : state.players) {
+            changed |= player.lives != lives;
+            player.lives = lives;
+        }
+        return changed;
+    }
+
+    // When code on the frame path (drawFrame and below) was last deoptimized, in epoch millis; 0 if never
+    private static long lastFramePathDeoptimization(Recording deoptimizations) {
+        try {
+            Path file = Files.createTempFile("deoptimizations", ".jfr");
+            try {
+                deoptimizations.dump(file);
+                long last = 0;
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    if (inFramePath(event.getStackTrace())) last = Math.max(last, event.getStartTime().toEpochMilli());
+                }
+                return last;
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean inFramePath(RecordedStackTrace stack) {
+        if (stack == null) return false;
+        for (RecordedFrame frame : stack.getFrames()) {
+            if (frame.getMethod().getType().getName().equals(FrameAllocationTest.class.getName())
+                    && frame.getMethod().getName().equals("drawFrame")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -12,7 +12,7 @@ class GameStateTest {
     MafiaSprint sprint = new MafiaSprint();
 }
 
-class GameLogic {
+class SprintLogic {
     // Example logic for reference; adapt if needed!
     void updateSprintState(GameStateTest state) {
         if (state.sprint.isSprinting) {
@@ -26,12 +26,12 @@ class GameLogic {
 }
 
 public class GameLogicSprintTest {
-    GameLogic logic;
+    SprintLogic logic;
     GameStateTest state;
 
     @BeforeEach
     void setup() {
-        logic = new GameLogic();
+        logic = new SprintLogic();
         state = new GameStateTest();
     }
 
@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ghosts stop at every tile boundary to pick a direction, but the rest of the
+ * tick's distance carries on past it, so they still cover SPEED_GHOST a tick.
+ */
+public class GhostMovementTest {
+
+    @Test
+    void testGhostsKeepTheirSpeedAcrossTileBoundaries() {
+        // A ring corridor: no dead ends, so the planner never turns a ghost back
+        String[] map = {
+                "########",
+                "#......#",
+                "#.####.#",
+                "#......#",
+                "########"
+        };
+        int tileSize = GameConstants.TILE_SIZE;
+        GameState state = new GameState();
+        state.tiles = TileGrid.fromRows(map);
+        state.walkableGrid = state.tiles.toWalkableGrid();
+        for (MovementType type : new MovementType[] {MovementType.SMART, MovementType.RANDOM}) {
+            Actor ghost = new Actor(null, tileSize, tileSize, tileSize, tileSize, GameConstants.SPEED_GHOST);
+            ghost.movementType = type;
+            state.ghosts.add(ghost);
+        }
+
+        MovementManager movement = new MovementManager();
+        InputHandler input = new InputHandler();
+        for (int tick = 0; tick < 200; tick++) {
+            movement.updateActorPositions(state, input, SoundManager.getInstance(), tileSize);
+            for (Actor ghost : state.ghosts) {
+                // Moves only turn corners here, so the distance covered is |dx| + |dy|
+                int moved = Math.abs(ghost.x - ghost.prevX) + Math.abs(ghost.y - ghost.prevY);
+                assertEquals(GameConstants.SPEED_GHOST, moved, ghost.movementType + " ghost, tick " + tick);
+            }
+        }
+    }
+}
@@ -2,8 +2,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
-enum Direction { UP, DOWN, LEFT, RIGHT }
-
 class MafiaMovement {
     int x, y;
     int speed = 1;
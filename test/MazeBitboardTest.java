@@ -0,0 +1,188 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the word-parallel queries of MazeBitboard against plain tile-by-tile loops
+ * on random grids, including grids wider and taller than one 64-bit word.
+ */
+public class MazeBitboardTest {
+
+    private static boolean[][] randomGrid(Random rnd, int rows, int cols) {
+        boolean[][] grid = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                grid[r][c] = rnd.nextInt(5) != 0; // mostly open, so there are long corridors
+            }
+        }
+        return grid;
+    }
+
+    private static boolean naiveLineOfSight(boolean[][] grid, int r0, int c0, int r1, int c1) {
+        if (r0 == r1) {
+            for (int c = Math.min(c0, c1); c <= Math.max(c0, c1); c++) if (!grid[r0][c]) return false;
+            return true;
+        }
+        if (c0 == c1) {
+            for (int r = Math.min(r0, r1); r <= Math.max(r0, r1); r++) if (!grid[r][c0]) return false;
+            return true;
+        }
+        return false;
+    }
+
+    private static int naiveCorridor(boolean[][] grid, int row, int col, Direction dir) {
+        int dr = (dir == Direction.DOWN) ? 1 : (dir == Direction.UP) ? -1 : 0;
+        int dc = (dir == Direction.RIGHT) ? 1 : (dir == Direction.LEFT) ? -1 : 0;
+        int n = 0;
+        int r = row + dr;
+        int c = col + dc;
+        while (r >= 0 && r < grid.length && c >= 0 && c < grid[0].length && grid[r][c]) {
+            n++;
+            r += dr;
+            c += dc;
+        }
+        return n;
+    }
+
+    private static boolean[][] naiveFloodFill(boolean[][] grid, int row, int col) {
+        int rows = grid.length;
+        int cols = grid[0].length;
+        boolean[][] seen = new boolean[rows][cols];
+        if (!grid[row][col]) return seen;
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        seen[row][col] = true;
+        queue.add(new int[] {row, col});
+        int[][] steps = { {1, 0}, {-1, 0}, {0, 1}, {0, -1} };
+        while (!queue.isEmpty()) {
+            int[] tile = queue.poll();
+            for (int[] step : steps) {
+                int r = tile[0] + step[0];
+                int c = tile[1] + step[1];
+                if (r < 0 || r >= rows || c < 0 || c >= cols || seen[r][c] || !grid[r][c]) continue;
+                seen[r][c] = true;
+                queue.add(new int[] {r, c});
+            }
+        }
+        return seen;
+    }
+
+    @Test
+    void testLineOfSightMatchesTileLoop() {
+        Random rnd = new Random(7);
+        int[][] sizes = { {21, 19}, {70, 130}, {64, 64}, {1, 200} };
+        for (int[] size : sizes) {
+            boolean[][] grid = randomGrid(rnd, size[0], size[1]);
+            MazeBitboard maze = new MazeBitboard(grid);
+            for (int i = 0; i < 5000; i++) {
+                int r0 = rnd.nextInt(size[0]);
+                int c0 = rnd.nextInt(size[1]);
+                boolean sameRow = rnd.nextBoolean();
+                int r1 = sameRow ? r0 : rnd.nextInt(size[0]);
+                int c1 = sameRow ? rnd.nextInt(size[1]) : c0;
+                assertEquals(naiveLineOfSight(grid, r0, c0, r1, c1), maze.lineOfSight(r0, c0, r1, c1),
+                        "line of sight " + r0 + "," + c0 + " -> " + r1 + "," + c1);
+            }
+            assertFalse(maze.lineOfSight(0, 0, 1, 1), "diagonal tiles never see each other");
+        }
+    }
+
+    @Test
+    void testCorridorLengthMatchesTileLoop() {
+        Random rnd = new Random(11);
+        int[][] sizes = { {21, 19}, {70, 130}, {128, 65} };
+        for (int[] size : sizes) {
+            boolean[][] grid = randomGrid(rnd, size[0], size[1]);
+            MazeBitboard maze = new MazeBitboard(grid);
+            for (int r = 0; r < size[0]; r++) {
+                for (int c = 0; c < size[1]; c++) {
+                    for (Direction dir : new Direction[] {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT}) {
+                        assertEquals(naiveCorridor(grid, r, c, dir), maze.corridorLength(r, c, dir),
+                                "corridor from " + r + "," + c + " " + dir);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPelletsAreCopiedNotShared() {
+        boolean[][] grid = randomGrid(new Random(3), 10, 80);
+        MazeBitboard maze = new MazeBitboard(grid);
+        maze.setPellet(4, 70, true);
+        MazeBitboard copy = maze.copy();
+        copy.setPellet(4, 70, false);
+
+        assertTrue(maze.hasPellet(4, 70));
+        assertFalse(copy.hasPellet(4, 70));
+        assertFalse(maze.hasPellet(-1, 0), "out of range is never a pellet");
+        assertEquals(grid[4][70], copy.isOpen(4, 70));
+    }
+
+    @Test
+    void testReachableMatchesFloodFill() {
+        Random rnd = new Random(13);
+        int[][] sizes = { {21, 19}, {70, 130}, {64, 64}, {3, 200} };
+        for (int[] size : sizes) {
+            // Sparser grids, so there are pockets the fill must not leak into
+            boolean[][] grid = new boolean[size[0]][size[1]];
+            for (int r = 0; r < size[0]; r++) {
+                for (int c = 0; c < size[1]; c++) grid[r][c] = rnd.nextInt(5) < 3;
+            }
+            MazeBitboard maze = new MazeBitboard(grid);
+            for (int i = 0; i < 20; i++) {
+                int row = rnd.nextInt(size[0]);
+                int col = rnd.nextInt(size[1]);
+                boolean[][] expected = naiveFloodFill(grid, row, col);
+                long[] region = maze.reachable(row, col);
+                int expectedCount = 0;
+                for (int r = 0; r < size[0]; r++) {
+                    for (int c = 0; c < size[1]; c++) {
+                        if (expected[r][c]) expectedCount++;
+                        assertEquals(expected[r][c], maze.contains(region, r, c),
+                                "tile " + r + "," + c + " from " + row + "," + col);
+                    }
+                }
+                assertEquals(expectedCount, MazeBitboard.count(region));
+            }
+        }
+    }
+
+    @Test
+    void testCountsMatchTileLoops() {
+        Random rnd = new Random(17);
+        int[][] sizes = { {21, 19}, {70, 130}, {1, 200} };
+        for (int[] size : sizes) {
+            boolean[][] grid = randomGrid(rnd, size[0], size[1]);
+            MazeBitboard maze = new MazeBitboard(grid);
+            int open = 0;
+            for (boolean[] row : grid) {
+                for (boolean tile : row) if (tile) open++;
+            }
+            assertEquals(open, maze.openCount());
+
+            // Setting or clearing a pellet twice must not count it twice
+            boolean[][] pellets = new boolean[size[0]][size[1]];
+            for (int i = 0; i < 5000; i++) {
+                int r = rnd.nextInt(size[0]);
+                int c = rnd.nextInt(size[1]);
+                boolean present = rnd.nextBoolean();
+                maze.setPellet(r, c, present);
+                pellets[r][c] = present;
+                if (i % 500 == 0) assertEquals(naiveCount(pellets), maze.pelletCount());
+            }
+            assertEquals(naiveCount(pellets), maze.pelletCount());
+            assertEquals(naiveCount(pellets), maze.copy().pelletCount(), "a copy starts with the same pellets");
+        }
+    }
+
+    private static int naiveCount(boolean[][] tiles) {
+        int count = 0;
+        for (boolean[] row : tiles) {
+            for (boolean tile : row) if (tile) count++;
+        }
+        return count;
+    }
+}
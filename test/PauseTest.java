@@ -1,25 +1,19 @@
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
-class PauseManager {
-    private boolean paused = false;
-
-    public void setPaused(boolean paused) {
-        this.paused = paused;
-    }
-
-    public boolean isPaused() {
-        return paused;
-    }
-}
-
 public class PauseTest {
     PauseManager pauseManager;
 
     @BeforeEach
     void setup() {
-        pauseManager = new PauseManager();
+        pauseManager = PauseManager.getInstance();
+    }
+
+    @AfterEach
+    void teardown() {
+        pauseManager.setPaused(false); // the manager is shared, leave it as the game expects
     }
 
     @Test